@@ -0,0 +1,49 @@
+package com.valkryst.VTerminal.benchmark;
+
+import com.valkryst.VTerminal.image.SequentialOp;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.RescaleOp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link SequentialOp#filter(BufferedImage, BufferedImage)} with an image whose filtered copy is cached,
+ * and with an image which changes before each call, so its filtered copy is never cached.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class SequentialOpBenchmark {
+	private SequentialOp sequentialOp;
+	private BufferedImage cachedImage;
+	private BufferedImage uncachedImage;
+
+	/** The pixel which is written to {@link #uncachedImage} before the next uncached filter. */
+	private int pixel = 0;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		sequentialOp = new SequentialOp(new RescaleOp(0.5f, 0, null), new RescaleOp(1.5f, 0, null));
+
+		// The images are roughly the size of a tile.
+		cachedImage = new BufferedImage(10, 19, BufferedImage.TYPE_INT_ARGB);
+		uncachedImage = new BufferedImage(10, 19, BufferedImage.TYPE_INT_ARGB);
+		sequentialOp.filter(cachedImage, null);
+	}
+
+	@Benchmark
+	public BufferedImage filterCached() {
+		return sequentialOp.filter(cachedImage, null);
+	}
+
+	@Benchmark
+	public BufferedImage filterUncached() {
+		pixel++;
+		uncachedImage.setRGB(0, 0, 0xFF000000 | pixel);
+		return sequentialOp.filter(uncachedImage, null);
+	}
+}
@@ -0,0 +1,31 @@
+package com.valkryst.VTerminal.benchmark;
+
+import com.valkryst.VTerminal.palette.VColor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Benchmarks the shading and tinting of a {@link VColor}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class VColorBenchmark {
+	/** The amount by which to shade or tint. */
+	@Param({ "0.25", "0.75" })
+	public double amount;
+
+	private final VColor color = new VColor(0x40, 0x80, 0xC0, 0xFF);
+
+	@Benchmark
+	public VColor shade() {
+		return color.shade(amount);
+	}
+
+	@Benchmark
+	public VColor tint() {
+		return color.tint(amount);
+	}
+}
@@ -0,0 +1,42 @@
+package com.valkryst.VTerminal.benchmark;
+
+import com.valkryst.VTerminal.font.VFont;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/** Benchmarks the retrieval of glyph images from a {@link VFont}, when they're cached and when they aren't. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class VFontBenchmark {
+	private VFont font;
+
+	/** The colour of the next miss. Each miss uses a new colour, so its glyph is never cached. */
+	private int missColor = 0;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException, FontFormatException {
+		try (final var inputStream = VFont.class.getResourceAsStream("/Fonts/DejaVuSansMono.ttf")) {
+			font = new VFont(inputStream, 16);
+		}
+
+		font.generateImage('A', 0xFFFFFFFF, null);
+	}
+
+	@Benchmark
+	public Image generateImageHit() {
+		return font.generateImage('A', 0xFFFFFFFF, null);
+	}
+
+	@Benchmark
+	public Image generateImageMiss() {
+		missColor = (missColor + 1) & 0xFFFFFF;
+		return font.generateImage('A', 0xFF000000 | missColor, null);
+	}
+}
@@ -0,0 +1,83 @@
+package com.valkryst.VTerminal.benchmark;
+
+import com.valkryst.VTerminal.component.VPanel;
+import com.valkryst.VTerminal.plaf.VTerminalLookAndFeel;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Benchmarks {@link VPanel#paintComponent(Graphics)} at several panel sizes, with a clip covering either the
+ * whole panel or its top-left quarter.</p>
+ *
+ * <p>
+ *     {@link #paintUnchanged()} paints a panel whose tiles haven't changed, so only the clip is copied from the back
+ *     buffer. {@link #paintRewritten()} rewrites every tile before painting, so every tile is re-rendered.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class VPanelBenchmark {
+	/** The size of the panel, in tiles, as {@code WIDTHxHEIGHT}. */
+	@Param({ "80x24", "160x50", "320x100" })
+	public String size;
+
+	/** Whether the clip covers the whole panel or its top-left quarter. */
+	@Param({ "full", "partial" })
+	public String clip;
+
+	private VPanel panel;
+	private BufferedImage target;
+	private Graphics2D graphics;
+
+	/** The code point which is written to every tile by the next rewrite. */
+	private int codePoint = 'A';
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var dimensions = size.split("x");
+		final int width = Integer.parseInt(dimensions[0]);
+		final int height = Integer.parseInt(dimensions[1]);
+
+		panel = new VPanel(width, height);
+		panel.setSize(width * laf.getTileWidth(), height * laf.getTileHeight());
+		panel.fill(0, 0, width, height, 'A', 0xFFFFFFFF, 0xFF000000);
+
+		target = new BufferedImage(panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_RGB);
+		graphics = target.createGraphics();
+		if (clip.equals("full")) {
+			graphics.setClip(0, 0, panel.getWidth(), panel.getHeight());
+		} else {
+			graphics.setClip(0, 0, panel.getWidth() / 2, panel.getHeight() / 2);
+		}
+
+		// Renders every tile, and caches their glyphs, before the first measurement.
+		panel.paintComponent(graphics);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		graphics.dispose();
+	}
+
+	@Benchmark
+	public BufferedImage paintUnchanged() {
+		panel.paintComponent(graphics);
+		return target;
+	}
+
+	@Benchmark
+	public BufferedImage paintRewritten() {
+		codePoint = codePoint == 'Z' ? 'A' : codePoint + 1;
+		panel.fill(0, 0, panel.getWidthInTiles(), panel.getHeightInTiles(), codePoint, 0xFFFFFFFF, 0xFF000000);
+		panel.paintComponent(graphics);
+		return target;
+	}
+}
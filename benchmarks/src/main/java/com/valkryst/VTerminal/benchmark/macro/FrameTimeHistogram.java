@@ -0,0 +1,138 @@
+package com.valkryst.VTerminal.benchmark.macro;
+
+/**
+ * <p>A histogram of frame times, which counts every frame of a run, however many frames there are.</p>
+ *
+ * <p>
+ *     Each power of two is divided into {@code 64} buckets, so a percentile is accurate to within about 1.6%, and the
+ *     counts are held in a fixed array, so recording a frame never allocates. The longest frame time is tracked
+ *     separately, so it's exact.
+ * </p>
+ *
+ * <p>This class isn't thread-safe, as each workload is measured on a single thread.</p>
+ */
+final class FrameTimeHistogram {
+	/** Number of bits used to index the buckets within each power of two. */
+	private static final int SUB_BUCKET_BITS = 6;
+
+	/** Number of buckets within each power of two. */
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+	/** The number of frames in each bucket. */
+	private final long[] counts = new long[(Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT];
+
+	/** The number of recorded frames. */
+	private long frameCount = 0;
+
+	/** The total number of tiles painted, across every recorded frame. */
+	private long totalTilesPainted = 0;
+
+	/** The longest recorded frame time, in nanoseconds. */
+	private long maxDuration = 0;
+
+	/**
+	 * Records a frame.
+	 *
+	 * @param duration The time taken to update and paint the frame, in nanoseconds.
+	 * @param tilesPainted The number of tiles painted.
+	 */
+	void record(final long duration, final int tilesPainted) {
+		if (duration < 0) {
+			throw new IllegalArgumentException("The duration must be >= 0.");
+		}
+
+		counts[indexOf(duration)]++;
+		frameCount++;
+		totalTilesPainted += tilesPainted;
+		maxDuration = Math.max(maxDuration, duration);
+	}
+
+	/**
+	 * Retrieves the number of recorded frames.
+	 *
+	 * @return The number of frames.
+	 */
+	long getFrameCount() {
+		return frameCount;
+	}
+
+	/**
+	 * Retrieves the average number of tiles painted per frame.
+	 *
+	 * @return The average number of tiles, or {@code 0} if no frames have been recorded.
+	 */
+	double getAverageTilesPainted() {
+		return frameCount == 0 ? 0 : (double) totalTilesPainted / frameCount;
+	}
+
+	/**
+	 * Retrieves the longest recorded frame time.
+	 *
+	 * @return The frame time, in nanoseconds, or {@code 0} if no frames have been recorded.
+	 */
+	long getMaxDuration() {
+		return maxDuration;
+	}
+
+	/**
+	 * Calculates a percentile of the recorded frame times, using the nearest-rank method.
+	 *
+	 * @param percentile The percentile, between 0 and 100.
+	 * @return The highest frame time in the percentile's bucket, in nanoseconds, or {@code 0} if no frames have been
+	 *         recorded.
+	 */
+	long getDurationPercentile(final double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("The percentile must be >= 0 and <= 100.");
+		}
+
+		if (frameCount == 0) {
+			return 0;
+		}
+
+		final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * frameCount));
+
+		long seen = 0;
+		for (int index = 0 ; index < counts.length ; index++) {
+			seen += counts[index];
+
+			if (seen >= rank) {
+				return Math.min(highestValueOf(index), maxDuration);
+			}
+		}
+
+		return maxDuration;
+	}
+
+	/**
+	 * Calculates the index of the bucket which holds a frame time.
+	 *
+	 * @param duration The frame time, in nanoseconds.
+	 * @return The index.
+	 */
+	private static int indexOf(final long duration) {
+		if (duration < SUB_BUCKET_COUNT) {
+			return (int) duration;
+		}
+
+		final int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(duration)) - SUB_BUCKET_BITS;
+		final int subBucket = (int) (duration >>> shift) - SUB_BUCKET_COUNT;
+		return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	/**
+	 * Calculates the highest frame time which is held by a bucket.
+	 *
+	 * @param index The index of the bucket.
+	 * @return The frame time, in nanoseconds.
+	 */
+	private static long highestValueOf(final int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+
+		final int shift = index / SUB_BUCKET_COUNT - 1;
+		final long subBucket = SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT;
+		return ((subBucket + 1) << shift) - 1;
+	}
+}
@@ -0,0 +1,59 @@
+package com.valkryst.VTerminal.benchmark.macro;
+
+import com.valkryst.VTerminal.component.VPanel;
+
+import java.util.Random;
+
+/** Appends a line to the bottom of a log console each frame, scrolling the previous lines up. */
+public final class LogConsoleWorkload implements Workload {
+	/** The levels of the log messages. */
+	private static final String[] LEVELS = { "TRACE", "DEBUG", "INFO ", "WARN ", "ERROR" };
+
+	/** The colours of each level, as packed ARGB integers. */
+	private static final int[] LEVEL_COLORS = { 0xFF808080, 0xFF60A0FF, 0xFFE0E0E0, 0xFFFFC040, 0xFFFF4040 };
+
+	/** The words from which messages are composed. */
+	private static final String[] WORDS = {
+		"the", "goblin", "hits", "you", "misses", "door", "opens", "potion", "of", "healing", "picked", "up",
+		"level", "experience", "gained", "scroll", "reads", "dragon", "breathes", "fire", "critical", "hit"
+	};
+
+	private Random random;
+	private final StringBuilder line = new StringBuilder();
+
+	@Override
+	public String getName() {
+		return "log-console";
+	}
+
+	@Override
+	public void setUp(final VPanel panel, final Random random) {
+		this.random = random;
+		panel.fill(0, 0, panel.getWidthInTiles(), panel.getHeightInTiles(), ' ', 0xFFE0E0E0, 0xFF101010);
+	}
+
+	@Override
+	public void update(final VPanel panel, final long frame) {
+		final int width = panel.getWidthInTiles();
+		final int y = panel.getHeightInTiles() - 1;
+		final int level = random.nextInt(LEVELS.length);
+
+		line.setLength(0);
+		line.append(String.format("[%02d:%02d:%02d.%03d] ", frame / 216_000 % 24, frame / 3_600 % 60, frame / 60 % 60, frame % 60 * 16));
+		line.append(LEVELS[level]).append(' ');
+
+		final int wordCount = 3 + random.nextInt(12);
+		for (int i = 0 ; i < wordCount && line.length() < width ; i++) {
+			line.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+		}
+
+		while (line.length() < width) {
+			line.append(' ');
+		}
+
+		line.setLength(width);
+
+		panel.scroll(0, -1);
+		panel.writeString(0, y, line, LEVEL_COLORS[level], 0xFF101010);
+	}
+}
@@ -0,0 +1,242 @@
+package com.valkryst.VTerminal.benchmark.macro;
+
+import com.valkryst.VTerminal.component.VPanel;
+import com.valkryst.VTerminal.plaf.VTerminalLookAndFeel;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * <p>A headless macro benchmark, which drives a {@link VPanel} through scripted workloads and paints every frame
+ * off-screen, as fast as possible.</p>
+ *
+ * <p>
+ *     Unlike the JMH microbenchmarks, each workload runs for minutes, so the results include the effects of cache
+ *     churn, garbage collection, and varying numbers of changed tiles. For each workload, it reports the frame-time
+ *     percentiles, the allocation rate of the painting thread, the garbage collections, and the size of the glyph
+ *     caches.
+ * </p>
+ *
+ * <p>
+ *     Each workload is also summarised as a single {@code RESULT} line of comma-separated values, which includes the
+ *     version of VTerminal, so that runs against different versions can be compared.
+ * </p>
+ *
+ * <p>Usage:</p>
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.valkryst.VTerminal.benchmark.macro.MacroBenchmark \
+ *      [--workloads=scrolling-map,log-console,sequential-op-effect] [--size=160x50] [--warmup=PT30S] \
+ *      [--duration=PT3M] [--seed=1] [--rasterizer=false]
+ * </pre>
+ */
+public final class MacroBenchmark {
+	/** Private constructor, as this class only has static methods. */
+	private MacroBenchmark() {}
+
+	public static void main(final String[] args) throws IOException {
+		System.setProperty("java.awt.headless", "true");
+
+		final var options = parseOptions(args);
+		final var size = options.getOrDefault("size", "160x50").split("x");
+		final int width = Integer.parseInt(size[0]);
+		final int height = Integer.parseInt(size[1]);
+		final var warmup = Duration.parse(options.getOrDefault("warmup", "PT30S"));
+		final var duration = Duration.parse(options.getOrDefault("duration", "PT3M"));
+		final long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+		final boolean rasterizer = Boolean.parseBoolean(options.getOrDefault("rasterizer", "false"));
+
+		final var workloads = new ArrayList<Workload>();
+		for (final var name : options.getOrDefault("workloads", "scrolling-map,log-console,sequential-op-effect").split(",")) {
+			workloads.add(createWorkload(name.trim()));
+		}
+
+		final var version = readVersion();
+		System.out.printf(
+			"VTerminal %s, Java %s, %dx%d tiles, %s warm-up, %s measurement, seed %d, rasterizer %s%n%n",
+			version, System.getProperty("java.version"), width, height, warmup, duration, seed, rasterizer
+		);
+
+		final var results = new ArrayList<String>();
+		for (final var workload : workloads) {
+			results.add(version + "," + run(workload, width, height, warmup, duration, seed, rasterizer));
+		}
+
+		System.out.println("RESULT,version,workload,frames,p50Millis,p99Millis,maxMillis,allocationMiBPerSecond,gcCount,gcMillis,imageCacheBytes,peakImageCacheBytes,maskCacheBytes");
+		for (final var result : results) {
+			System.out.println("RESULT," + result);
+		}
+	}
+
+	/**
+	 * Runs a workload, and prints its results.
+	 *
+	 * @param workload The workload.
+	 * @param width The width of the panel, in tiles.
+	 * @param height The height of the panel, in tiles.
+	 * @param warmup The duration for which the workload runs before it's measured.
+	 * @param duration The duration for which the workload is measured.
+	 * @param seed The seed of the workload's source of randomness.
+	 * @param rasterizer Whether the panel's rasterizer is enabled.
+	 * @return The results, as comma-separated values, beginning with the name of the workload.
+	 */
+	private static String run(
+		final Workload workload, final int width, final int height, final Duration warmup, final Duration duration,
+		final long seed, final boolean rasterizer
+	) {
+		final var laf = VTerminalLookAndFeel.getInstance();
+
+		// Each workload starts with empty glyph caches, so it isn't affected by the workloads before it.
+		laf.configureGlyphCaches(laf.vFont.getImageCacheConfiguration(), laf.vFont.getMaskCacheConfiguration());
+
+		final var panel = new VPanel(width, height);
+		panel.setRasterizerEnabled(rasterizer);
+		panel.setSize(width * laf.getTileWidth(), height * laf.getTileHeight());
+
+		final var image = new BufferedImage(panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_RGB);
+		final var graphics = image.createGraphics();
+		graphics.setClip(0, 0, image.getWidth(), image.getHeight());
+
+		workload.setUp(panel, new Random(seed));
+
+		long frame = 0;
+		final long warmupEnd = System.nanoTime() + warmup.toNanos();
+		while (System.nanoTime() < warmupEnd) {
+			workload.update(panel, frame++);
+			panel.paintComponent(graphics);
+		}
+
+		final var frameTimes = new FrameTimeHistogram();
+		final var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		final long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+		final long gcCountBefore = getGcCount();
+		final long gcTimeBefore = getGcTime();
+		long peakImageCacheWeight = 0;
+
+		final long start = System.nanoTime();
+		final long end = start + duration.toNanos();
+		long frameStart = start;
+		while (frameStart < end) {
+			workload.update(panel, frame++);
+			panel.paintComponent(graphics);
+
+			final long frameEnd = System.nanoTime();
+			frameTimes.record(frameEnd - frameStart, panel.getPaintStatistics().getLastTilesPainted());
+			frameStart = frameEnd;
+
+			if ((frameTimes.getFrameCount() & 0xFF) == 0) {
+				peakImageCacheWeight = Math.max(peakImageCacheWeight, laf.vFont.getImageCacheWeight());
+			}
+		}
+
+		final double seconds = (frameStart - start) / 1_000_000_000d;
+		final double allocationRate = (threads.getCurrentThreadAllocatedBytes() - allocatedBefore) / seconds / (1 << 20);
+		final long gcCount = getGcCount() - gcCountBefore;
+		final long gcTime = getGcTime() - gcTimeBefore;
+		final long imageCacheWeight = laf.vFont.getImageCacheWeight();
+		final long maskCacheWeight = laf.vFont.getMaskCacheWeight();
+		peakImageCacheWeight = Math.max(peakImageCacheWeight, imageCacheWeight);
+
+		graphics.dispose();
+
+		final double p50 = frameTimes.getDurationPercentile(50) / 1_000_000d;
+		final double p99 = frameTimes.getDurationPercentile(99) / 1_000_000d;
+		final double max = frameTimes.getMaxDuration() / 1_000_000d;
+
+		System.out.printf("%s%n", workload.getName());
+		System.out.printf("  Frames:          %d (%.1f per second, %.1f tiles painted per frame)%n", frameTimes.getFrameCount(), frameTimes.getFrameCount() / seconds, frameTimes.getAverageTilesPainted());
+		System.out.printf("  Frame time:      p50 %.3f ms, p99 %.3f ms, max %.3f ms%n", p50, p99, max);
+		System.out.printf("  Allocation rate: %.1f MiB/s%n", allocationRate);
+		System.out.printf("  GC:              %d collections, %d ms%n", gcCount, gcTime);
+		System.out.printf("  Glyph caches:    %d bytes of images (peak %d), %d bytes of masks%n%n", imageCacheWeight, peakImageCacheWeight, maskCacheWeight);
+
+		return String.format(
+			Locale.ROOT, "%s,%d,%.3f,%.3f,%.3f,%.1f,%d,%d,%d,%d,%d",
+			workload.getName(), frameTimes.getFrameCount(), p50, p99, max, allocationRate, gcCount, gcTime,
+			imageCacheWeight, peakImageCacheWeight, maskCacheWeight
+		);
+	}
+
+	/**
+	 * Creates a workload.
+	 *
+	 * @param name The name of the workload.
+	 * @return The workload.
+	 */
+	private static Workload createWorkload(final String name) {
+		final List<Workload> workloads = List.of(new ScrollingMapWorkload(), new LogConsoleWorkload(), new SequentialOpEffectWorkload());
+		for (final var workload : workloads) {
+			if (workload.getName().equals(name)) {
+				return workload;
+			}
+		}
+
+		throw new IllegalArgumentException("There is no workload named " + name + ".");
+	}
+
+	/**
+	 * Parses the options, each of which has the form {@code --name=value}.
+	 *
+	 * @param args The options.
+	 * @return The values of the options, by name.
+	 */
+	private static Map<String, String> parseOptions(final String[] args) {
+		final var options = new LinkedHashMap<String, String>();
+		for (final var arg : args) {
+			final int separator = arg.indexOf('=');
+			if (!arg.startsWith("--") || separator < 0) {
+				throw new IllegalArgumentException("The option " + arg + " must have the form --name=value.");
+			}
+
+			options.put(arg.substring(2, separator), arg.substring(separator + 1));
+		}
+
+		return options;
+	}
+
+	/**
+	 * Reads the version of VTerminal from the properties which Maven includes in its jar.
+	 *
+	 * @return The version, or {@code unknown} if it can't be read.
+	 * @throws IOException If an I/O error occurs while reading the properties.
+	 */
+	private static String readVersion() throws IOException {
+		try (final var inputStream = VPanel.class.getResourceAsStream("/META-INF/maven/com.github.Valkryst/VTerminal/pom.properties")) {
+			if (inputStream == null) {
+				return "unknown";
+			}
+
+			final var properties = new Properties();
+			properties.load(inputStream);
+			return properties.getProperty("version", "unknown");
+		}
+	}
+
+	/**
+	 * Retrieves the total number of garbage collections.
+	 *
+	 * @return The number of collections.
+	 */
+	private static long getGcCount() {
+		return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+	}
+
+	/**
+	 * Retrieves the total time spent on garbage collection.
+	 *
+	 * @return The time, in milliseconds.
+	 */
+	private static long getGcTime() {
+		return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+	}
+}
@@ -0,0 +1,87 @@
+package com.valkryst.VTerminal.benchmark.macro;
+
+import com.valkryst.VTerminal.component.VPanel;
+
+import java.awt.*;
+import java.util.Random;
+
+/**
+ * Scrolls a randomly generated map, drawn in 200 colours, one column to the left each frame, with the player's
+ * {@code @} fixed at the centre of the panel.
+ */
+public final class ScrollingMapWorkload implements Workload {
+	/** The number of distinct foreground colours used by the map. */
+	private static final int COLOR_COUNT = 200;
+
+	/** The code points of the map's terrain. */
+	private static final int[] TERRAIN = { '.', ',', '\'', '"', '#', '~', '^', '%', 0x2663, 0x2248, 0x2591, 0x2592 };
+
+	private int[] codePoints;
+	private int[] foregroundColors;
+	private int[] backgroundColors;
+	private int mapWidth;
+	private int mapHeight;
+
+	@Override
+	public String getName() {
+		return "scrolling-map";
+	}
+
+	@Override
+	public void setUp(final VPanel panel, final Random random) {
+		mapWidth = panel.getWidthInTiles() * 8;
+		mapHeight = panel.getHeightInTiles();
+
+		final var palette = new int[COLOR_COUNT];
+		for (int i = 0 ; i < COLOR_COUNT ; i++) {
+			palette[i] = Color.HSBtoRGB(i / (float) COLOR_COUNT, 0.4f + random.nextFloat() * 0.6f, 0.5f + random.nextFloat() * 0.5f);
+		}
+
+		codePoints = new int[mapWidth * mapHeight];
+		foregroundColors = new int[mapWidth * mapHeight];
+		backgroundColors = new int[mapWidth * mapHeight];
+		for (int i = 0 ; i < codePoints.length ; i++) {
+			codePoints[i] = TERRAIN[random.nextInt(TERRAIN.length)];
+			foregroundColors[i] = palette[random.nextInt(COLOR_COUNT)];
+			backgroundColors[i] = 0xFF000000 | random.nextInt(0x20) << 16 | random.nextInt(0x20) << 8 | random.nextInt(0x20);
+		}
+
+		for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
+			drawColumn(panel, x, x);
+		}
+	}
+
+	@Override
+	public void update(final VPanel panel, final long frame) {
+		final int width = panel.getWidthInTiles();
+		final int centreX = width / 2;
+		final int centreY = panel.getHeightInTiles() / 2;
+		final int cameraX = (int) ((frame + 1) % mapWidth);
+
+		panel.scroll(-1, 0);
+		drawColumn(panel, width - 1, (cameraX + width - 1) % mapWidth);
+
+		// The player was shifted left by the scroll, so the map is restored beneath its previous position.
+		final int index = centreY * mapWidth + (cameraX + centreX - 1) % mapWidth;
+		panel.setCodePointAt(centreX - 1, centreY, codePoints[index]);
+		panel.setForegroundAt(centreX - 1, centreY, foregroundColors[index]);
+		panel.setCodePointAt(centreX, centreY, '@');
+		panel.setForegroundAt(centreX, centreY, 0xFFFFFFFF);
+	}
+
+	/**
+	 * Draws a column of the map onto a column of the panel.
+	 *
+	 * @param panel The panel.
+	 * @param panelX The X-Axis coordinate of the panel's column.
+	 * @param mapX The X-Axis coordinate of the map's column.
+	 */
+	private void drawColumn(final VPanel panel, final int panelX, final int mapX) {
+		for (int y = 0 ; y < mapHeight ; y++) {
+			final int index = y * mapWidth + mapX;
+			panel.setCodePointAt(panelX, y, codePoints[index]);
+			panel.setForegroundAt(panelX, y, foregroundColors[index]);
+			panel.setBackgroundAt(panelX, y, backgroundColors[index]);
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package com.valkryst.VTerminal.benchmark.macro;
+
+import com.valkryst.VTerminal.component.VPanel;
+import com.valkryst.VTerminal.image.SequentialOp;
+
+import java.awt.image.RescaleOp;
+import java.util.Random;
+
+/**
+ * Applies a full-screen ripple to a static screen of text, by assigning one of several brightness-adjusting
+ * {@link SequentialOp}s to every tile each frame, according to its distance from the centre of the panel.
+ */
+public final class SequentialOpEffectWorkload implements Workload {
+	/** The number of steps in the ripple, each of which has its own {@link SequentialOp}. */
+	private static final int STEP_COUNT = 16;
+
+	/** The foreground colours of the text, as packed ARGB integers. */
+	private static final int[] COLORS = {
+		0xFFFF5555, 0xFF50FA7B, 0xFFF1FA8C, 0xFFBD93F9, 0xFFFF79C6, 0xFF8BE9FD, 0xFFF8F8F2, 0xFFFFB86C,
+		0xFFFF6E6E, 0xFF69FF94, 0xFFFFFFA5, 0xFFD6ACFF, 0xFFFF92DF, 0xFFA4FFFF, 0xFFFFFFFF, 0xFF6272A4
+	};
+
+	private final SequentialOp[] steps = new SequentialOp[STEP_COUNT];
+
+	/** The distance of each tile from the centre of the panel, in tiles. */
+	private int[] distances;
+
+	@Override
+	public String getName() {
+		return "sequential-op-effect";
+	}
+
+	@Override
+	public void setUp(final VPanel panel, final Random random) {
+		for (int i = 0 ; i < STEP_COUNT ; i++) {
+			final float scale = 0.5f + (float) (Math.sin(2 * Math.PI * i / STEP_COUNT) + 1) / 2;
+			steps[i] = new SequentialOp(new RescaleOp(new float[] { scale, scale, scale, 1 }, new float[4], null));
+		}
+
+		final int width = panel.getWidthInTiles();
+		final int height = panel.getHeightInTiles();
+		distances = new int[width * height];
+
+		for (int y = 0 ; y < height ; y++) {
+			for (int x = 0 ; x < width ; x++) {
+				distances[y * width + x] = (int) Math.hypot(x - width / 2.0, (y - height / 2.0) * 2);
+
+				panel.setCodePointAt(x, y, 'A' + random.nextInt(26));
+				panel.setForegroundAt(x, y, COLORS[random.nextInt(COLORS.length)]);
+				panel.setBackgroundAt(x, y, 0xFF000000);
+			}
+		}
+	}
+
+	@Override
+	public void update(final VPanel panel, final long frame) {
+		final int width = panel.getWidthInTiles();
+		final int height = panel.getHeightInTiles();
+
+		for (int y = 0 ; y < height ; y++) {
+			for (int x = 0 ; x < width ; x++) {
+				final int step = (int) ((distances[y * width + x] + frame) % STEP_COUNT);
+				panel.setSequentialImageOpAt(x, y, steps[step]);
+			}
+		}
+	}
+}
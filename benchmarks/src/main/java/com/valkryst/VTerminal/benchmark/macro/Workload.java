@@ -0,0 +1,31 @@
+package com.valkryst.VTerminal.benchmark.macro;
+
+import com.valkryst.VTerminal.component.VPanel;
+
+import java.util.Random;
+
+/** A scripted workload, which changes the tiles of a {@link VPanel} before each frame is painted. */
+public interface Workload {
+	/**
+	 * Retrieves the name of the workload, which is used to select it and to label its results.
+	 *
+	 * @return The name.
+	 */
+	String getName();
+
+	/**
+	 * Writes the initial tiles of the panel.
+	 *
+	 * @param panel The panel.
+	 * @param random The source of randomness, which is seeded so that every run is identical.
+	 */
+	void setUp(final VPanel panel, final Random random);
+
+	/**
+	 * Changes the tiles of the panel for the next frame.
+	 *
+	 * @param panel The panel.
+	 * @param frame The number of the frame, starting at 0.
+	 */
+	void update(final VPanel panel, final long frame);
+}
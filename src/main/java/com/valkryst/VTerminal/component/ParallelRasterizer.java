@@ -0,0 +1,171 @@
+package com.valkryst.VTerminal.component;
+
+import com.valkryst.VTerminal.font.VFont;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <p>Splits the rasterization of a large region of tiles into horizontal bands of tile rows, which are rasterized
+ * in parallel.</p>
+ *
+ * <p>
+ *     Each band is written to a separate set of rows of the same image, so no synchronization is required between
+ *     the bands. The calling thread rasterizes bands alongside the workers of the executor, and returns once every
+ *     band is complete.
+ * </p>
+ *
+ * <p>
+ *     Regions with fewer than {@link #getMinimumTiles()} tiles, or with only one band, are rasterized serially on
+ *     the calling thread, as the overhead of scheduling the bands would outweigh the benefit.
+ * </p>
+ */
+public final class ParallelRasterizer {
+	/** The executor on which bands are rasterized. */
+	@Getter private final Executor executor;
+	/** Maximum number of threads, including the calling thread, which rasterize bands at the same time. */
+	@Getter private final int parallelism;
+	/** Height of each band, in tiles. */
+	@Getter private final int bandHeight;
+	/** Minimum number of tiles which a region must contain before it's rasterized in parallel. */
+	@Getter private final int minimumTiles;
+
+	/**
+	 * Constructs a new {@link ParallelRasterizer} which uses the {@link ForkJoinPool#commonPool() common pool}, one
+	 * thread per processor, bands of 8 rows, and which rasterizes regions of fewer than 4,096 tiles serially.
+	 */
+	public ParallelRasterizer() {
+		this(ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors(), 8, 4_096);
+	}
+
+	/**
+	 * Constructs a new {@link ParallelRasterizer}.
+	 *
+	 * @param executor The executor on which bands are rasterized.
+	 * @param parallelism Maximum number of threads, including the calling thread, which rasterize bands at the same
+	 *                    time.
+	 * @param bandHeight Height of each band, in tiles.
+	 * @param minimumTiles Minimum number of tiles which a region must contain before it's rasterized in parallel.
+	 */
+	public ParallelRasterizer(final @NonNull Executor executor, final int parallelism, final int bandHeight, final int minimumTiles) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("The parallelism must be >= 1.");
+		}
+
+		if (bandHeight < 1) {
+			throw new IllegalArgumentException("The band height must be >= 1.");
+		}
+
+		if (minimumTiles < 0) {
+			throw new IllegalArgumentException("The minimum number of tiles must be >= 0.");
+		}
+
+		this.executor = executor;
+		this.parallelism = parallelism;
+		this.bandHeight = bandHeight;
+		this.minimumTiles = minimumTiles;
+	}
+
+	/**
+	 * Renders a rectangular region of tiles into an image, in parallel if the region is large enough.
+	 *
+	 * @see TileRasterizer#rasterize
+	 *
+	 * @param tiles The tiles to render.
+	 * @param font The font used to render each glyph.
+	 * @param tileWidth Width of each tile, in pixels.
+	 * @param tileHeight Height of each tile, in pixels.
+	 * @param isOpaque Whether the tiles should be rendered as fully opaque, regardless of the alpha of their colours.
+	 * @param target An image of type {@link BufferedImage#TYPE_INT_ARGB} or {@link BufferedImage#TYPE_INT_RGB}.
+	 * @param originX X-Axis pixel coordinate, within the image, of the left edge of the tile grid.
+	 * @param originY Y-Axis pixel coordinate, within the image, of the top edge of the tile grid.
+	 * @param startX X-Axis coordinate of the first tile to render.
+	 * @param startY Y-Axis coordinate of the first tile to render.
+	 * @param endX X-Axis coordinate after the last tile to render.
+	 * @param endY Y-Axis coordinate after the last tile to render.
+	 * @param onGlyphGenerated See {@link TileRasterizer#rasterize}.
+	 */
+	void rasterize(
+		final @NonNull TileGrid tiles, final @NonNull VFont font, final int tileWidth, final int tileHeight,
+		final boolean isOpaque, final @NonNull BufferedImage target, final int originX, final int originY,
+		final int startX, final int startY, final int endX, final int endY, final TileGrid.TileConsumer onGlyphGenerated
+	) {
+		final int bandCount = (endY - startY + bandHeight - 1) / bandHeight;
+		final long tileCount = (long) (endX - startX) * (endY - startY);
+
+		if (parallelism == 1 || bandCount <= 1 || tileCount < minimumTiles) {
+			TileRasterizer.rasterize(tiles, font, tileWidth, tileHeight, isOpaque, target, originX, originY, startX, startY, endX, endY, onGlyphGenerated);
+			return;
+		}
+
+		if (!TileRasterizer.isSupported(target)) {
+			throw new IllegalArgumentException("The target image must be of type TYPE_INT_ARGB or TYPE_INT_RGB.");
+		}
+
+		/*
+		 * The latch counts completed bands, rather than completed tasks, so
+		 * that the calling thread never waits on a task which the executor
+		 * hasn't yet started. Such a task will find no remaining bands.
+		 */
+		final var nextBand = new AtomicInteger(0);
+		final var remainingBands = new CountDownLatch(bandCount);
+		final var failure = new AtomicReference<Throwable>();
+
+		final Runnable worker = () -> {
+			int band;
+			while ((band = nextBand.getAndIncrement()) < bandCount) {
+				try {
+					final int bandStartY = startY + band * bandHeight;
+					final int bandEndY = Math.min(endY, bandStartY + bandHeight);
+					TileRasterizer.rasterize(tiles, font, tileWidth, tileHeight, isOpaque, target, originX, originY, startX, bandStartY, endX, bandEndY, onGlyphGenerated);
+				} catch (final Throwable t) {
+					failure.compareAndSet(null, t);
+				} finally {
+					remainingBands.countDown();
+				}
+			}
+		};
+
+		final int workerCount = Math.min(parallelism, bandCount) - 1;
+		for (int i = 0 ; i < workerCount ; i++) {
+			try {
+				executor.execute(worker);
+			} catch (final RejectedExecutionException e) {
+				// The remaining bands are rasterized by the calling thread.
+				break;
+			}
+		}
+
+		worker.run();
+
+		boolean isInterrupted = false;
+		while (true) {
+			try {
+				remainingBands.await();
+				break;
+			} catch (final InterruptedException e) {
+				isInterrupted = true;
+			}
+		}
+
+		if (isInterrupted) {
+			Thread.currentThread().interrupt();
+		}
+
+		final var throwable = failure.get();
+		if (throwable instanceof RuntimeException) {
+			throw (RuntimeException) throwable;
+		} else if (throwable instanceof Error) {
+			throw (Error) throwable;
+		} else if (throwable != null) {
+			throw new IllegalStateException("Unable to rasterize the tiles.", throwable);
+		}
+	}
+}
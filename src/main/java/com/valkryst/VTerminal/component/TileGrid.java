@@ -0,0 +1,567 @@
+package com.valkryst.VTerminal.component;
+
+import com.valkryst.VTerminal.image.SequentialOp;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>Packed storage for the tiles of a {@link VPanel}.</p>
+ *
+ * <p>
+ *     Each property of a tile is stored in a flat array, at index {@code y * width + x}. Colours are stored as
+ *     packed ARGB integers, so that writing or reading a tile never requires a {@link java.awt.Color} to be
+ *     allocated.
+ * </p>
+ *
+ * <p>
+ *     A grid may optionally be guarded for concurrent writes, in which case each row has its own lock. Writers to
+ *     different rows never contend, and a reader which holds the lock of a row sees that row consistently.
+ * </p>
+ */
+final class TileGrid {
+	/** Width of the grid, in tiles. */
+	final int width;
+	/** Height of the grid, in tiles. */
+	final int height;
+
+	/** Code point of each tile. */
+	final int[] codePoints;
+	/** Background color of each tile, as a packed ARGB integer. */
+	final int[] backgroundColors;
+	/** Foreground color of each tile, as a packed ARGB integer. */
+	final int[] foregroundColors;
+	/** Sequential image operation of each tile. */
+	final SequentialOp[] sequentialImageOps;
+
+	/** A lock for each row, or null if the grid isn't guarded for concurrent writes. */
+	private final ReentrantLock[] rowLocks;
+
+	/** Tiles which have changed since they were last repainted. */
+	private final RowSpans dirtyTiles;
+	/** Tiles which have changed since they were last rendered into the back buffer of a {@link VPanel}. */
+	private final RowSpans staleTiles;
+
+	/**
+	 * Constructs a new {@code TileGrid}.
+	 *
+	 * @param width Width of the grid, in tiles.
+	 * @param height Height of the grid, in tiles.
+	 * @param backgroundColor Initial background color of each tile, as a packed ARGB integer.
+	 * @param foregroundColor Initial foreground color of each tile, as a packed ARGB integer.
+	 */
+	TileGrid(final int width, final int height, final int backgroundColor, final int foregroundColor) {
+		this(width, height, backgroundColor, foregroundColor, false);
+	}
+
+	/**
+	 * Constructs a new {@code TileGrid}.
+	 *
+	 * @param width Width of the grid, in tiles.
+	 * @param height Height of the grid, in tiles.
+	 * @param backgroundColor Initial background color of each tile, as a packed ARGB integer.
+	 * @param foregroundColor Initial foreground color of each tile, as a packed ARGB integer.
+	 * @param isConcurrent Whether each row of the grid is guarded by its own lock.
+	 */
+	TileGrid(final int width, final int height, final int backgroundColor, final int foregroundColor, final boolean isConcurrent) {
+		this.width = width;
+		this.height = height;
+
+		final int length = width * height;
+		codePoints = new int[length];
+		backgroundColors = new int[length];
+		foregroundColors = new int[length];
+		sequentialImageOps = new SequentialOp[length];
+
+		Arrays.fill(codePoints, ' ');
+		Arrays.fill(backgroundColors, backgroundColor);
+		Arrays.fill(foregroundColors, foregroundColor);
+
+		if (isConcurrent) {
+			rowLocks = new ReentrantLock[height];
+			for (int y = 0 ; y < height ; y++) {
+				rowLocks[y] = new ReentrantLock();
+			}
+		} else {
+			rowLocks = null;
+		}
+
+		dirtyTiles = new RowSpans(width, height, rowLocks);
+		staleTiles = new RowSpans(width, height, rowLocks);
+	}
+
+	/**
+	 * Determines whether each row of the grid is guarded by its own lock.
+	 *
+	 * @return Whether the grid is guarded for concurrent writes.
+	 */
+	boolean isConcurrent() {
+		return rowLocks != null;
+	}
+
+	/**
+	 * <p>Acquires the lock of each row within a range. This has no effect if the grid isn't concurrent.</p>
+	 *
+	 * <p>The locks are always acquired in ascending order, so that two threads locking overlapping ranges can't
+	 * deadlock.</p>
+	 *
+	 * @param fromY Y-Axis coordinate of the first row.
+	 * @param toY Y-Axis coordinate after the last row.
+	 */
+	void lockRows(final int fromY, final int toY) {
+		if (rowLocks != null) {
+			for (int y = fromY ; y < toY ; y++) {
+				rowLocks[y].lock();
+			}
+		}
+	}
+
+	/**
+	 * Releases the lock of each row within a range, which was acquired by {@link #lockRows(int, int)}.
+	 *
+	 * @param fromY Y-Axis coordinate of the first row.
+	 * @param toY Y-Axis coordinate after the last row.
+	 */
+	void unlockRows(final int fromY, final int toY) {
+		if (rowLocks != null) {
+			for (int y = toY - 1 ; y >= fromY ; y--) {
+				rowLocks[y].unlock();
+			}
+		}
+	}
+
+	/**
+	 * Calculates the index of a tile.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @return The index of the tile.
+	 * @throws ArrayIndexOutOfBoundsException If the coordinates are outside the grid.
+	 */
+	int indexOf(final int x, final int y) {
+		if (x < 0 || x >= width || y < 0 || y >= height) {
+			throw new ArrayIndexOutOfBoundsException("The tile at (" + x + ", " + y + ") is outside the grid.");
+		}
+
+		return y * width + x;
+	}
+
+	/**
+	 * Ensures that a rectangular region of tiles lies within the grid.
+	 *
+	 * @param x X-Axis coordinate of the top-left tile of the region.
+	 * @param y Y-Axis coordinate of the top-left tile of the region.
+	 * @param regionWidth Width of the region, in tiles.
+	 * @param regionHeight Height of the region, in tiles.
+	 * @throws IllegalArgumentException If the width or height is negative.
+	 * @throws ArrayIndexOutOfBoundsException If any part of the region is outside the grid.
+	 */
+	void checkRegion(final int x, final int y, final int regionWidth, final int regionHeight) {
+		if (regionWidth < 0 || regionHeight < 0) {
+			throw new IllegalArgumentException("The width and height must be >= 0.");
+		}
+
+		if (x < 0 || y < 0 || x + regionWidth > width || y + regionHeight > height) {
+			throw new ArrayIndexOutOfBoundsException("The region at (" + x + ", " + y + "), of size " + regionWidth + "x" + regionHeight + ", is outside the grid.");
+		}
+	}
+
+	/**
+	 * Sets the code point and colors of every tile within a rectangular region.
+	 *
+	 * @param x X-Axis coordinate of the top-left tile of the region.
+	 * @param y Y-Axis coordinate of the top-left tile of the region.
+	 * @param regionWidth Width of the region, in tiles.
+	 * @param regionHeight Height of the region, in tiles.
+	 * @param codePoint A code point.
+	 * @param foregroundColor A foreground color, as a packed ARGB integer.
+	 * @param backgroundColor A background color, as a packed ARGB integer.
+	 */
+	void fill(
+		final int x, final int y, final int regionWidth, final int regionHeight,
+		final int codePoint, final int foregroundColor, final int backgroundColor
+	) {
+		for (int row = y ; row < y + regionHeight ; row++) {
+			final int fromIndex = row * width + x;
+			final int toIndex = fromIndex + regionWidth;
+			Arrays.fill(codePoints, fromIndex, toIndex, codePoint);
+			Arrays.fill(foregroundColors, fromIndex, toIndex, foregroundColor);
+			Arrays.fill(backgroundColors, fromIndex, toIndex, backgroundColor);
+		}
+	}
+
+	/**
+	 * Copies every property of the tiles within a rectangular region to another region of the same size. The
+	 * regions may overlap.
+	 *
+	 * @param sourceX X-Axis coordinate of the top-left tile of the source region.
+	 * @param sourceY Y-Axis coordinate of the top-left tile of the source region.
+	 * @param regionWidth Width of the regions, in tiles.
+	 * @param regionHeight Height of the regions, in tiles.
+	 * @param destinationX X-Axis coordinate of the top-left tile of the destination region.
+	 * @param destinationY Y-Axis coordinate of the top-left tile of the destination region.
+	 */
+	void copy(
+		final int sourceX, final int sourceY, final int regionWidth, final int regionHeight,
+		final int destinationX, final int destinationY
+	) {
+		// When copying downwards, the rows are copied from the bottom up, so that no source row is overwritten before it's copied.
+		final boolean isBottomUp = destinationY > sourceY;
+
+		for (int i = 0 ; i < regionHeight ; i++) {
+			final int row = isBottomUp ? regionHeight - 1 - i : i;
+			final int sourceIndex = (sourceY + row) * width + sourceX;
+			final int destinationIndex = (destinationY + row) * width + destinationX;
+
+			System.arraycopy(codePoints, sourceIndex, codePoints, destinationIndex, regionWidth);
+			System.arraycopy(backgroundColors, sourceIndex, backgroundColors, destinationIndex, regionWidth);
+			System.arraycopy(foregroundColors, sourceIndex, foregroundColors, destinationIndex, regionWidth);
+			System.arraycopy(sequentialImageOps, sourceIndex, sequentialImageOps, destinationIndex, regionWidth);
+		}
+	}
+
+	/**
+	 * Copies every property of the tiles within a rectangular region of another grid, of the same size, to the
+	 * same region of this grid.
+	 *
+	 * @param source The grid to copy from.
+	 * @param x X-Axis coordinate of the top-left tile of the region.
+	 * @param y Y-Axis coordinate of the top-left tile of the region.
+	 * @param regionWidth Width of the region, in tiles.
+	 * @param regionHeight Height of the region, in tiles.
+	 */
+	void copyFrom(final TileGrid source, final int x, final int y, final int regionWidth, final int regionHeight) {
+		for (int row = y ; row < y + regionHeight ; row++) {
+			final int index = row * width + x;
+
+			System.arraycopy(source.codePoints, index, codePoints, index, regionWidth);
+			System.arraycopy(source.backgroundColors, index, backgroundColors, index, regionWidth);
+			System.arraycopy(source.foregroundColors, index, foregroundColors, index, regionWidth);
+			System.arraycopy(source.sequentialImageOps, index, sequentialImageOps, index, regionWidth);
+		}
+	}
+
+	/**
+	 * <p>Shifts the tiles within a rectangular region, and resets the tiles which are exposed by the shift.</p>
+	 *
+	 * <p>
+	 *     Every tile of the region is marked as dirty, but only the exposed tiles, and those tiles whose source was
+	 *     already stale, are marked as stale. The remaining tiles can be shifted within the back buffer of a
+	 *     {@link VPanel}, rather than re-rendered.
+	 * </p>
+	 *
+	 * @param x X-Axis coordinate of the top-left tile of the region.
+	 * @param y Y-Axis coordinate of the top-left tile of the region.
+	 * @param regionWidth Width of the region, in tiles.
+	 * @param regionHeight Height of the region, in tiles.
+	 * @param dx Number of tiles to shift by, along the X-Axis.
+	 * @param dy Number of tiles to shift by, along the Y-Axis.
+	 * @param foregroundColor Foreground color of the exposed tiles, as a packed ARGB integer.
+	 * @param backgroundColor Background color of the exposed tiles, as a packed ARGB integer.
+	 */
+	void scroll(
+		final int x, final int y, final int regionWidth, final int regionHeight, final int dx, final int dy,
+		final int foregroundColor, final int backgroundColor
+	) {
+		final int keptWidth = regionWidth - Math.abs(dx);
+		final int keptHeight = regionHeight - Math.abs(dy);
+
+		if (keptWidth <= 0 || keptHeight <= 0) {
+			reset(x, y, regionWidth, regionHeight, foregroundColor, backgroundColor);
+			markDirty(x, y, regionWidth, regionHeight);
+			return;
+		}
+
+		copy(x + Math.max(0, -dx), y + Math.max(0, -dy), keptWidth, keptHeight, x + Math.max(0, dx), y + Math.max(0, dy));
+		staleTiles.shift(x, y, regionWidth, regionHeight, dx, dy);
+		dirtyTiles.mark(x, y, regionWidth, regionHeight);
+
+		// Rows exposed at the top or bottom of the region.
+		if (dy != 0) {
+			final int exposedY = dy > 0 ? y : y + keptHeight;
+			reset(x, exposedY, regionWidth, Math.abs(dy), foregroundColor, backgroundColor);
+			staleTiles.mark(x, exposedY, regionWidth, Math.abs(dy));
+		}
+
+		// Columns exposed at the left or right of the region.
+		if (dx != 0) {
+			final int exposedX = dx > 0 ? x : x + keptWidth;
+			reset(exposedX, y, Math.abs(dx), regionHeight, foregroundColor, backgroundColor);
+			staleTiles.mark(exposedX, y, Math.abs(dx), regionHeight);
+		}
+	}
+
+	/**
+	 * Resets the code point, colors, and sequential image operation of every tile within a rectangular region.
+	 *
+	 * @param x X-Axis coordinate of the top-left tile of the region.
+	 * @param y Y-Axis coordinate of the top-left tile of the region.
+	 * @param regionWidth Width of the region, in tiles.
+	 * @param regionHeight Height of the region, in tiles.
+	 * @param foregroundColor A foreground color, as a packed ARGB integer.
+	 * @param backgroundColor A background color, as a packed ARGB integer.
+	 */
+	private void reset(
+		final int x, final int y, final int regionWidth, final int regionHeight,
+		final int foregroundColor, final int backgroundColor
+	) {
+		fill(x, y, regionWidth, regionHeight, ' ', foregroundColor, backgroundColor);
+
+		for (int row = y ; row < y + regionHeight ; row++) {
+			final int fromIndex = row * width + x;
+			Arrays.fill(sequentialImageOps, fromIndex, fromIndex + regionWidth, null);
+		}
+	}
+
+	/**
+	 * Marks a tile as dirty, and as stale.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 */
+	void markDirty(final int x, final int y) {
+		dirtyTiles.mark(x, y);
+		staleTiles.mark(x, y);
+	}
+
+	/**
+	 * Marks a rectangular region of tiles as dirty, and as stale.
+	 *
+	 * @param x X-Axis coordinate of the top-left tile of the region.
+	 * @param y Y-Axis coordinate of the top-left tile of the region.
+	 * @param regionWidth Width of the region, in tiles.
+	 * @param regionHeight Height of the region, in tiles.
+	 */
+	void markDirty(final int x, final int y, final int regionWidth, final int regionHeight) {
+		dirtyTiles.mark(x, y, regionWidth, regionHeight);
+		staleTiles.mark(x, y, regionWidth, regionHeight);
+	}
+
+	/** Marks every tile as dirty, and as stale. */
+	void markAllDirty() {
+		dirtyTiles.markAll();
+		staleTiles.markAll();
+	}
+
+	/**
+	 * Marks every tile as stale, without marking them as dirty. This is used when the back buffer of a
+	 * {@link VPanel} must be re-rendered, but the tiles themselves haven't changed.
+	 */
+	void markAllStale() {
+		staleTiles.markAll();
+	}
+
+	/**
+	 * Removes every tile from the dirty set, merging them into a set of tile-aligned rectangles.
+	 *
+	 * @see RowSpans#drain(RegionConsumer)
+	 *
+	 * @param consumer A consumer for each rectangle.
+	 */
+	void drainDirtyRegions(final RegionConsumer consumer) {
+		dirtyTiles.drain(consumer);
+	}
+
+	/**
+	 * Removes every tile from the stale set, merging them into a set of tile-aligned rectangles.
+	 *
+	 * @see RowSpans#drain(RegionConsumer)
+	 *
+	 * @param consumer A consumer for each rectangle.
+	 */
+	void drainStaleRegions(final RegionConsumer consumer) {
+		staleTiles.drain(consumer);
+	}
+
+	/** A set of tiles, stored as the span of marked tiles within each row. */
+	private static final class RowSpans {
+		/** Width of the grid, in tiles. */
+		private final int width;
+		/** Height of the grid, in tiles. */
+		private final int height;
+
+		/** X-Axis coordinate of the first marked tile in each row, or {@link #width} if there are none in the row. */
+		private final int[] startX;
+		/** X-Axis coordinate after the last marked tile in each row, or {@code 0} if there are none in the row. */
+		private final int[] endX;
+
+		/** The lock of each row of the grid, or null if the grid isn't concurrent. */
+		private final ReentrantLock[] rowLocks;
+
+		/**
+		 * Constructs a new, empty, {@code RowSpans}.
+		 *
+		 * @param width Width of the grid, in tiles.
+		 * @param height Height of the grid, in tiles.
+		 * @param rowLocks The lock of each row of the grid, or null if the grid isn't concurrent.
+		 */
+		private RowSpans(final int width, final int height, final ReentrantLock[] rowLocks) {
+			this.width = width;
+			this.height = height;
+			this.rowLocks = rowLocks;
+
+			startX = new int[height];
+			endX = new int[height];
+			Arrays.fill(startX, width);
+		}
+
+		/**
+		 * Marks a tile.
+		 *
+		 * @param x X-Axis coordinate of the tile.
+		 * @param y Y-Axis coordinate of the tile.
+		 */
+		private void mark(final int x, final int y) {
+			if (x < startX[y]) {
+				startX[y] = x;
+			}
+
+			if (x >= endX[y]) {
+				endX[y] = x + 1;
+			}
+		}
+
+		/**
+		 * Marks a rectangular region of tiles.
+		 *
+		 * @param x X-Axis coordinate of the top-left tile of the region.
+		 * @param y Y-Axis coordinate of the top-left tile of the region.
+		 * @param regionWidth Width of the region, in tiles.
+		 * @param regionHeight Height of the region, in tiles.
+		 */
+		private void mark(final int x, final int y, final int regionWidth, final int regionHeight) {
+			for (int row = y ; row < y + regionHeight ; row++) {
+				startX[row] = Math.min(startX[row], x);
+				endX[row] = Math.max(endX[row], x + regionWidth);
+			}
+		}
+
+		/**
+		 * Shifts the marked tiles within a rectangular region, so that a tile which was marked before the region
+		 * was shifted is still marked at its new position. The original marks are left in place.
+		 *
+		 * @param x X-Axis coordinate of the top-left tile of the region.
+		 * @param y Y-Axis coordinate of the top-left tile of the region.
+		 * @param regionWidth Width of the region, in tiles.
+		 * @param regionHeight Height of the region, in tiles.
+		 * @param dx Number of tiles to shift by, along the X-Axis.
+		 * @param dy Number of tiles to shift by, along the Y-Axis.
+		 */
+		private void shift(final int x, final int y, final int regionWidth, final int regionHeight, final int dx, final int dy) {
+			final int[] previousStartX = startX.clone();
+			final int[] previousEndX = endX.clone();
+
+			for (int row = y ; row < y + regionHeight ; row++) {
+				final int sourceRow = row - dy;
+				if (sourceRow < y || sourceRow >= y + regionHeight) {
+					continue;
+				}
+
+				final int rowStartX = Math.max(x, Math.max(previousStartX[sourceRow], x) + dx);
+				final int rowEndX = Math.min(x + regionWidth, Math.min(previousEndX[sourceRow], x + regionWidth) + dx);
+
+				if (rowStartX < rowEndX) {
+					startX[row] = Math.min(startX[row], rowStartX);
+					endX[row] = Math.max(endX[row], rowEndX);
+				}
+			}
+		}
+
+		/** Marks every tile. */
+		private void markAll() {
+			Arrays.fill(startX, 0);
+			Arrays.fill(endX, width);
+		}
+
+		/**
+		 * <p>Removes every tile from the set, merging them into a set of tile-aligned rectangles.</p>
+		 *
+		 * <p>
+		 *     The marked tiles of consecutive rows are merged into a single rectangle when their spans overlap or
+		 *     touch. This may include a small number of unmarked tiles within a rectangle, but it keeps the number of
+		 *     rectangles low.
+		 * </p>
+		 *
+		 * <p>
+		 *     If the grid is concurrent, the lock of each row is held while its span is removed, but not while the
+		 *     consumer is called.
+		 * </p>
+		 *
+		 * @param consumer A consumer for each rectangle, which receives the {@code x}, {@code y}, {@code width}, and
+		 *                 {@code height} of the rectangle, in tiles.
+		 */
+		private void drain(final RegionConsumer consumer) {
+			int regionStartX = 0;
+			int regionEndX = 0;
+			int regionStartY = -1;
+
+			for (int y = 0 ; y < height ; y++) {
+				if (rowLocks != null) {
+					rowLocks[y].lock();
+				}
+
+				final int rowStartX = startX[y];
+				final int rowEndX = endX[y];
+				startX[y] = width;
+				endX[y] = 0;
+
+				if (rowLocks != null) {
+					rowLocks[y].unlock();
+				}
+
+				if (rowStartX >= rowEndX) {
+					if (regionStartY != -1) {
+						consumer.accept(regionStartX, regionStartY, regionEndX - regionStartX, y - regionStartY);
+						regionStartY = -1;
+					}
+
+					continue;
+				}
+
+				if (regionStartY != -1 && rowStartX <= regionEndX && rowEndX >= regionStartX) {
+					regionStartX = Math.min(regionStartX, rowStartX);
+					regionEndX = Math.max(regionEndX, rowEndX);
+					continue;
+				}
+
+				if (regionStartY != -1) {
+					consumer.accept(regionStartX, regionStartY, regionEndX - regionStartX, y - regionStartY);
+				}
+
+				regionStartX = rowStartX;
+				regionEndX = rowEndX;
+				regionStartY = y;
+			}
+
+			if (regionStartY != -1) {
+				consumer.accept(regionStartX, regionStartY, regionEndX - regionStartX, height - regionStartY);
+			}
+		}
+	}
+
+	/** A consumer for a single tile. */
+	@FunctionalInterface
+	interface TileConsumer {
+		/**
+		 * Accepts a tile.
+		 *
+		 * @param x X-Axis coordinate of the tile.
+		 * @param y Y-Axis coordinate of the tile.
+		 */
+		void accept(final int x, final int y);
+	}
+
+	/** A consumer for a rectangular region of tiles. */
+	@FunctionalInterface
+	interface RegionConsumer {
+		/**
+		 * Accepts a region.
+		 *
+		 * @param x X-Axis coordinate of the top-left tile of the region.
+		 * @param y Y-Axis coordinate of the top-left tile of the region.
+		 * @param width Width of the region, in tiles.
+		 * @param height Height of the region, in tiles.
+		 */
+		void accept(final int x, final int y, final int width, final int height);
+	}
+}
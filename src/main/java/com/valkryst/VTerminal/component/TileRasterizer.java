@@ -0,0 +1,375 @@
+package com.valkryst.VTerminal.component;
+
+import com.valkryst.VTerminal.font.GlyphMask;
+import com.valkryst.VTerminal.font.VFont;
+import lombok.NonNull;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.util.Arrays;
+
+/**
+ * <p>Renders the tiles of a {@link TileGrid} directly into the pixel array of a {@link BufferedImage}.</p>
+ *
+ * <p>
+ *     Backgrounds are written with {@link Arrays#fill(int[], int, int, int)}, and glyphs are blended onto
+ *     them from their {@link GlyphMask}s using integer arithmetic. This avoids the per-call overhead of
+ *     {@link java.awt.Graphics2D}, which is significant when many small tiles are drawn.
+ * </p>
+ */
+final class TileRasterizer {
+	/** Private constructor, to prevent instantiation of this class. */
+	private TileRasterizer() {}
+
+	/**
+	 * Determines whether an image can be rendered into by {@link #rasterize}.
+	 *
+	 * @param image An image.
+	 * @return Whether the image is of type {@link BufferedImage#TYPE_INT_ARGB} or {@link BufferedImage#TYPE_INT_RGB}.
+	 */
+	static boolean isSupported(final @NonNull BufferedImage image) {
+		return image.getType() == BufferedImage.TYPE_INT_ARGB || image.getType() == BufferedImage.TYPE_INT_RGB;
+	}
+
+	/**
+	 * <p>Renders a rectangular region of tiles into an image.</p>
+	 *
+	 * <p>
+	 *     The tile at ({@code tileX}, {@code tileY}) is rendered with its top-left pixel at
+	 *     ({@code tileX * tileWidth + originX}, {@code tileY * tileHeight + originY}). Every tile of the region must
+	 *     lie within the bounds of the image.
+	 * </p>
+	 *
+	 * @param tiles The tiles to render.
+	 * @param font The font used to render each glyph.
+	 * @param tileWidth Width of each tile, in pixels.
+	 * @param tileHeight Height of each tile, in pixels.
+	 * @param isOpaque Whether the tiles should be rendered as fully opaque, regardless of the alpha of their colours.
+	 * @param target An image of type {@link BufferedImage#TYPE_INT_ARGB} or {@link BufferedImage#TYPE_INT_RGB}.
+	 * @param originX X-Axis pixel coordinate, within the image, of the left edge of the tile grid.
+	 * @param originY Y-Axis pixel coordinate, within the image, of the top edge of the tile grid.
+	 * @param startX X-Axis coordinate of the first tile to render.
+	 * @param startY Y-Axis coordinate of the first tile to render.
+	 * @param endX X-Axis coordinate after the last tile to render.
+	 * @param endY Y-Axis coordinate after the last tile to render.
+	 * @param onGlyphGenerated If null, uncached glyphs are generated before they're rendered. Otherwise, uncached
+	 *                         glyphs are requested asynchronously, their tiles are rendered without them, and this is
+	 *                         called, on the thread which generated the glyph, with the coordinates of each such tile.
+	 */
+	static void rasterize(
+		final @NonNull TileGrid tiles, final @NonNull VFont font, final int tileWidth, final int tileHeight,
+		final boolean isOpaque, final @NonNull BufferedImage target, final int originX, final int originY,
+		final int startX, final int startY, final int endX, final int endY, final TileGrid.TileConsumer onGlyphGenerated
+	) {
+		if (!isSupported(target)) {
+			throw new IllegalArgumentException("The target image must be of type TYPE_INT_ARGB or TYPE_INT_RGB.");
+		}
+
+		final var pixels = ((DataBufferInt) target.getRaster().getDataBuffer()).getData();
+		final int scanlineStride = getScanlineStride(target);
+		final int firstPixel = getFirstPixel(target, scanlineStride);
+		final boolean hasAlpha = target.getType() == BufferedImage.TYPE_INT_ARGB;
+
+		for (int tileY = startY ; tileY < endY ; tileY++) {
+			tiles.lockRows(tileY, tileY + 1);
+			try {
+				rasterizeRow(tiles, font, tileWidth, tileHeight, isOpaque, pixels, firstPixel, scanlineStride, hasAlpha, originX, originY, tileY, startX, endX, onGlyphGenerated);
+			} finally {
+				tiles.unlockRows(tileY, tileY + 1);
+			}
+		}
+	}
+
+	/**
+	 * Renders a span of tiles, within a single row, into the pixels of an image.
+	 *
+	 * @param tiles The tiles to render.
+	 * @param font The font used to render each glyph.
+	 * @param tileWidth Width of each tile, in pixels.
+	 * @param tileHeight Height of each tile, in pixels.
+	 * @param isOpaque Whether the tiles should be rendered as fully opaque, regardless of the alpha of their colours.
+	 * @param pixels The pixels of the image.
+	 * @param firstPixel Index of the image's top-left pixel.
+	 * @param scanlineStride Number of pixels between the start of each row of the image.
+	 * @param hasAlpha Whether the pixels have an alpha channel.
+	 * @param originX X-Axis pixel coordinate, within the image, of the left edge of the tile grid.
+	 * @param originY Y-Axis pixel coordinate, within the image, of the top edge of the tile grid.
+	 * @param tileY Y-Axis coordinate of the row.
+	 * @param startX X-Axis coordinate of the first tile to render.
+	 * @param endX X-Axis coordinate after the last tile to render.
+	 * @param onGlyphGenerated See {@link #rasterize}.
+	 */
+	private static void rasterizeRow(
+		final TileGrid tiles, final VFont font, final int tileWidth, final int tileHeight, final boolean isOpaque,
+		final int[] pixels, final int firstPixel, final int scanlineStride, final boolean hasAlpha, final int originX,
+		final int originY, final int tileY, final int startX, final int endX, final TileGrid.TileConsumer onGlyphGenerated
+	) {
+		int index = tileY * tiles.width + startX;
+		int offset = firstPixel + (tileY * tileHeight + originY) * scanlineStride + startX * tileWidth + originX;
+
+		for (int tileX = startX ; tileX < endX ; tileX++) {
+			int backgroundColor = tiles.backgroundColors[index];
+			int foregroundColor = tiles.foregroundColors[index];
+
+			if (isOpaque) {
+				backgroundColor |= 0xFF000000;
+				foregroundColor |= 0xFF000000;
+			}
+
+			fill(pixels, offset, scanlineStride, tileWidth, tileHeight, hasAlpha ? backgroundColor : backgroundColor | 0xFF000000);
+
+			if ((foregroundColor >>> 24) > 0) {
+				final int codePoint = tiles.codePoints[index];
+				final var sequentialOp = tiles.sequentialImageOps[index];
+
+				if (sequentialOp == null) {
+					final var mask = onGlyphGenerated == null ? font.generateMask(codePoint) : font.getCachedMask(codePoint);
+					if (mask != null) {
+						blendMask(mask, foregroundColor, pixels, offset, scanlineStride, tileWidth, tileHeight, hasAlpha);
+					} else if (onGlyphGenerated != null) {
+						final int x = tileX;
+						font.requestMask(codePoint, () -> onGlyphGenerated.accept(x, tileY));
+					}
+				} else {
+					/*
+					 * Masks can't be used when the tile has a sequential op,
+					 * as the op may depend on the colour of the glyph.
+					 */
+					final var image = onGlyphGenerated == null ? font.generateImage(codePoint, foregroundColor, sequentialOp) : font.getCachedImage(codePoint, foregroundColor, sequentialOp);
+					if (image instanceof BufferedImage) {
+						blendImage((BufferedImage) image, pixels, offset, scanlineStride, tileWidth, tileHeight, hasAlpha);
+					} else if (image == null && onGlyphGenerated != null) {
+						final int x = tileX;
+						font.requestImage(codePoint, foregroundColor, sequentialOp, () -> onGlyphGenerated.accept(x, tileY));
+					}
+				}
+			}
+
+			index++;
+			offset += tileWidth;
+		}
+	}
+
+	/**
+	 * Retrieves the number of pixels between the start of each row of an image's pixel array. This is larger than the
+	 * width of the image when the image is a sub-image of a larger image.
+	 *
+	 * @param image An image whose pixels are stored in a single {@code int} each.
+	 * @return The number of pixels.
+	 */
+	private static int getScanlineStride(final BufferedImage image) {
+		return ((SinglePixelPackedSampleModel) image.getRaster().getSampleModel()).getScanlineStride();
+	}
+
+	/**
+	 * Retrieves the index of an image's top-left pixel within its pixel array. This isn't {@code 0} when the image is a
+	 * sub-image of a larger image.
+	 *
+	 * @param image An image whose pixels are stored in a single {@code int} each.
+	 * @param scanlineStride Number of pixels between the start of each row of the image.
+	 * @return The index.
+	 */
+	private static int getFirstPixel(final BufferedImage image, final int scanlineStride) {
+		final var raster = image.getRaster();
+		final int rasterOffset = -raster.getSampleModelTranslateY() * scanlineStride - raster.getSampleModelTranslateX();
+		return raster.getDataBuffer().getOffset() + rasterOffset;
+	}
+
+	/**
+	 * Fills a rectangle of pixels with a colour.
+	 *
+	 * @param pixels The pixels of an image.
+	 * @param offset Index of the top-left pixel of the rectangle.
+	 * @param scanlineStride Number of pixels between the start of each row.
+	 * @param width Width of the rectangle.
+	 * @param height Height of the rectangle.
+	 * @param argb A colour, as a packed ARGB integer.
+	 */
+	private static void fill(final int[] pixels, final int offset, final int scanlineStride, final int width, final int height, final int argb) {
+		for (int y = 0 ; y < height ; y++) {
+			final int rowOffset = offset + y * scanlineStride;
+			Arrays.fill(pixels, rowOffset, rowOffset + width, argb);
+		}
+	}
+
+	/**
+	 * Blends a glyph mask, tinted with a colour, onto a rectangle of pixels.
+	 *
+	 * @param mask A glyph mask.
+	 * @param argb A colour to tint the mask with, as a packed ARGB integer.
+	 * @param pixels The pixels of an image.
+	 * @param offset Index of the top-left pixel of the rectangle.
+	 * @param scanlineStride Number of pixels between the start of each row.
+	 * @param width Width of the rectangle.
+	 * @param height Height of the rectangle.
+	 * @param hasAlpha Whether the pixels have an alpha channel.
+	 */
+	private static void blendMask(
+		final GlyphMask mask, final int argb, final int[] pixels, final int offset, final int scanlineStride,
+		final int width, final int height, final boolean hasAlpha
+	) {
+		final int colorAlpha = argb >>> 24;
+		final int blendWidth = Math.min(width, mask.getWidth());
+		final int blendHeight = Math.min(height, mask.getHeight());
+
+		for (int y = 0 ; y < blendHeight ; y++) {
+			int pixelIndex = offset + y * scanlineStride;
+
+			for (int x = 0 ; x < blendWidth ; x++) {
+				final int maskAlpha = mask.getAlpha(x, y);
+				if (maskAlpha != 0) {
+					final int alpha = colorAlpha == 255 ? maskAlpha : divideBy255(maskAlpha * colorAlpha);
+					pixels[pixelIndex] = blend(alpha, argb, pixels[pixelIndex], hasAlpha);
+				}
+
+				pixelIndex++;
+			}
+		}
+	}
+
+	/**
+	 * <p>Blends an image onto a rectangle of pixels.</p>
+	 *
+	 * <p>
+	 *     Images of type {@link BufferedImage#TYPE_INT_ARGB} or {@link BufferedImage#TYPE_INT_ARGB_PRE}, which is the
+	 *     type of the images created by {@link VFont}, are read directly from their pixel arrays. Images of any other
+	 *     type are read through {@link BufferedImage#getRGB(int, int)}, which converts each pixel through the image's
+	 *     colour model.
+	 * </p>
+	 *
+	 * @param image An image.
+	 * @param pixels The pixels of an image.
+	 * @param offset Index of the top-left pixel of the rectangle.
+	 * @param scanlineStride Number of pixels between the start of each row.
+	 * @param width Width of the rectangle.
+	 * @param height Height of the rectangle.
+	 * @param hasAlpha Whether the pixels have an alpha channel.
+	 */
+	private static void blendImage(
+		final BufferedImage image, final int[] pixels, final int offset, final int scanlineStride,
+		final int width, final int height, final boolean hasAlpha
+	) {
+		final int blendWidth = Math.min(width, image.getWidth());
+		final int blendHeight = Math.min(height, image.getHeight());
+
+		final int type = image.getType();
+		if (type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_ARGB_PRE) {
+			final var source = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+			final int imageStride = getScanlineStride(image);
+			final boolean isPremultiplied = type == BufferedImage.TYPE_INT_ARGB_PRE;
+			blendPixels(source, getFirstPixel(image, imageStride), imageStride, isPremultiplied, pixels, offset, scanlineStride, blendWidth, blendHeight, hasAlpha);
+			return;
+		}
+
+		for (int y = 0 ; y < blendHeight ; y++) {
+			int pixelIndex = offset + y * scanlineStride;
+
+			for (int x = 0 ; x < blendWidth ; x++) {
+				final int argb = image.getRGB(x, y);
+				final int alpha = argb >>> 24;
+				if (alpha != 0) {
+					pixels[pixelIndex] = blend(alpha, argb, pixels[pixelIndex], hasAlpha);
+				}
+
+				pixelIndex++;
+			}
+		}
+	}
+
+	/**
+	 * Blends a rectangle of ARGB pixels onto a rectangle of pixels.
+	 *
+	 * @param source The pixels of the image to blend.
+	 * @param sourceOffset Index of the top-left pixel of the rectangle to blend.
+	 * @param sourceStride Number of pixels between the start of each row of the image to blend.
+	 * @param isPremultiplied Whether the colours of the pixels to blend are premultiplied by their alpha.
+	 * @param pixels The pixels of an image.
+	 * @param offset Index of the top-left pixel of the rectangle.
+	 * @param scanlineStride Number of pixels between the start of each row.
+	 * @param width Width of the rectangle.
+	 * @param height Height of the rectangle.
+	 * @param hasAlpha Whether the pixels have an alpha channel.
+	 */
+	private static void blendPixels(
+		final int[] source, final int sourceOffset, final int sourceStride, final boolean isPremultiplied,
+		final int[] pixels, final int offset, final int scanlineStride, final int width, final int height,
+		final boolean hasAlpha
+	) {
+		for (int y = 0 ; y < height ; y++) {
+			int sourceIndex = sourceOffset + y * sourceStride;
+			int pixelIndex = offset + y * scanlineStride;
+
+			for (int x = 0 ; x < width ; x++) {
+				final int argb = source[sourceIndex++];
+				final int alpha = argb >>> 24;
+				if (alpha != 0) {
+					final int color = isPremultiplied && alpha != 255 ? unpremultiply(argb, alpha) : argb;
+					pixels[pixelIndex] = blend(alpha, color, pixels[pixelIndex], hasAlpha);
+				}
+
+				pixelIndex++;
+			}
+		}
+	}
+
+	/**
+	 * Divides the colour components of a premultiplied pixel by its alpha, rounding in the same way as the colour
+	 * model of a {@link BufferedImage#TYPE_INT_ARGB_PRE} image.
+	 *
+	 * @param argb The pixel, as a packed, premultiplied ARGB integer.
+	 * @param alpha Alpha of the pixel, between 1 and 254.
+	 * @return The pixel, as a packed, non-premultiplied ARGB integer.
+	 */
+	private static int unpremultiply(final int argb, final int alpha) {
+		final int red = (int) (((argb >> 16) & 0xFF) * 255.0f / alpha + 0.5f);
+		final int green = (int) (((argb >> 8) & 0xFF) * 255.0f / alpha + 0.5f);
+		final int blue = (int) ((argb & 0xFF) * 255.0f / alpha + 0.5f);
+		return (alpha << 24) | (red << 16) | (green << 8) | blue;
+	}
+
+	/**
+	 * Composites a colour over a pixel, using the source-over rule on non-premultiplied ARGB values.
+	 *
+	 * @param sourceAlpha Alpha of the colour, between 1 and 255.
+	 * @param source The colour, as a packed ARGB integer. Its alpha is ignored in favour of {@code sourceAlpha}.
+	 * @param destination The pixel, as a packed ARGB integer.
+	 * @param hasAlpha Whether the pixel has an alpha channel. If not, the pixel is treated as being opaque.
+	 * @return The composited pixel.
+	 */
+	static int blend(final int sourceAlpha, final int source, final int destination, final boolean hasAlpha) {
+		final int destinationAlpha = hasAlpha ? destination >>> 24 : 255;
+
+		if (sourceAlpha == 255 || destinationAlpha == 0) {
+			return (sourceAlpha << 24) | (source & 0xFFFFFF);
+		}
+
+		final int inverseAlpha = 255 - sourceAlpha;
+
+		if (destinationAlpha == 255) {
+			final int red = divideBy255(((source >> 16) & 0xFF) * sourceAlpha + ((destination >> 16) & 0xFF) * inverseAlpha);
+			final int green = divideBy255(((source >> 8) & 0xFF) * sourceAlpha + ((destination >> 8) & 0xFF) * inverseAlpha);
+			final int blue = divideBy255((source & 0xFF) * sourceAlpha + (destination & 0xFF) * inverseAlpha);
+			return 0xFF000000 | (red << 16) | (green << 8) | blue;
+		}
+
+		// Both colours are translucent, so the weight of the destination is reduced by its own alpha.
+		final int destinationWeight = divideBy255(destinationAlpha * inverseAlpha);
+		final int alpha = sourceAlpha + destinationWeight;
+		final int red = (((source >> 16) & 0xFF) * sourceAlpha + ((destination >> 16) & 0xFF) * destinationWeight + alpha / 2) / alpha;
+		final int green = (((source >> 8) & 0xFF) * sourceAlpha + ((destination >> 8) & 0xFF) * destinationWeight + alpha / 2) / alpha;
+		final int blue = ((source & 0xFF) * sourceAlpha + (destination & 0xFF) * destinationWeight + alpha / 2) / alpha;
+		return (alpha << 24) | (red << 16) | (green << 8) | blue;
+	}
+
+	/**
+	 * Divides a value, between 0 and 65025, by 255 and rounds the result to the nearest integer.
+	 *
+	 * @param value A value.
+	 * @return The value, divided by 255.
+	 */
+	private static int divideBy255(final int value) {
+		final int rounded = value + 128;
+		return (rounded + (rounded >> 8)) >> 8;
+	}
+}
@@ -0,0 +1,153 @@
+package com.valkryst.VTerminal.component;
+
+import com.valkryst.VTerminal.image.SequentialOp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * <p>A lock-free queue of tile writes, which any number of threads can add to, and which is drained as a single
+ * batch.</p>
+ *
+ * <p>
+ *     When the queue is drained, only the most recent write to each property of each tile is applied. Any earlier
+ *     writes to the same property of the same tile are discarded, as they would be overwritten.
+ * </p>
+ */
+final class TileWriteQueue {
+	/** Property of a tile which holds its code point. */
+	static final int CODE_POINT = 0;
+	/** Property of a tile which holds its background color. */
+	static final int BACKGROUND_COLOR = 1;
+	/** Property of a tile which holds its foreground color. */
+	static final int FOREGROUND_COLOR = 2;
+	/** Property of a tile which holds its sequential image operation. */
+	static final int SEQUENTIAL_IMAGE_OP = 3;
+	/** Number of properties of a tile. */
+	private static final int PROPERTY_COUNT = 4;
+
+	/** The queued writes, in the order in which they were added. */
+	private final ConcurrentLinkedQueue<Write> writes = new ConcurrentLinkedQueue<>();
+
+	/** The writes which are being applied. This is reused by each drain. */
+	private final List<Write> batch = new ArrayList<>();
+
+	/** Number of tiles which may be written to. */
+	private final int tileCount;
+
+	/**
+	 * <p>The drain during which each property of each tile was last written, indexed by
+	 * {@code tileIndex * PROPERTY_COUNT + property}. This allows redundant writes to be detected without clearing
+	 * the array between drains.</p>
+	 *
+	 * <p>It's allocated by the first drain which has writes to apply, as most queues are never written to.</p>
+	 */
+	private int[] lastWrittenDrain;
+
+	/** Number of the current drain. */
+	private int drain = 0;
+
+	/**
+	 * Constructs a new {@code TileWriteQueue}.
+	 *
+	 * @param tileCount Number of tiles which may be written to.
+	 */
+	TileWriteQueue(final int tileCount) {
+		this.tileCount = tileCount;
+	}
+
+	/**
+	 * Adds a write to the queue. This may be called from any thread.
+	 *
+	 * @param tileIndex Index of the tile.
+	 * @param property Property of the tile to write.
+	 * @param value New value of the property, if it isn't the sequential image operation.
+	 * @param sequentialOp New sequential image operation, if the property is the sequential image operation.
+	 */
+	void add(final int tileIndex, final int property, final int value, final SequentialOp sequentialOp) {
+		writes.add(new Write(tileIndex, property, value, sequentialOp));
+	}
+
+	/**
+	 * Removes every write from the queue, and passes the most recent write to each property of each tile to a
+	 * consumer.
+	 *
+	 * @param consumer A consumer for each write.
+	 */
+	synchronized void drain(final WriteConsumer consumer) {
+		Write write;
+		while ((write = writes.poll()) != null) {
+			batch.add(write);
+		}
+
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		if (lastWrittenDrain == null) {
+			lastWrittenDrain = new int[tileCount * PROPERTY_COUNT];
+		}
+
+		if (++drain == 0) {
+			// The counter has wrapped around, so any stale entries could match it.
+			Arrays.fill(lastWrittenDrain, 0);
+			drain = 1;
+		}
+
+		// The writes are visited newest-first, so the first write to each property is the one that is kept.
+		for (int i = batch.size() - 1 ; i >= 0 ; i--) {
+			write = batch.get(i);
+
+			final int slot = write.tileIndex * PROPERTY_COUNT + write.property;
+			if (lastWrittenDrain[slot] != drain) {
+				lastWrittenDrain[slot] = drain;
+				consumer.accept(write.tileIndex, write.property, write.value, write.sequentialOp);
+			}
+		}
+
+		batch.clear();
+	}
+
+	/** A consumer for a write to a property of a tile. */
+	@FunctionalInterface
+	interface WriteConsumer {
+		/**
+		 * Accepts a write.
+		 *
+		 * @param tileIndex Index of the tile.
+		 * @param property Property of the tile.
+		 * @param value New value of the property, if it isn't the sequential image operation.
+		 * @param sequentialOp New sequential image operation, if the property is the sequential image operation.
+		 */
+		void accept(final int tileIndex, final int property, final int value, final SequentialOp sequentialOp);
+	}
+
+	/** A write to a property of a tile. */
+	private static final class Write {
+		/** Index of the tile. */
+		private final int tileIndex;
+		/** Property of the tile. */
+		private final int property;
+		/** New value of the property, if it isn't the sequential image operation. */
+		private final int value;
+		/** New sequential image operation, if the property is the sequential image operation. */
+		private final SequentialOp sequentialOp;
+
+		/**
+		 * Constructs a new {@code Write}.
+		 *
+		 * @param tileIndex Index of the tile.
+		 * @param property Property of the tile.
+		 * @param value New value of the property, if it isn't the sequential image operation.
+		 * @param sequentialOp New sequential image operation, if the property is the sequential image operation.
+		 */
+		private Write(final int tileIndex, final int property, final int value, final SequentialOp sequentialOp) {
+			this.tileIndex = tileIndex;
+			this.property = property;
+			this.value = value;
+			this.sequentialOp = sequentialOp;
+		}
+	}
+}
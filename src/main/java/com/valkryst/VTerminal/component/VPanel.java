@@ -1,21 +1,106 @@
 package com.valkryst.VTerminal.component;
 
+import com.valkryst.VTerminal.font.GlyphMask;
+import com.valkryst.VTerminal.font.VFont;
 import com.valkryst.VTerminal.image.SequentialOp;
+import com.valkryst.VTerminal.metrics.MBeans;
+import com.valkryst.VTerminal.metrics.PaintEvent;
+import com.valkryst.VTerminal.metrics.PaintStatistics;
+import com.valkryst.VTerminal.metrics.VPanelMetrics;
 import com.valkryst.VTerminal.palette.VColor;
 import com.valkryst.VTerminal.plaf.VTerminalLookAndFeel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
 
+import javax.management.ObjectName;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class VPanel extends JPanel implements Scrollable {
-	/** Code point of each tile. */
-	private final int[][] codePoints;
-	/** Background color of each tile. */
-	private final Color[][] backgroundColors;
-	/** Foreground color of each tile. */
-	private final Color[][] foregroundColors;
-	/** Sequential image operation of each tile. */
-	private final SequentialOp[][] sequentialImageOps;
+	/** The next ID to assign to a {@link VPanel}, which identifies its MBean. */
+	private static final AtomicInteger NEXT_ID = new AtomicInteger(1);
+
+	/** Code point, colors, and sequential image operation of each tile. */
+	private final TileGrid tiles;
+
+	/**
+	 * <p>The tiles which are painted.</p>
+	 *
+	 * <p>
+	 *     This is {@link #tiles}, unless tile buffering is enabled, in which case it's a separate front buffer that
+	 *     only changes when {@link #present()} is called.
+	 * </p>
+	 */
+	private volatile TileGrid frontTiles;
+
+	/** Guards {@link #frontTiles}, so that a paint never sees a partially presented frame. */
+	private final Object frontTilesLock = new Object();
+
+	/**
+	 * A small, direct-mapped cache of the {@link Color} objects used when painting, so that the packed ARGB colors
+	 * of the tiles can be painted without allocating a new {@link Color} for each tile.
+	 */
+	private final Color[] paintColors = new Color[256];
+
+	/**
+	 * An image, the size of a single tile, onto which glyph masks are tinted before they are drawn. This is only
+	 * used when {@link VFont#isMaskModeEnabled()} is true.
+	 */
+	private BufferedImage tintedGlyphImage;
+
+	/**
+	 * Whether the panel's tiles are rasterized directly into the pixels of {@link #backBuffer}, rather than drawn
+	 * onto it one tile at a time with a {@link Graphics2D} context.
+	 */
+	@Getter private boolean rasterizerEnabled = false;
+
+	/**
+	 * An image of the panel's tiles, as they were last rendered. Only stale tiles are re-rendered into this image,
+	 * and each paint then copies the clip region from it.
+	 */
+	private BufferedImage backBuffer;
+
+	/**
+	 * Splits the rasterization of large regions into bands, which are rasterized in parallel, or null if the tiles
+	 * are always rasterized serially on the event dispatch thread. This is only used when {@link #rasterizerEnabled}
+	 * is true.
+	 */
+	@Getter @Setter private ParallelRasterizer parallelRasterizer;
+
+	/**
+	 * Regions of {@link #backBuffer} which must be shifted, in the order in which they were scrolled, before the
+	 * stale tiles are rendered into it.
+	 */
+	private final List<PendingScroll> pendingScrolls = new ArrayList<>();
+
+	/** Tile writes which have been queued, by any thread, to be applied on the event dispatch thread. */
+	private final TileWriteQueue queuedWrites;
+
+	/** Whether a call to {@link #applyQueuedWrites()} has been queued on the event dispatch thread. */
+	private final AtomicBoolean isWriteDrainQueued = new AtomicBoolean(false);
+
+	/** Whether a call to {@link #repaintDirtyTiles()} has been queued on the event dispatch thread. */
+	private final AtomicBoolean isRepaintQueued = new AtomicBoolean(false);
+
+	/** The duration of, and the number of tiles re-rendered by, each paint. */
+	@Getter private final PaintStatistics paintStatistics = new PaintStatistics(1024);
+
+	/** The number of tiles which have been re-rendered by the current paint. */
+	private int paintedTileCount = 0;
+
+	/** A unique ID, which identifies the panel's MBean and flight recorder events. */
+	private final int id = NEXT_ID.getAndIncrement();
+
+	/** The name of the panel's MBean, which is registered while the panel is displayable. */
+	private final ObjectName mBeanName = MBeans.createName("type=VPanel,id=" + id);
 
 	/**
 	 * Constructs a new instance of {@code VPanel}.
@@ -24,6 +109,23 @@ public class VPanel extends JPanel implements Scrollable {
 	 * @param heightInTiles Height of the panel, in tiles.
 	 */
 	public VPanel(final int widthInTiles, final int heightInTiles) {
+		this(widthInTiles, heightInTiles, false);
+	}
+
+	/**
+	 * <p>Constructs a new instance of {@code VPanel}.</p>
+	 *
+	 * <p>
+	 *     A concurrent panel guards each row of tiles with its own lock, so that its tiles can be written by many
+	 *     threads at once. Writers to different rows never contend with each other, and the panel is always painted
+	 *     from complete rows. A panel which isn't concurrent must only be written to by one thread at a time.
+	 * </p>
+	 *
+	 * @param widthInTiles Width of the panel, in tiles.
+	 * @param heightInTiles Height of the panel, in tiles.
+	 * @param isConcurrent Whether the panel's tiles can be written by many threads at once.
+	 */
+	public VPanel(final int widthInTiles, final int heightInTiles, final boolean isConcurrent) {
 		if (widthInTiles < 1) {
 			throw new IllegalArgumentException("The width must be >= 1.");
 		}
@@ -32,20 +134,9 @@ public class VPanel extends JPanel implements Scrollable {
 			throw new IllegalArgumentException("The height must be >= 1.");
 		}
 
-		codePoints = new int[heightInTiles][widthInTiles];
-		backgroundColors = new Color[heightInTiles][widthInTiles];
-		foregroundColors = new Color[heightInTiles][widthInTiles];
-		sequentialImageOps = new SequentialOp[heightInTiles][widthInTiles];
-
-		final var backgroundColor = super.getBackground();
-		final var foregroundColor = super.getForeground();
-		for (int y = 0; y < heightInTiles; y++) {
-			for (int x = 0; x < widthInTiles; x++) {
-				codePoints[y][x] = ' ';
-				backgroundColors[y][x] = new VColor(backgroundColor);
-				foregroundColors[y][x] = new VColor(foregroundColor);
-			}
-		}
+		tiles = new TileGrid(widthInTiles, heightInTiles, super.getBackground().getRGB(), super.getForeground().getRGB(), isConcurrent);
+		frontTiles = tiles;
+		queuedWrites = new TileWriteQueue(widthInTiles * heightInTiles);
 	}
 
 	private void applyRenderingHints(final Graphics2D graphics) {
@@ -58,12 +149,25 @@ public class VPanel extends JPanel implements Scrollable {
 		graphics.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_NORMALIZE);
 	}
 
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		MBeans.register(mBeanName, new VPanelMetrics(tiles.width, tiles.height, paintStatistics));
+	}
+
+	@Override
+	public void removeNotify() {
+		MBeans.unregister(mBeanName);
+		super.removeNotify();
+	}
+
 	@Override
 	public void paintComponent(final Graphics graphics) {
-		super.paintComponent(graphics);
+		final var event = new PaintEvent();
+		event.begin();
 
-		final var graphics2D = (Graphics2D) graphics.create();
-        this.applyRenderingHints(graphics2D);
+		final long startTime = System.nanoTime();
+		super.paintComponent(graphics);
 
 		final var laf = VTerminalLookAndFeel.getInstance();
 		final var tileWidth = laf.getTileWidth();
@@ -74,67 +178,953 @@ public class VPanel extends JPanel implements Scrollable {
 		 * important that this paint method performs a minimal number of
 		 * operations.
 		 *
-		 * The clip bounds, of the graphics object, represent a region of the
-		 * panel that must be repainted. Rather than repainting all the tiles
-		 * on every paint, it is performant to redraw only those tiles that
-		 * will appear within the bounds.
+		 * The tiles are rendered into a back buffer, which persists between
+		 * paints, and only those tiles that have changed since the previous
+		 * paint are re-rendered. The clip bounds, of the graphics object,
+		 * represent the region of the panel that must be repainted, so they
+		 * are then copied from the back buffer with a single blit. Repaints
+		 * initiated by Swing, such as when the panel is uncovered, require no
+		 * tiles to be re-rendered.
 		 */
-		final var clipBounds = graphics2D.getClip().getBounds2D();
+		final BufferedImage image;
+		synchronized (frontTilesLock) {
+			synchronized (pendingScrolls) {
+				image = this.updateBackBuffer(frontTiles, laf, tileWidth, tileHeight);
+			}
+		}
 
-		final int tilesStartX = (int) (clipBounds.getX() / tileWidth);
-		final int tilesStartY = (int) (clipBounds.getY() / tileHeight);
-		int tilesEndX = (int) Math.ceil((clipBounds.getX() + clipBounds.getWidth()) / (double) tileWidth);
-		tilesEndX = Math.min(codePoints[0].length, tilesEndX);
-		int tilesEndY = (int) Math.ceil((clipBounds.getY() + clipBounds.getHeight()) / (double) tileHeight);
-		tilesEndY = Math.min(codePoints.length, tilesEndY);
+		final var clipBounds = graphics.getClipBounds();
+		final int x1 = Math.max(0, clipBounds.x);
+		final int y1 = Math.max(0, clipBounds.y);
+		final int x2 = Math.min(image.getWidth(), clipBounds.x + clipBounds.width);
+		final int y2 = Math.min(image.getHeight(), clipBounds.y + clipBounds.height);
 
-		/*
-		 * To ensure the clip region is fully repainted and that no visual
-		 * artifacts remain after the paint, we must round down to the
-		 * coordinates of the nearest tile and start painting from there.
-		 */
-		final int initialXPosition = (int) (clipBounds.getX() - (clipBounds.getX() % tileWidth));
-		int xPosition = initialXPosition;
-		int yPosition = (int) (clipBounds.getY() - (clipBounds.getY() % tileHeight));
+		if (x1 < x2 && y1 < y2) {
+			graphics.drawImage(image, x1, y1, x2, y2, x1, y1, x2, y2, null);
+		}
 
-		for (int tilesY = tilesStartY ; tilesY < tilesEndY ; tilesY++) {
-			for (int tilesX = tilesStartX ; tilesX < tilesEndX ; tilesX++) {
-				var backgroundColor = backgroundColors[tilesY][tilesX];
-				var foregroundColor = foregroundColors[tilesY][tilesX];
+		paintStatistics.record(System.nanoTime() - startTime, paintedTileCount);
 
-				if (super.isOpaque()) {
-					if (backgroundColor.getAlpha() != 255) {
-						backgroundColor = new Color(backgroundColor.getRGB(), false);
-					}
+		event.end();
+		if (event.shouldCommit()) {
+			event.setPanelId(id);
+			event.setTileCount(paintedTileCount);
+			event.setClipWidth(clipBounds.width);
+			event.setClipHeight(clipBounds.height);
+			event.commit();
+		}
+	}
 
-					if (foregroundColor.getAlpha() != 255) {
-						foregroundColor = new Color(foregroundColor.getRGB(), false);
-					}
-				}
+	/**
+	 * <p>Re-renders every stale tile into {@link #backBuffer}. The caller must hold the monitor of
+	 * {@link #pendingScrolls}.</p>
+	 *
+	 * <p>
+	 *     The back buffer is re-created, and every tile is re-rendered, if the size of the back buffer doesn't match
+	 *     the size of the panel's tiles, or if its type doesn't match the opacity of the panel.
+	 * </p>
+	 *
+	 * @param tiles The tiles to render.
+	 * @param laf The look-and-feel.
+	 * @param tileWidth Width of each tile, in pixels.
+	 * @param tileHeight Height of each tile, in pixels.
+	 * @return The back buffer.
+	 */
+	private BufferedImage updateBackBuffer(final TileGrid tiles, final VTerminalLookAndFeel laf, final int tileWidth, final int tileHeight) {
+		final boolean isOpaque = super.isOpaque();
+		final int width = tiles.width * tileWidth;
+		final int height = tiles.height * tileHeight;
+		final int type = isOpaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+
+		final var scrolls = pendingScrolls.toArray(new PendingScroll[0]);
+		pendingScrolls.clear();
+
+		paintedTileCount = 0;
+
+		var image = backBuffer;
+		if (image == null || image.getWidth() != width || image.getHeight() != height || image.getType() != type) {
+			image = new BufferedImage(width, height, type);
+			backBuffer = image;
+			tiles.markAllStale();
+		} else if (scrolls.length > 0) {
+			final var graphics2D = image.createGraphics();
+			for (final var scroll : scrolls) {
+				scroll.apply(graphics2D, tileWidth, tileHeight);
+			}
+			graphics2D.dispose();
+		}
+
+		// When the font generates glyphs asynchronously, tiles whose glyphs aren't cached are re-rendered once they are.
+		final TileGrid.TileConsumer onGlyphGenerated = laf.vFont.getGlyphExecutor() == null ? null : this::onGlyphGenerated;
+
+		if (rasterizerEnabled) {
+			final var parallelRasterizer = this.parallelRasterizer;
+			final var buffer = image;
+
+			tiles.drainStaleRegions((x, y, regionWidth, regionHeight) -> {
+				paintedTileCount += regionWidth * regionHeight;
 
-				if (backgroundColor.getAlpha() > 0) {
-					graphics2D.setColor(backgroundColor);
-					graphics2D.fillRect(xPosition, yPosition, tileWidth, tileHeight);
+				if (parallelRasterizer == null) {
+					TileRasterizer.rasterize(tiles, laf.vFont, tileWidth, tileHeight, isOpaque, buffer, 0, 0, x, y, x + regionWidth, y + regionHeight, onGlyphGenerated);
+				} else {
+					parallelRasterizer.rasterize(tiles, laf.vFont, tileWidth, tileHeight, isOpaque, buffer, 0, 0, x, y, x + regionWidth, y + regionHeight, onGlyphGenerated);
 				}
+			});
+		} else {
+			final var graphics2D = image.createGraphics();
+			this.applyRenderingHints(graphics2D);
 
-				if (foregroundColor.getAlpha() > 0) {
-					final int codePoint = codePoints[tilesY][tilesX];
-					final var sequentialOp = sequentialImageOps[tilesY][tilesX];
+			tiles.drainStaleRegions((x, y, regionWidth, regionHeight) -> {
+				paintedTileCount += regionWidth * regionHeight;
+
+				// The previous contents of the region must be removed, as a translucent background won't cover them.
+				graphics2D.setComposite(AlphaComposite.Clear);
+				graphics2D.fillRect(x * tileWidth, y * tileHeight, regionWidth * tileWidth, regionHeight * tileHeight);
+				graphics2D.setComposite(AlphaComposite.SrcOver);
+
+				this.paintTiles(graphics2D, tiles, laf, tileWidth, tileHeight, x, y, x + regionWidth, y + regionHeight, onGlyphGenerated);
+			});
+
+			graphics2D.dispose();
+		}
 
-					final var image = laf.generateImage(codePoint, foregroundColor, sequentialOp);
+		return image;
+	}
+
+	/**
+	 * Paints a rectangular region of tiles, one tile at a time, using a {@link Graphics2D} context.
+	 *
+	 * @param graphics2D A graphics context.
+	 * @param tiles The tiles to paint.
+	 * @param laf The look-and-feel.
+	 * @param tileWidth Width of each tile, in pixels.
+	 * @param tileHeight Height of each tile, in pixels.
+	 * @param tilesStartX X-Axis coordinate of the first tile to paint.
+	 * @param tilesStartY Y-Axis coordinate of the first tile to paint.
+	 * @param tilesEndX X-Axis coordinate after the last tile to paint.
+	 * @param tilesEndY Y-Axis coordinate after the last tile to paint.
+	 * @param onGlyphGenerated If null, uncached glyphs are generated before they're painted. Otherwise, uncached
+	 *                         glyphs are requested asynchronously, their tiles are painted without them, and this is
+	 *                         called with the coordinates of each such tile once its glyph has been generated.
+	 */
+	private void paintTiles(
+		final Graphics2D graphics2D, final TileGrid tiles, final VTerminalLookAndFeel laf, final int tileWidth, final int tileHeight,
+		final int tilesStartX, final int tilesStartY, final int tilesEndX, final int tilesEndY, final TileGrid.TileConsumer onGlyphGenerated
+	) {
+		int yPosition = tilesStartY * tileHeight;
+
+		for (int tilesY = tilesStartY ; tilesY < tilesEndY ; tilesY++) {
+			tiles.lockRows(tilesY, tilesY + 1);
+			try {
+				this.paintRow(graphics2D, tiles, laf, tileWidth, tileHeight, tilesY, tilesStartX, tilesEndX, yPosition, onGlyphGenerated);
+			} finally {
+				tiles.unlockRows(tilesY, tilesY + 1);
+			}
+
+			yPosition += tileHeight;
+		}
+	}
+
+	/**
+	 * Paints a span of tiles within a single row, one tile at a time, using a {@link Graphics2D} context.
+	 *
+	 * @param graphics2D A graphics context.
+	 * @param tiles The tiles to paint.
+	 * @param laf The look-and-feel.
+	 * @param tileWidth Width of each tile, in pixels.
+	 * @param tileHeight Height of each tile, in pixels.
+	 * @param tilesY Y-Axis coordinate of the row.
+	 * @param tilesStartX X-Axis coordinate of the first tile to paint.
+	 * @param tilesEndX X-Axis coordinate after the last tile to paint.
+	 * @param yPosition Y-Axis coordinate, in pixels, of the top edge of the row.
+	 * @param onGlyphGenerated See {@link #paintTiles}.
+	 */
+	private void paintRow(
+		final Graphics2D graphics2D, final TileGrid tiles, final VTerminalLookAndFeel laf, final int tileWidth,
+		final int tileHeight, final int tilesY, final int tilesStartX, final int tilesEndX, final int yPosition,
+		final TileGrid.TileConsumer onGlyphGenerated
+	) {
+		int xPosition = tilesStartX * tileWidth;
+
+		final boolean isOpaque = super.isOpaque();
+		final boolean isMaskModeEnabled = laf.vFont.isMaskModeEnabled();
+		final boolean isAtlasModeEnabled = laf.vFont.isAtlasModeEnabled();
+		final boolean isAsync = onGlyphGenerated != null;
+
+		int index = tilesY * tiles.width + tilesStartX;
+
+		for (int tilesX = tilesStartX ; tilesX < tilesEndX ; tilesX++) {
+			int backgroundColor = tiles.backgroundColors[index];
+			int foregroundColor = tiles.foregroundColors[index];
+
+			if (isOpaque) {
+				backgroundColor |= 0xFF000000;
+				foregroundColor |= 0xFF000000;
+			}
+
+			if ((backgroundColor >>> 24) > 0) {
+				graphics2D.setColor(this.getPaintColor(backgroundColor));
+				graphics2D.fillRect(xPosition, yPosition, tileWidth, tileHeight);
+			}
+
+			if ((foregroundColor >>> 24) > 0) {
+				final int codePoint = tiles.codePoints[index];
+				final var sequentialOp = tiles.sequentialImageOps[index];
+
+				/*
+				 * Masks can't be used when the tile has a sequential op, as
+				 * the op may depend on the colour of the glyph.
+				 */
+				final int x = tilesX;
+
+				if (isMaskModeEnabled && sequentialOp == null) {
+					final var mask = isAsync ? laf.vFont.getCachedMask(codePoint) : laf.generateMask(codePoint);
+					if (mask != null) {
+						graphics2D.drawImage(this.tintGlyphMask(mask, foregroundColor), xPosition, yPosition, null);
+					} else if (isAsync) {
+						laf.vFont.requestMask(codePoint, () -> onGlyphGenerated.accept(x, tilesY));
+					}
+				} else if (isAtlasModeEnabled) {
+					final var region = isAsync ? laf.vFont.getCachedAtlasRegion(codePoint, foregroundColor, sequentialOp) : laf.generateAtlasRegion(codePoint, foregroundColor, sequentialOp);
+					if (region != null) {
+						graphics2D.drawImage(
+							region.getPage(),
+							xPosition, yPosition, xPosition + region.getWidth(), yPosition + region.getHeight(),
+							region.getX(), region.getY(), region.getX() + region.getWidth(), region.getY() + region.getHeight(),
+							null
+						);
+					} else if (isAsync) {
+						laf.vFont.requestAtlasRegion(codePoint, foregroundColor, sequentialOp, () -> onGlyphGenerated.accept(x, tilesY));
+					}
+				} else {
+					final var image = isAsync ? laf.vFont.getCachedImage(codePoint, foregroundColor, sequentialOp) : laf.generateImage(codePoint, foregroundColor, sequentialOp);
 					if (image != null) {
 						graphics2D.drawImage(image, xPosition, yPosition, null);
+					} else if (isAsync) {
+						laf.vFont.requestImage(codePoint, foregroundColor, sequentialOp, () -> onGlyphGenerated.accept(x, tilesY));
 					}
 				}
+			}
+
+			xPosition += tileWidth;
+			index++;
+		}
+	}
+
+	/**
+	 * Renders every tile of the panel into an image, with the top-left tile at the top-left corner of the image.
+	 *
+	 * @see #renderTo(BufferedImage, Rectangle)
+	 *
+	 * @param target The image.
+	 * @throws IllegalArgumentException If the image is too small to hold the tiles.
+	 */
+	public void renderTo(final @NonNull BufferedImage target) {
+		this.renderTo(target, new Rectangle(0, 0, tiles.width, tiles.height));
+	}
 
-				xPosition += tileWidth;
+	/**
+	 * <p>Renders a rectangular region of tiles into an image, with the top-left tile of the region at the top-left
+	 * corner of the image.</p>
+	 *
+	 * <p>
+	 *     This doesn't require the panel to be displayed, or to be called on the event dispatch thread, and it works
+	 *     when {@code java.awt.headless} is true. The tiles are rendered by the software rasterizer, using the same
+	 *     glyph caches as the panel's paint, so it's suitable for rendering a large number of frames offline.
+	 * </p>
+	 *
+	 * <p>
+	 *     Images of type {@link BufferedImage#TYPE_INT_ARGB} or {@link BufferedImage#TYPE_INT_RGB} are rendered into
+	 *     directly. Images of any other type are rendered into via an intermediate image.
+	 * </p>
+	 *
+	 * <p>When tile buffering is enabled, the tiles which were last presented are rendered.</p>
+	 *
+	 * <p>Every glyph is generated before it's rendered, even if the font generates glyphs asynchronously.</p>
+	 *
+	 * @param target The image.
+	 * @param tileRegion The region of tiles to render.
+	 * @throws IllegalArgumentException If the region has a negative size, or if the image is too small to hold the
+	 *                                  region.
+	 * @throws ArrayIndexOutOfBoundsException If any part of the region is outside the panel.
+	 */
+	public void renderTo(final @NonNull BufferedImage target, final @NonNull Rectangle tileRegion) {
+		tiles.checkRegion(tileRegion.x, tileRegion.y, tileRegion.width, tileRegion.height);
+
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final int tileWidth = laf.getTileWidth();
+		final int tileHeight = laf.getTileHeight();
+		final int width = tileRegion.width * tileWidth;
+		final int height = tileRegion.height * tileHeight;
+
+		if (target.getWidth() < width || target.getHeight() < height) {
+			throw new IllegalArgumentException("The image must be at least " + width + "x" + height + " pixels.");
+		}
+
+		if (width == 0 || height == 0) {
+			return;
+		}
+
+		var image = target;
+		if (!TileRasterizer.isSupported(target)) {
+			image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		}
+
+		final int originX = -tileRegion.x * tileWidth;
+		final int originY = -tileRegion.y * tileHeight;
+		final int endX = tileRegion.x + tileRegion.width;
+		final int endY = tileRegion.y + tileRegion.height;
+
+		final boolean isOpaque = super.isOpaque();
+		final var parallelRasterizer = this.parallelRasterizer;
+
+		synchronized (frontTilesLock) {
+			if (parallelRasterizer == null) {
+				TileRasterizer.rasterize(frontTiles, laf.vFont, tileWidth, tileHeight, isOpaque, image, originX, originY, tileRegion.x, tileRegion.y, endX, endY, null);
+			} else {
+				parallelRasterizer.rasterize(frontTiles, laf.vFont, tileWidth, tileHeight, isOpaque, image, originX, originY, tileRegion.x, tileRegion.y, endX, endY, null);
 			}
+		}
 
-			xPosition = initialXPosition;
-			yPosition += tileHeight;
+		if (image != target) {
+			final var graphics2D = target.createGraphics();
+			graphics2D.setComposite(AlphaComposite.Src);
+			graphics2D.drawImage(image, 0, 0, null);
+			graphics2D.dispose();
 		}
+	}
 
-		graphics2D.dispose();
+	/**
+	 * Retrieves a {@link Color} for a packed ARGB color, reusing a previously created {@link Color} whenever
+	 * possible.
+	 *
+	 * @param argb A packed ARGB color.
+	 * @return A {@link Color} representing the packed ARGB color.
+	 */
+	private Color getPaintColor(final int argb) {
+		final int index = (argb ^ (argb >>> 8) ^ (argb >>> 16) ^ (argb >>> 24)) & (paintColors.length - 1);
+
+		var color = paintColors[index];
+		if (color == null || color.getRGB() != argb) {
+			color = new VColor(argb, true);
+			paintColors[index] = color;
+		}
+
+		return color;
+	}
+
+	/**
+	 * Tints a glyph mask onto {@link #tintedGlyphImage}, re-creating the image if its size doesn't match the mask.
+	 *
+	 * @param mask A glyph mask.
+	 * @param argb A colour to tint the mask with, as a packed ARGB integer.
+	 * @return The tinted image.
+	 */
+	private BufferedImage tintGlyphMask(final GlyphMask mask, final int argb) {
+		var image = tintedGlyphImage;
+		if (image == null || image.getWidth() != mask.getWidth() || image.getHeight() != mask.getHeight()) {
+			image = new BufferedImage(mask.getWidth(), mask.getHeight(), BufferedImage.TYPE_INT_ARGB);
+			tintedGlyphImage = image;
+		}
+
+		final var pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		mask.tint(argb, pixels, 0, mask.getWidth());
+		return image;
+	}
+
+	/**
+	 * Discards the back buffer, so that every tile is re-rendered by the next paint, and repaints the panel.
+	 *
+	 * This must be called whenever a change affects the appearance of tiles which haven't themselves changed.
+	 */
+	private void invalidateBackBuffer() {
+		backBuffer = null;
+		super.repaint();
+	}
+
+	@Override
+	public void setOpaque(final boolean isOpaque) {
+		super.setOpaque(isOpaque);
+		this.invalidateBackBuffer();
+	}
+
+	@Override
+	public void updateUI() {
+		super.updateUI();
+
+		// The look-and-feel, and therefore the palette and font, may have changed.
+		this.invalidateBackBuffer();
+	}
+
+	/**
+	 * Marks a tile as dirty and queues a repaint of the dirty tiles.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 */
+	private void markDirty(final int x, final int y) {
+		tiles.markDirty(x, y);
+		this.queueRepaintUnlessBuffered();
+	}
+
+	/**
+	 * Marks a rectangular region of tiles as dirty and queues a repaint of the dirty tiles.
+	 *
+	 * @param x X-Axis coordinate of the top-left tile of the region.
+	 * @param y Y-Axis coordinate of the top-left tile of the region.
+	 * @param width Width of the region, in tiles.
+	 * @param height Height of the region, in tiles.
+	 */
+	private void markDirty(final int x, final int y, final int width, final int height) {
+		tiles.markDirty(x, y, width, height);
+		this.queueRepaintUnlessBuffered();
+	}
+
+	/** Marks every tile as dirty and queues a repaint of the dirty tiles. */
+	private void markAllDirty() {
+		tiles.markAllDirty();
+		this.queueRepaintUnlessBuffered();
+	}
+
+	/**
+	 * <p>Re-renders and repaints a tile which was painted without its glyph, because the glyph hadn't yet been
+	 * generated.</p>
+	 *
+	 * <p>This may be called on any thread. The tile is marked dirty on the event dispatch thread.</p>
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 */
+	private void onGlyphGenerated(final int x, final int y) {
+		SwingUtilities.invokeLater(() -> {
+			synchronized (frontTilesLock) {
+				final var front = frontTiles;
+				front.lockRows(y, y + 1);
+				try {
+					front.markDirty(x, y);
+				} finally {
+					front.unlockRows(y, y + 1);
+				}
+			}
+
+			this.queueRepaint();
+		});
+	}
+
+	/**
+	 * Queues a repaint of the dirty tiles, unless tile buffering is enabled, in which case the changed tiles are
+	 * repainted once they've been presented.
+	 */
+	private void queueRepaintUnlessBuffered() {
+		if (frontTiles == tiles) {
+			this.queueRepaint();
+		}
+	}
+
+	/**
+	 * Queues a single call to {@link #repaintDirtyTiles()} on the event dispatch thread, unless one has already been
+	 * queued. This allows any number of tile changes to be coalesced into a single repaint.
+	 */
+	private void queueRepaint() {
+		if (isRepaintQueued.compareAndSet(false, true)) {
+			SwingUtilities.invokeLater(this::repaintDirtyTiles);
+		}
+	}
+
+	/**
+	 * <p>Repaints every tile that has changed since the last call to this method.</p>
+	 *
+	 * <p>
+	 *     The dirty tiles are merged into a small set of tile-aligned rectangles, and each rectangle is passed to
+	 *     {@link #repaint(int, int, int, int)}. This is called automatically, on the event dispatch thread, after a
+	 *     tile has been changed. It only needs to be called manually when the repaint must be requested immediately.
+	 * </p>
+	 */
+	public void repaintDirtyTiles() {
+		isRepaintQueued.set(false);
+
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final int tileWidth = laf.getTileWidth();
+		final int tileHeight = laf.getTileHeight();
+
+		synchronized (frontTilesLock) {
+			frontTiles.drainDirtyRegions((x, y, width, height) -> {
+				super.repaint(x * tileWidth, y * tileHeight, width * tileWidth, height * tileHeight);
+			});
+		}
+	}
+
+	/**
+	 * <p>Publishes every change made to the tiles, since the previous call to this method, to the front buffer and
+	 * queues a repaint of the changed tiles.</p>
+	 *
+	 * <p>
+	 *     Only the changed regions are copied to the front buffer, and the copy is made while holding the same lock
+	 *     as the paint, so the event dispatch thread always paints a complete frame.
+	 * </p>
+	 *
+	 * <p>
+	 *     This has no effect unless tile buffering is enabled. It must be called by the thread which writes to the
+	 *     tiles, or after that thread has finished writing the frame.
+	 * </p>
+	 */
+	public void present() {
+		synchronized (frontTilesLock) {
+			final var front = frontTiles;
+			if (front == tiles) {
+				return;
+			}
+
+			tiles.drainDirtyRegions((x, y, width, height) -> {
+				tiles.lockRows(y, y + height);
+				try {
+					front.copyFrom(tiles, x, y, width, height);
+				} finally {
+					tiles.unlockRows(y, y + height);
+				}
+
+				front.markDirty(x, y, width, height);
+			});
+		}
+
+		this.queueRepaint();
+	}
+
+	/**
+	 * Determines whether the panel's tiles can be written by many threads at once.
+	 *
+	 * @see #VPanel(int, int, boolean)
+	 *
+	 * @return Whether the panel is concurrent.
+	 */
+	public boolean isConcurrent() {
+		return tiles.isConcurrent();
+	}
+
+	/**
+	 * Determines whether tile buffering is enabled.
+	 *
+	 * @see #setTileBufferingEnabled(boolean)
+	 *
+	 * @return Whether tile buffering is enabled.
+	 */
+	public boolean isTileBufferingEnabled() {
+		return frontTiles != tiles;
+	}
+
+	/**
+	 * <p>Sets whether the panel's tiles are double-buffered.</p>
+	 *
+	 * <p>
+	 *     When enabled, every change to the tiles is written to a back buffer, and isn't painted until it's
+	 *     published by {@link #present()}. This allows a thread other than the event dispatch thread to write a
+	 *     complete frame without the panel painting a partially written one.
+	 * </p>
+	 *
+	 * <p>
+	 *     When disabled, any changes which haven't been presented are painted immediately.
+	 * </p>
+	 *
+	 * @param isEnabled Whether tile buffering is enabled.
+	 */
+	public void setTileBufferingEnabled(final boolean isEnabled) {
+		synchronized (frontTilesLock) {
+			if (isEnabled == this.isTileBufferingEnabled()) {
+				return;
+			}
+
+			if (isEnabled) {
+				final var front = new TileGrid(tiles.width, tiles.height, 0, 0);
+
+				tiles.lockRows(0, tiles.height);
+				try {
+					front.copyFrom(tiles, 0, 0, tiles.width, tiles.height);
+				} finally {
+					tiles.unlockRows(0, tiles.height);
+				}
+
+				frontTiles = front;
+			} else {
+				frontTiles = tiles;
+			}
+
+			this.invalidateBackBuffer();
+		}
+	}
+
+	/**
+	 * <p>Copies the tiles within a rectangular region to another region of the same size.</p>
+	 *
+	 * <p>
+	 *     The code point, colors, and sequential image operation of each tile are copied. The regions may overlap, in
+	 *     which case the destination receives the tiles as they were before the copy.
+	 * </p>
+	 *
+	 * @param sourceX X-Axis coordinate of the top-left tile of the source region.
+	 * @param sourceY Y-Axis coordinate of the top-left tile of the source region.
+	 * @param width Width of the regions, in tiles.
+	 * @param height Height of the regions, in tiles.
+	 * @param destinationX X-Axis coordinate of the top-left tile of the destination region.
+	 * @param destinationY Y-Axis coordinate of the top-left tile of the destination region.
+	 * @throws IllegalArgumentException If the width or height is negative.
+	 * @throws ArrayIndexOutOfBoundsException If any part of either region is outside the panel.
+	 */
+	public void copyRegion(final int sourceX, final int sourceY, final int width, final int height, final int destinationX, final int destinationY) {
+		tiles.checkRegion(sourceX, sourceY, width, height);
+		tiles.checkRegion(destinationX, destinationY, width, height);
+
+		if (width == 0 || height == 0 || (sourceX == destinationX && sourceY == destinationY)) {
+			return;
+		}
+
+		final int fromY = Math.min(sourceY, destinationY);
+		final int toY = Math.max(sourceY, destinationY) + height;
+
+		tiles.lockRows(fromY, toY);
+		try {
+			tiles.copy(sourceX, sourceY, width, height, destinationX, destinationY);
+			this.markDirty(destinationX, destinationY, width, height);
+		} finally {
+			tiles.unlockRows(fromY, toY);
+		}
+	}
+
+	/**
+	 * Sets the code point and colors of every tile within a rectangular region.
+	 *
+	 * @param x X-Axis coordinate of the top-left tile of the region.
+	 * @param y Y-Axis coordinate of the top-left tile of the region.
+	 * @param width Width of the region, in tiles.
+	 * @param height Height of the region, in tiles.
+	 * @param codePoint A new code point.
+	 * @param foregroundColor A new foreground color, or null to use the default.
+	 * @param backgroundColor A new background color, or null to use the default.
+	 * @throws IllegalArgumentException If the width or height is negative.
+	 * @throws ArrayIndexOutOfBoundsException If any part of the region is outside the panel.
+	 */
+	public void fill(final int x, final int y, final int width, final int height, final int codePoint, Color foregroundColor, Color backgroundColor) {
+		if (foregroundColor == null) {
+			foregroundColor = UIManager.getColor("Panel.foreground");
+		}
+
+		if (backgroundColor == null) {
+			backgroundColor = UIManager.getColor("Panel.background");
+		}
+
+		this.fill(x, y, width, height, codePoint, foregroundColor.getRGB(), backgroundColor.getRGB());
+	}
+
+	/**
+	 * Sets the code point and colors of every tile within a rectangular region.
+	 *
+	 * @param x X-Axis coordinate of the top-left tile of the region.
+	 * @param y Y-Axis coordinate of the top-left tile of the region.
+	 * @param width Width of the region, in tiles.
+	 * @param height Height of the region, in tiles.
+	 * @param codePoint A new code point.
+	 * @param foregroundColor A new foreground color, as a packed ARGB integer.
+	 * @param backgroundColor A new background color, as a packed ARGB integer.
+	 * @throws IllegalArgumentException If the width or height is negative.
+	 * @throws ArrayIndexOutOfBoundsException If any part of the region is outside the panel.
+	 */
+	public void fill(final int x, final int y, final int width, final int height, final int codePoint, final int foregroundColor, final int backgroundColor) {
+		tiles.checkRegion(x, y, width, height);
+
+		if (width == 0 || height == 0) {
+			return;
+		}
+
+		tiles.lockRows(y, y + height);
+		try {
+			tiles.fill(x, y, width, height, codePoint, foregroundColor, backgroundColor);
+			this.markDirty(x, y, width, height);
+		} finally {
+			tiles.unlockRows(y, y + height);
+		}
+	}
+
+	/**
+	 * <p>Writes a string to a row of tiles, one code point per tile, starting at a given tile.</p>
+	 *
+	 * <p>
+	 *     Supplementary characters, which are represented by a surrogate pair, are written to a single tile. Any code
+	 *     points which extend beyond the right edge of the panel are not written.
+	 * </p>
+	 *
+	 * @param x X-Axis coordinate of the first tile.
+	 * @param y Y-Axis coordinate of the first tile.
+	 * @param text The string.
+	 * @param foregroundColor A new foreground color, or null to use the default.
+	 * @param backgroundColor A new background color, or null to use the default.
+	 * @throws ArrayIndexOutOfBoundsException If the first tile is outside the panel.
+	 */
+	public void writeString(final int x, final int y, final @NonNull CharSequence text, Color foregroundColor, Color backgroundColor) {
+		if (foregroundColor == null) {
+			foregroundColor = UIManager.getColor("Panel.foreground");
+		}
+
+		if (backgroundColor == null) {
+			backgroundColor = UIManager.getColor("Panel.background");
+		}
+
+		this.writeString(x, y, text, foregroundColor.getRGB(), backgroundColor.getRGB());
+	}
+
+	/**
+	 * <p>Writes a string to a row of tiles, one code point per tile, starting at a given tile.</p>
+	 *
+	 * <p>
+	 *     Supplementary characters, which are represented by a surrogate pair, are written to a single tile. Any code
+	 *     points which extend beyond the right edge of the panel are not written.
+	 * </p>
+	 *
+	 * @param x X-Axis coordinate of the first tile.
+	 * @param y Y-Axis coordinate of the first tile.
+	 * @param text The string.
+	 * @param foregroundColor A new foreground color, as a packed ARGB integer.
+	 * @param backgroundColor A new background color, as a packed ARGB integer.
+	 * @throws ArrayIndexOutOfBoundsException If the first tile is outside the panel.
+	 */
+	public void writeString(final int x, final int y, final @NonNull CharSequence text, final int foregroundColor, final int backgroundColor) {
+		final int startIndex = tiles.indexOf(x, y);
+		final int endIndex = startIndex + (tiles.width - x);
+
+		tiles.lockRows(y, y + 1);
+		try {
+			int index = startIndex;
+			int charIndex = 0;
+			while (charIndex < text.length() && index < endIndex) {
+				final int codePoint = Character.codePointAt(text, charIndex);
+				charIndex += Character.charCount(codePoint);
+
+				tiles.codePoints[index] = codePoint;
+				tiles.foregroundColors[index] = foregroundColor;
+				tiles.backgroundColors[index] = backgroundColor;
+				index++;
+			}
+
+			if (index > startIndex) {
+				this.markDirty(x, y, index - startIndex, 1);
+			}
+		} finally {
+			tiles.unlockRows(y, y + 1);
+		}
+	}
+
+	/**
+	 * Shifts every tile of the panel.
+	 *
+	 * @see #scroll(int, int, Rectangle)
+	 *
+	 * @param dx Number of tiles to shift by, along the X-Axis. Positive values shift the tiles to the right.
+	 * @param dy Number of tiles to shift by, along the Y-Axis. Positive values shift the tiles down.
+	 */
+	public void scroll(final int dx, final int dy) {
+		this.scroll(dx, dy, new Rectangle(0, 0, tiles.width, tiles.height));
+	}
+
+	/**
+	 * <p>Shifts the tiles within a rectangular region of the panel.</p>
+	 *
+	 * <p>
+	 *     Tiles which are shifted beyond the edges of the region are discarded, and the tiles exposed by the shift
+	 *     are reset to an empty code point, the panel's foreground and background colors, and no sequential image
+	 *     operation.
+	 * </p>
+	 *
+	 * <p>
+	 *     The existing pixels of the region are shifted within the panel's back buffer, so only the exposed tiles
+	 *     need to be rendered by the next paint.
+	 * </p>
+	 *
+	 * @param dx Number of tiles to shift by, along the X-Axis. Positive values shift the tiles to the right.
+	 * @param dy Number of tiles to shift by, along the Y-Axis. Positive values shift the tiles down.
+	 * @param region The region to shift, in tiles.
+	 * @throws IllegalArgumentException If the width or height of the region is negative.
+	 * @throws ArrayIndexOutOfBoundsException If any part of the region is outside the panel.
+	 */
+	public void scroll(final int dx, final int dy, final @NonNull Rectangle region) {
+		tiles.checkRegion(region.x, region.y, region.width, region.height);
+
+		if (region.width == 0 || region.height == 0 || (dx == 0 && dy == 0)) {
+			return;
+		}
+
+		final int foregroundColor = super.getForeground().getRGB();
+		final int backgroundColor = super.getBackground().getRGB();
+
+		/*
+		 * The shift of the tiles, and of their stale marks, must be recorded
+		 * atomically with respect to the paint, or the paint could render the
+		 * shifted tiles before it has shifted the back buffer.
+		 */
+		synchronized (pendingScrolls) {
+			tiles.lockRows(region.y, region.y + region.height);
+			try {
+				tiles.scroll(region.x, region.y, region.width, region.height, dx, dy, foregroundColor, backgroundColor);
+			} finally {
+				tiles.unlockRows(region.y, region.y + region.height);
+			}
+
+			/*
+			 * When tile buffering is enabled, the back buffer holds the front
+			 * tiles, so it can't be shifted until the scroll is presented. The
+			 * scrolled region is instead re-rendered once it's presented.
+			 */
+			if (this.isTileBufferingEnabled()) {
+				return;
+			}
+
+			pendingScrolls.add(new PendingScroll(region.x, region.y, region.width, region.height, dx, dy));
+		}
+
+		this.queueRepaint();
+	}
+
+	/**
+	 * <p>Applies every queued tile write, and queues a single repaint of the tiles which they changed.</p>
+	 *
+	 * <p>
+	 *     Only the most recent write to each property of each tile is applied. This is called automatically, on the
+	 *     event dispatch thread, after a write has been queued. It only needs to be called manually when the writes
+	 *     must be applied immediately.
+	 * </p>
+	 */
+	public void applyQueuedWrites() {
+		isWriteDrainQueued.set(false);
+
+		queuedWrites.drain((index, property, value, sequentialOp) -> {
+			final int x = index % tiles.width;
+			final int y = index / tiles.width;
+
+			switch (property) {
+				case TileWriteQueue.CODE_POINT: {
+					this.setCodePointAt(x, y, value);
+					break;
+				}
+				case TileWriteQueue.BACKGROUND_COLOR: {
+					this.setBackgroundAt(x, y, value);
+					break;
+				}
+				case TileWriteQueue.FOREGROUND_COLOR: {
+					this.setForegroundAt(x, y, value);
+					break;
+				}
+				case TileWriteQueue.SEQUENTIAL_IMAGE_OP: {
+					this.setSequentialImageOpAt(x, y, sequentialOp);
+					break;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Queues a change to the background color of a given tile. This may be called from any thread.
+	 *
+	 * @see #applyQueuedWrites()
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @param color A new color.
+	 * @throws ArrayIndexOutOfBoundsException If the tile is outside the panel.
+	 */
+	public void queueBackgroundAt(final int x, final int y, Color color) {
+		if (color == null) {
+			color = UIManager.getColor("Panel.background");
+		}
+
+		this.queueBackgroundAt(x, y, color.getRGB());
+	}
+
+	/**
+	 * Queues a change to the background color of a given tile. This may be called from any thread.
+	 *
+	 * @see #applyQueuedWrites()
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @param argb A new color, as a packed ARGB integer.
+	 * @throws ArrayIndexOutOfBoundsException If the tile is outside the panel.
+	 */
+	public void queueBackgroundAt(final int x, final int y, final int argb) {
+		this.queueWrite(tiles.indexOf(x, y), TileWriteQueue.BACKGROUND_COLOR, argb, null);
+	}
+
+	/**
+	 * Queues a change to the code point of a given tile. This may be called from any thread.
+	 *
+	 * @see #applyQueuedWrites()
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @param codePoint A new code point.
+	 * @throws ArrayIndexOutOfBoundsException If the tile is outside the panel.
+	 */
+	public void queueCodePointAt(final int x, final int y, final int codePoint) {
+		this.queueWrite(tiles.indexOf(x, y), TileWriteQueue.CODE_POINT, codePoint, null);
+	}
+
+	/**
+	 * Queues a change to the foreground color of a given tile. This may be called from any thread.
+	 *
+	 * @see #applyQueuedWrites()
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @param color A new color.
+	 * @throws ArrayIndexOutOfBoundsException If the tile is outside the panel.
+	 */
+	public void queueForegroundAt(final int x, final int y, Color color) {
+		if (color == null) {
+			color = UIManager.getColor("Panel.foreground");
+		}
+
+		this.queueForegroundAt(x, y, color.getRGB());
+	}
+
+	/**
+	 * Queues a change to the foreground color of a given tile. This may be called from any thread.
+	 *
+	 * @see #applyQueuedWrites()
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @param argb A new color, as a packed ARGB integer.
+	 * @throws ArrayIndexOutOfBoundsException If the tile is outside the panel.
+	 */
+	public void queueForegroundAt(final int x, final int y, final int argb) {
+		this.queueWrite(tiles.indexOf(x, y), TileWriteQueue.FOREGROUND_COLOR, argb, null);
+	}
+
+	/**
+	 * Queues a change to the sequential image operation of a given tile. This may be called from any thread.
+	 *
+	 * @see #applyQueuedWrites()
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @param sequentialOp A new sequential image operation, or null to remove the tile's operation.
+	 * @throws ArrayIndexOutOfBoundsException If the tile is outside the panel.
+	 */
+	public void queueSequentialImageOpAt(final int x, final int y, final SequentialOp sequentialOp) {
+		this.queueWrite(tiles.indexOf(x, y), TileWriteQueue.SEQUENTIAL_IMAGE_OP, 0, sequentialOp);
+	}
+
+	/**
+	 * Adds a write to {@link #queuedWrites}, and queues a single call to {@link #applyQueuedWrites()} on the event
+	 * dispatch thread, unless one has already been queued.
+	 *
+	 * @param index Index of the tile.
+	 * @param property Property of the tile to write.
+	 * @param value New value of the property, if it isn't the sequential image operation.
+	 * @param sequentialOp New sequential image operation, if the property is the sequential image operation.
+	 */
+	private void queueWrite(final int index, final int property, final int value, final SequentialOp sequentialOp) {
+		queuedWrites.add(index, property, value, sequentialOp);
+
+		if (isWriteDrainQueued.compareAndSet(false, true)) {
+			SwingUtilities.invokeLater(this::applyQueuedWrites);
+		}
 	}
 
 	/**
@@ -146,13 +1136,8 @@ public class VPanel extends JPanel implements Scrollable {
 	public void reset() {
         this.resetBackgroundColors();
         this.resetForegroundColors();
-
-		for (int y = 0 ; y < this.getHeightInTiles() ; y++) {
-			for (int x = 0 ; x < this.getWidthInTiles() ; x++) {
-				codePoints[y][x] = ' ';
-				sequentialImageOps[y][x] = null;
-			}
-		}
+		this.resetCodePoints();
+		this.resetSequentialImageOps();
 	}
 
 	/**
@@ -165,10 +1150,12 @@ public class VPanel extends JPanel implements Scrollable {
 
 	/** Sets the code point of each tile to the space character (code point 32).  */
 	public void resetCodePoints() {
-		for (int y = 0 ; y < this.getHeightInTiles() ; y++) {
-			for (int x = 0 ; x < this.getWidthInTiles() ; x++) {
-				codePoints[y][x] = ' ';
-			}
+		tiles.lockRows(0, tiles.height);
+		try {
+			Arrays.fill(tiles.codePoints, ' ');
+			this.markAllDirty();
+		} finally {
+			tiles.unlockRows(0, tiles.height);
 		}
 	}
 
@@ -182,20 +1169,55 @@ public class VPanel extends JPanel implements Scrollable {
 
 	/** Sets the sequential image op of each tile to null. */
 	public void resetSequentialImageOps() {
-		for (int y = 0 ; y < this.getHeightInTiles() ; y++) {
-			for (int x = 0 ; x < this.getWidthInTiles() ; x++) {
-				sequentialImageOps[y][x] = null;
-			}
+		tiles.lockRows(0, tiles.height);
+		try {
+			Arrays.fill(tiles.sequentialImageOps, null);
+			this.markAllDirty();
+		} finally {
+			tiles.unlockRows(0, tiles.height);
 		}
 	}
 
+	/**
+	 * Retrieves the background color of a given tile.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @return The background color of the tile.
+	 */
+	public Color getBackgroundAt(final int x, final int y) {
+		return new VColor(tiles.backgroundColors[tiles.indexOf(x, y)], true);
+	}
+
+	/**
+	 * Retrieves the code point (Unicode character) of a given tile.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @return The code point of the tile.
+	 */
+	public int getCodePointAt(final int x, final int y) {
+		return tiles.codePoints[tiles.indexOf(x, y)];
+	}
+
+	/**
+	 * Retrieves the foreground color of a given tile.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @return The foreground color of the tile.
+	 */
+	public Color getForegroundAt(final int x, final int y) {
+		return new VColor(tiles.foregroundColors[tiles.indexOf(x, y)], true);
+	}
+
 	/**
 	 * Retrieves the panel's height, in tiles.
 	 *
 	 * @return The panel's height, in tiles.
 	 */
 	public int getHeightInTiles() {
-		return codePoints.length;
+		return tiles.height;
 	}
 
 	@Override
@@ -233,13 +1255,41 @@ public class VPanel extends JPanel implements Scrollable {
 		return false;
 	}
 
+	/**
+	 * Retrieves the sequential image operation of a given tile.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @return The sequential image operation of the tile, or null if there is none.
+	 */
+	public SequentialOp getSequentialImageOpAt(final int x, final int y) {
+		return tiles.sequentialImageOps[tiles.indexOf(x, y)];
+	}
+
 	/**
 	 * Retrieves the panel's width, in tiles.
 	 *
 	 * @return The panel's width, in tiles.
 	 */
 	public int getWidthInTiles() {
-		return codePoints[0].length;
+		return tiles.width;
+	}
+
+	/**
+	 * <p>Sets whether the panel is painted by its software rasterizer.</p>
+	 *
+	 * <p>
+	 *     When enabled, the tiles are rendered directly into the pixels of an off-screen image, blending each glyph's
+	 *     {@link GlyphMask} onto its background with integer arithmetic, and the image is then drawn with a single
+	 *     call to {@link Graphics#drawImage}. This is typically much faster than the default, which draws each tile
+	 *     separately, when a large number of small tiles must be repainted.
+	 * </p>
+	 *
+	 * @param isRasterizerEnabled Whether the rasterizer is enabled.
+	 */
+	public void setRasterizerEnabled(final boolean isRasterizerEnabled) {
+		this.rasterizerEnabled = isRasterizerEnabled;
+		this.invalidateBackBuffer();
 	}
 
 	@Override
@@ -250,19 +1300,16 @@ public class VPanel extends JPanel implements Scrollable {
 
 
 		super.setBackground(color);
-		if (backgroundColors == null) {
+		if (tiles == null) {
 			return;
 		}
 
-		final int alpha = color.getAlpha();
-		final int blue = color.getBlue();
-		final int green = color.getGreen();
-		final int red = color.getRed();
-
-		for (int y = 0; y < backgroundColors.length; y++) {
-			for (int x = 0; x < backgroundColors[0].length; x++) {
-                this.setBackgroundAt(x, y, new VColor(red, green, blue, alpha));
-			}
+		tiles.lockRows(0, tiles.height);
+		try {
+			Arrays.fill(tiles.backgroundColors, color.getRGB());
+			this.markAllDirty();
+		} finally {
+			tiles.unlockRows(0, tiles.height);
 		}
 	}
 
@@ -278,8 +1325,27 @@ public class VPanel extends JPanel implements Scrollable {
 			color = UIManager.getColor("Panel.background");
 		}
 
-		if (!backgroundColors[y][x].equals(color)) {
-			backgroundColors[y][x] = new VColor(color);
+		this.setBackgroundAt(x, y, color.getRGB());
+	}
+
+	/**
+	 * Changes the background color of a given tile.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @param argb A new color, as a packed ARGB integer.
+	 */
+	public void setBackgroundAt(final int x, final int y, final int argb) {
+		final int index = tiles.indexOf(x, y);
+
+		tiles.lockRows(y, y + 1);
+		try {
+			if (tiles.backgroundColors[index] != argb) {
+				tiles.backgroundColors[index] = argb;
+				this.markDirty(x, y);
+			}
+		} finally {
+			tiles.unlockRows(y, y + 1);
 		}
 	}
 
@@ -291,8 +1357,16 @@ public class VPanel extends JPanel implements Scrollable {
 	 * @param codePoint A new code point.
 	 */
 	public void setCodePointAt(final int x, final int y, final int codePoint) {
-		if (codePoints[y][x] != codePoint) {
-			codePoints[y][x] = codePoint;
+		final int index = tiles.indexOf(x, y);
+
+		tiles.lockRows(y, y + 1);
+		try {
+			if (tiles.codePoints[index] != codePoint) {
+				tiles.codePoints[index] = codePoint;
+				this.markDirty(x, y);
+			}
+		} finally {
+			tiles.unlockRows(y, y + 1);
 		}
 	}
 
@@ -303,19 +1377,16 @@ public class VPanel extends JPanel implements Scrollable {
 		}
 
 		super.setForeground(color);
-		if (foregroundColors == null) {
+		if (tiles == null) {
 			return;
 		}
 
-		final int alpha = color.getAlpha();
-		final int blue = color.getBlue();
-		final int green = color.getGreen();
-		final int red = color.getRed();
-
-		for (int y = 0; y < foregroundColors.length; y++) {
-			for (int x = 0; x < foregroundColors[0].length; x++) {
-                this.setForegroundAt(x, y, new VColor(red, green, blue, alpha));
-			}
+		tiles.lockRows(0, tiles.height);
+		try {
+			Arrays.fill(tiles.foregroundColors, color.getRGB());
+			this.markAllDirty();
+		} finally {
+			tiles.unlockRows(0, tiles.height);
 		}
 	}
 
@@ -331,8 +1402,27 @@ public class VPanel extends JPanel implements Scrollable {
 			color = UIManager.getColor("Panel.foreground");
 		}
 
-		if (!foregroundColors[y][x].equals(color)) {
-			foregroundColors[y][x] = new VColor(color);
+		this.setForegroundAt(x, y, color.getRGB());
+	}
+
+	/**
+	 * Changes the foreground color of a given tile.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @param argb A new color, as a packed ARGB integer.
+	 */
+	public void setForegroundAt(final int x, final int y, final int argb) {
+		final int index = tiles.indexOf(x, y);
+
+		tiles.lockRows(y, y + 1);
+		try {
+			if (tiles.foregroundColors[index] != argb) {
+				tiles.foregroundColors[index] = argb;
+				this.markDirty(x, y);
+			}
+		} finally {
+			tiles.unlockRows(y, y + 1);
 		}
 	}
 
@@ -347,6 +1437,73 @@ public class VPanel extends JPanel implements Scrollable {
 	 * @param sequentialOp A new sequential image operation, or null.
 	 */
 	public void setSequentialImageOpAt(final int x, final int y, final SequentialOp sequentialOp) {
-		sequentialImageOps[y][x] = sequentialOp;
+		final int index = tiles.indexOf(x, y);
+
+		tiles.lockRows(y, y + 1);
+		try {
+			if (tiles.sequentialImageOps[index] != sequentialOp) {
+				tiles.sequentialImageOps[index] = sequentialOp;
+				this.markDirty(x, y);
+			}
+		} finally {
+			tiles.unlockRows(y, y + 1);
+		}
+	}
+
+	/** A region of tiles which has been scrolled, but not yet shifted within the back buffer. */
+	private static final class PendingScroll {
+		/** X-Axis coordinate of the top-left tile of the region. */
+		private final int x;
+		/** Y-Axis coordinate of the top-left tile of the region. */
+		private final int y;
+		/** Width of the region, in tiles. */
+		private final int width;
+		/** Height of the region, in tiles. */
+		private final int height;
+		/** Number of tiles that the region was shifted by, along the X-Axis. */
+		private final int dx;
+		/** Number of tiles that the region was shifted by, along the Y-Axis. */
+		private final int dy;
+
+		/**
+		 * Constructs a new {@code PendingScroll}.
+		 *
+		 * @param x X-Axis coordinate of the top-left tile of the region.
+		 * @param y Y-Axis coordinate of the top-left tile of the region.
+		 * @param width Width of the region, in tiles.
+		 * @param height Height of the region, in tiles.
+		 * @param dx Number of tiles that the region was shifted by, along the X-Axis.
+		 * @param dy Number of tiles that the region was shifted by, along the Y-Axis.
+		 */
+		private PendingScroll(final int x, final int y, final int width, final int height, final int dx, final int dy) {
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+			this.dx = dx;
+			this.dy = dy;
+		}
+
+		/**
+		 * Shifts the pixels of the region which remain within the region after the scroll.
+		 *
+		 * @param graphics2D A graphics context of the back buffer.
+		 * @param tileWidth Width of each tile, in pixels.
+		 * @param tileHeight Height of each tile, in pixels.
+		 */
+		private void apply(final Graphics2D graphics2D, final int tileWidth, final int tileHeight) {
+			final int keptWidth = width - Math.abs(dx);
+			final int keptHeight = height - Math.abs(dy);
+
+			if (keptWidth <= 0 || keptHeight <= 0) {
+				return;
+			}
+
+			graphics2D.copyArea(
+				(x + Math.max(0, -dx)) * tileWidth, (y + Math.max(0, -dy)) * tileHeight,
+				keptWidth * tileWidth, keptHeight * tileHeight,
+				dx * tileWidth, dy * tileHeight
+			);
+		}
 	}
 }
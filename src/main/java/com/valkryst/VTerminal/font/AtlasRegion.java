@@ -0,0 +1,40 @@
+package com.valkryst.VTerminal.font;
+
+import lombok.Getter;
+
+import java.awt.image.BufferedImage;
+
+/** The region of a {@link GlyphAtlas} page which is occupied by a single glyph. */
+public final class AtlasRegion {
+	/** The page on which the glyph is stored. */
+	@Getter private final BufferedImage page;
+	/** Index of the atlas slot which the glyph occupies. */
+	@Getter private final int slot;
+	/** X-Axis coordinate of the glyph on its page. */
+	@Getter private final int x;
+	/** Y-Axis coordinate of the glyph on its page. */
+	@Getter private final int y;
+	/** Width of the glyph, in pixels. */
+	@Getter private final int width;
+	/** Height of the glyph, in pixels. */
+	@Getter private final int height;
+
+	/**
+	 * Constructs a new {@link AtlasRegion}.
+	 *
+	 * @param page The page on which the glyph is stored.
+	 * @param slot Index of the atlas slot which the glyph occupies.
+	 * @param x X-Axis coordinate of the glyph on its page.
+	 * @param y Y-Axis coordinate of the glyph on its page.
+	 * @param width Width of the glyph, in pixels.
+	 * @param height Height of the glyph, in pixels.
+	 */
+	AtlasRegion(final BufferedImage page, final int slot, final int x, final int y, final int width, final int height) {
+		this.page = page;
+		this.slot = slot;
+		this.x = x;
+		this.y = y;
+		this.width = width;
+		this.height = height;
+	}
+}
@@ -0,0 +1,56 @@
+package com.valkryst.VTerminal.font;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/** An inclusive range of code points. */
+public final class CodePointRange {
+	/** The printable characters of ASCII, from the space to the tilde. */
+	public static final CodePointRange ASCII = new CodePointRange(0x20, 0x7E);
+	/** The box-drawing characters. */
+	public static final CodePointRange BOX_DRAWING = new CodePointRange(0x2500, 0x257F);
+	/** The block-element characters. */
+	public static final CodePointRange BLOCK_ELEMENTS = new CodePointRange(0x2580, 0x259F);
+
+	/** The ranges which are most commonly displayed by a terminal. */
+	public static final List<CodePointRange> COMMON = List.of(ASCII, BOX_DRAWING, BLOCK_ELEMENTS);
+
+	/** The first code point of the range. */
+	@Getter private final int start;
+	/** The last code point of the range. */
+	@Getter private final int end;
+
+	/**
+	 * Constructs a new {@link CodePointRange}.
+	 *
+	 * @param start The first code point of the range.
+	 * @param end The last code point of the range.
+	 */
+	public CodePointRange(final int start, final int end) {
+		if (!Character.isValidCodePoint(start)) {
+			throw new IllegalArgumentException(start + " is not a valid code point.");
+		}
+
+		if (!Character.isValidCodePoint(end)) {
+			throw new IllegalArgumentException(end + " is not a valid code point.");
+		}
+
+		if (end < start) {
+			throw new IllegalArgumentException("The end must be >= the start.");
+		}
+
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * Retrieves a stream of the code points in the range, in ascending order.
+	 *
+	 * @return The stream.
+	 */
+	public IntStream stream() {
+		return IntStream.rangeClosed(start, end);
+	}
+}
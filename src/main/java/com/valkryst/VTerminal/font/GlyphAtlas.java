@@ -0,0 +1,369 @@
+package com.valkryst.VTerminal.font;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * <p>Packs glyph images into a small number of large page images, so that many glyphs share a single image.</p>
+ *
+ * <p>
+ *     Each page is a grid of equally sized slots, one per glyph. Pages are added as the atlas fills, up to a
+ *     maximum number of pages, after which the least recently used glyphs are evicted to make room for new ones.
+ * </p>
+ */
+public final class GlyphAtlas {
+	/** Width of each slot, in pixels. */
+	@Getter private final int slotWidth;
+	/** Height of each slot, in pixels. */
+	@Getter private final int slotHeight;
+	/** Number of slot columns on each page. */
+	private final int columns;
+	/** Number of slot rows on each page. */
+	private final int rows;
+	/** Maximum number of pages. */
+	@Getter private final int maximumPages;
+
+	/** The pages of the atlas. */
+	private final List<BufferedImage> pages = new ArrayList<>();
+
+	/**
+	 * <p>Guards {@link #freeSlots}, {@link #freeSlotCount}, {@link #slotCount}, and {@link #slotOwners}.</p>
+	 *
+	 * <p>
+	 *     This is separate from the atlas' monitor because slots are freed by the cache's removal listener, which
+	 *     may run on any thread while the cache holds its own internal locks.
+	 * </p>
+	 */
+	private final Object slotLock = new Object();
+	/** A stack of the indices of the slots which are not in use. */
+	private int[] freeSlots = new int[0];
+	/** Number of indices on the {@link #freeSlots} stack. */
+	private int freeSlotCount = 0;
+	/** Total number of slots, across all pages. */
+	private int slotCount = 0;
+
+	/**
+	 * The region which currently occupies each slot. This is used to detect regions which have been evicted, and
+	 * whose slots have been reused, but which are still held by a thread that read them before their eviction.
+	 */
+	private volatile AtlasRegion[] slotOwners = new AtlasRegion[0];
+
+	/** A cache of the regions occupied by each glyph. Evicting a region frees its slot. */
+	private final GlyphCache<AtlasRegion> regions;
+
+	/**
+	 * Constructs a new {@link GlyphAtlas}.
+	 *
+	 * @param slotWidth Width of each slot, in pixels.
+	 * @param slotHeight Height of each slot, in pixels.
+	 * @param columns Number of slot columns on each page.
+	 * @param rows Number of slot rows on each page.
+	 * @param maximumPages Maximum number of pages.
+	 */
+	public GlyphAtlas(final int slotWidth, final int slotHeight, final int columns, final int rows, final int maximumPages) {
+		if (slotWidth < 1 || slotHeight < 1) {
+			throw new IllegalArgumentException("The slot width and height must be >= 1.");
+		}
+
+		if (columns < 1 || rows < 1) {
+			throw new IllegalArgumentException("The number of columns and rows must be >= 1.");
+		}
+
+		if (maximumPages < 1) {
+			throw new IllegalArgumentException("The maximum number of pages must be >= 1.");
+		}
+
+		this.slotWidth = slotWidth;
+		this.slotHeight = slotHeight;
+		this.columns = columns;
+		this.rows = rows;
+		this.maximumPages = maximumPages;
+
+		/*
+		 * The removal listener runs on the calling thread, rather than on the
+		 * common pool, so that a slot is freed before the call which evicted
+		 * its region returns.
+		 */
+		final var builder = Caffeine.newBuilder()
+									.maximumSize((long) columns * rows * maximumPages)
+									.expireAfterAccess(5, TimeUnit.MINUTES)
+									.executor(Runnable::run);
+
+		regions = new GlyphCache<>(builder, (key, region, cause) -> {
+			if (region != null) {
+				freeSlot(region);
+			}
+		});
+	}
+
+	/**
+	 * Retrieves the region occupied by a glyph.
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @param argb Colour of the glyph, as a packed ARGB integer.
+	 * @param sequentialOpId ID of the glyph's sequential image operation, or {@code 0} if there is none.
+	 * @return The region, or null if the glyph is not in the atlas.
+	 */
+	public AtlasRegion get(final int codePoint, final int argb, final int sequentialOpId) {
+		final var region = regions.getIfPresent(codePoint, argb, sequentialOpId);
+		if (region == null) {
+			return null;
+		}
+
+		final var owners = slotOwners;
+		if (region.getSlot() >= owners.length || owners[region.getSlot()] != region) {
+			return null;
+		}
+
+		return region;
+	}
+
+	/**
+	 * <p>Retrieves the region occupied by a glyph, rendering the glyph and adding it to the atlas if it isn't in the
+	 * atlas, and evicting the least recently used glyph if the atlas is full.</p>
+	 *
+	 * <p>
+	 *     When several threads request the same missing glyph at once, the renderer is only called by one of them,
+	 *     and the others wait for its result. The rendered image is copied into a slot and then discarded, so the
+	 *     atlas holds the only copy of the glyph.
+	 * </p>
+	 *
+	 * <p>Images larger than a slot are cropped to the size of the slot.</p>
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @param argb Colour of the glyph, as a packed ARGB integer.
+	 * @param sequentialOpId ID of the glyph's sequential image operation, or {@code 0} if there is none.
+	 * @param renderer Renders the glyph. It may return null, in which case nothing is added to the atlas.
+	 * @return The region occupied by the glyph, or null if the renderer returned null.
+	 */
+	public AtlasRegion get(final int codePoint, final int argb, final int sequentialOpId, final @NonNull Supplier<? extends Image> renderer) {
+		final var existingRegion = get(codePoint, argb, sequentialOpId);
+		if (existingRegion != null) {
+			return existingRegion;
+		}
+
+		/*
+		 * The slot is reserved before the region is loaded, as the cache's
+		 * loader can't evict other regions from the cache.
+		 */
+		final int slot;
+		final BufferedImage page;
+		synchronized (this) {
+			slot = allocateSlot();
+			page = getPage(slot);
+		}
+
+		final var region = regions.get(codePoint, argb, sequentialOpId, () -> {
+			final var image = renderer.get();
+			return image == null ? null : draw(image, page, slot);
+		});
+
+		// The slot wasn't used, because the glyph is blank or because another thread loaded the region first.
+		if (region == null || region.getSlot() != slot || region.getPage() != page) {
+			releaseSlot(page, slot);
+		}
+
+		return region;
+	}
+
+	/**
+	 * Adds a glyph to the atlas, evicting the least recently used glyph if the atlas is full.
+	 *
+	 * Images larger than a slot are cropped to the size of the slot.
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @param argb Colour of the glyph, as a packed ARGB integer.
+	 * @param sequentialOpId ID of the glyph's sequential image operation, or {@code 0} if there is none.
+	 * @param image Image of the glyph.
+	 * @return The region occupied by the glyph.
+	 */
+	public synchronized AtlasRegion put(final int codePoint, final int argb, final int sequentialOpId, final @NonNull Image image) {
+		final var existingRegion = get(codePoint, argb, sequentialOpId);
+		if (existingRegion != null) {
+			return existingRegion;
+		}
+
+		final int slot = allocateSlot();
+		final var region = draw(image, getPage(slot), slot);
+		regions.put(codePoint, argb, sequentialOpId, region);
+		return region;
+	}
+
+	/**
+	 * Draws a glyph into a slot, and makes the glyph's region the owner of the slot.
+	 *
+	 * @param image Image of the glyph.
+	 * @param page The page of the slot.
+	 * @param slot The index of the slot.
+	 * @return The region occupied by the glyph.
+	 */
+	private AtlasRegion draw(final Image image, final BufferedImage page, final int slot) {
+		final int x = ((slot % (columns * rows)) % columns) * slotWidth;
+		final int y = ((slot % (columns * rows)) / columns) * slotHeight;
+
+		// Slots of the same page may be drawn into by several threads at once.
+		synchronized (page) {
+			final var graphics = page.createGraphics();
+			graphics.setComposite(AlphaComposite.Src);
+			graphics.setClip(x, y, slotWidth, slotHeight);
+			graphics.setColor(new Color(0, 0, 0, 0));
+			graphics.fillRect(x, y, slotWidth, slotHeight);
+			graphics.drawImage(image, x, y, null);
+			graphics.dispose();
+		}
+
+		final var width = Math.min(slotWidth, image.getWidth(null));
+		final var height = Math.min(slotHeight, image.getHeight(null));
+		final var region = new AtlasRegion(page, slot, x, y, width, height);
+		synchronized (slotLock) {
+			// The page may have been removed by invalidateAll, while the glyph was being drawn.
+			if (slot < slotCount && pages.get(slot / (columns * rows)) == page) {
+				slotOwners[slot] = region;
+			}
+		}
+
+		return region;
+	}
+
+	/** Removes every glyph, and every page, from the atlas. */
+	public synchronized void invalidateAll() {
+		regions.invalidateAll();
+		regions.asCache().cleanUp();
+
+		synchronized (slotLock) {
+			pages.clear();
+			freeSlotCount = 0;
+			slotCount = 0;
+			slotOwners = new AtlasRegion[0];
+		}
+	}
+
+	/**
+	 * Retrieves the number of pages in the atlas.
+	 *
+	 * @return The number of pages.
+	 */
+	public int getPageCount() {
+		synchronized (slotLock) {
+			return pages.size();
+		}
+	}
+
+	/**
+	 * Retrieves the index of a free slot, adding a new page or evicting a glyph if there are no free slots.
+	 *
+	 * @return The index of the slot.
+	 */
+	private int allocateSlot() {
+		int slot = popFreeSlot();
+		if (slot != -1) {
+			return slot;
+		}
+
+		regions.asCache().cleanUp();
+		slot = popFreeSlot();
+		if (slot != -1) {
+			return slot;
+		}
+
+		if (pages.size() < maximumPages) {
+			addPage();
+		} else {
+			final var cache = regions.asCache();
+			cache.policy().eviction().ifPresent(eviction -> {
+				eviction.coldest(1).keySet().forEach(cache::invalidate);
+			});
+			cache.cleanUp();
+		}
+
+		slot = popFreeSlot();
+		if (slot == -1) {
+			throw new IllegalStateException("Unable to free a slot in the glyph atlas.");
+		}
+
+		return slot;
+	}
+
+	/**
+	 * Retrieves the page of a slot.
+	 *
+	 * @param slot The index of the slot.
+	 * @return The page.
+	 */
+	private BufferedImage getPage(final int slot) {
+		synchronized (slotLock) {
+			return pages.get(slot / (columns * rows));
+		}
+	}
+
+	/**
+	 * Returns a slot, which was allocated but never used, to the {@link #freeSlots} stack.
+	 *
+	 * @param page The page of the slot, when it was allocated.
+	 * @param slot The index of the slot.
+	 */
+	private void releaseSlot(final BufferedImage page, final int slot) {
+		synchronized (slotLock) {
+			// Slots of pages which have been removed by invalidateAll are discarded.
+			if (slot < slotCount && pages.get(slot / (columns * rows)) == page && slotOwners[slot] == null) {
+				freeSlots[freeSlotCount++] = slot;
+			}
+		}
+	}
+
+	/**
+	 * Pops a slot from the {@link #freeSlots} stack.
+	 *
+	 * @return The index of the slot, or -1 if there are no free slots.
+	 */
+	private int popFreeSlot() {
+		synchronized (slotLock) {
+			return freeSlotCount == 0 ? -1 : freeSlots[--freeSlotCount];
+		}
+	}
+
+	/**
+	 * Returns the slot of an evicted region to the {@link #freeSlots} stack.
+	 *
+	 * @param region The evicted region.
+	 */
+	private void freeSlot(final AtlasRegion region) {
+		synchronized (slotLock) {
+			final int slot = region.getSlot();
+
+			// Slots of pages which have been removed by invalidateAll are discarded.
+			if (slot < slotCount && slotOwners[slot] == region) {
+				slotOwners[slot] = null;
+				freeSlots[freeSlotCount++] = slot;
+			}
+		}
+	}
+
+	/** Adds a new page to the atlas, and pushes each of its slots onto the {@link #freeSlots} stack. */
+	private void addPage() {
+		final var page = new BufferedImage(columns * slotWidth, rows * slotHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+
+		synchronized (slotLock) {
+			final int firstSlot = slotCount;
+			pages.add(page);
+			slotCount += columns * rows;
+
+			freeSlots = Arrays.copyOf(freeSlots, slotCount);
+			slotOwners = Arrays.copyOf(slotOwners, slotCount);
+
+			// Pushed in reverse, so that the slots are used in order.
+			for (int slot = slotCount - 1 ; slot >= firstSlot ; slot--) {
+				freeSlots[freeSlotCount++] = slot;
+			}
+		}
+	}
+}
@@ -0,0 +1,404 @@
+package com.valkryst.VTerminal.font;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.valkryst.VTerminal.image.CacheConfiguration;
+import lombok.NonNull;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * <p>A cache of glyph renderings, keyed by code point, colour, and sequential image operation.</p>
+ *
+ * <p>
+ *     The entries are stored in a Caffeine {@link Cache}, which handles eviction and expiry. Recently used entries
+ *     are also stored in a small, direct-mapped table of primitive keys, which is checked first. This allows a
+ *     cache hit to be served without boxing the key or allocating a {@link GlyphKey}.
+ * </p>
+ *
+ * <p>
+ *     The table is only a shortcut to the entry's key. Each hit on the table is still looked up in the Caffeine cache,
+ *     so that it's seen by the eviction and expiry policies, and so that an entry which the cache has removed is never
+ *     returned by the table.
+ * </p>
+ *
+ * @param <V> Type of the cached renderings.
+ */
+final class GlyphCache<V> {
+	/** Number of bits used to index the {@link #table}. */
+	private static final int TABLE_BITS = 12;
+
+	/** The Caffeine cache which owns each entry. */
+	private final Cache<GlyphKey, V> cache;
+
+	/**
+	 * A soft-reference secondary tier, which holds the entries that have been evicted from the {@link #cache}, or
+	 * null if there is no secondary tier.
+	 */
+	private final Cache<GlyphKey, V> softTier;
+
+	/** The maximum weight of the {@link #cache}, as configured, or {@code -1} if the cache isn't bounded by weight. */
+	private final long maximumWeight;
+
+	/**
+	 * Whether entries which are evicted from the {@link #cache} are discarded, rather than moved to the
+	 * {@link #softTier}, because the cache has been shrunk to free memory.
+	 */
+	private volatile boolean softTierSuspended = false;
+
+	/** A direct-mapped table of recently used entries. Each slot holds an immutable {@link Entry}, or null. */
+	private final Entry<V>[] table;
+
+	/**
+	 * Constructs a new {@link GlyphCache}.
+	 *
+	 * @param builder A Caffeine builder, configured with the desired eviction and expiry policies.
+	 * @param removalListener A listener to notify when an entry is removed from the cache, or null.
+	 */
+	GlyphCache(final @NonNull Caffeine<Object, Object> builder, final RemovalListener<GlyphKey, V> removalListener) {
+		this(builder, null, null, -1, removalListener);
+	}
+
+	/**
+	 * Constructs a new {@link GlyphCache}.
+	 *
+	 * @param configuration The eviction and expiry policies of the cache.
+	 * @param weigher Calculates the approximate number of bytes used by an entry.
+	 */
+	GlyphCache(final @NonNull CacheConfiguration configuration, final @NonNull Weigher<? super GlyphKey, ? super V> weigher) {
+		this(configuration.newCaffeineBuilder(), weigher, configuration.newSoftTier(), configuration.getMaximumWeight(), null);
+	}
+
+	/**
+	 * Constructs a new {@link GlyphCache}.
+	 *
+	 * @param builder A Caffeine builder, configured with the desired eviction and expiry policies.
+	 * @param weigher A weigher to set on the builder, or null.
+	 * @param softTier A soft-reference secondary tier, or null.
+	 * @param maximumWeight The maximum weight set on the builder, or {@code -1} if it isn't bounded by weight.
+	 * @param removalListener A listener to notify when an entry is removed from the cache, or null.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private GlyphCache(
+		final Caffeine<Object, Object> builder, final Weigher<? super GlyphKey, ? super V> weigher,
+		final Cache<GlyphKey, V> softTier, final long maximumWeight, final RemovalListener<GlyphKey, V> removalListener
+	) {
+		table = (Entry<V>[]) new Entry[1 << TABLE_BITS];
+		this.softTier = softTier;
+		this.maximumWeight = maximumWeight;
+
+		var typedBuilder = builder.<GlyphKey, V>removalListener((key, value, cause) -> {
+			if (key != null) {
+				removeFromTable(key.codePointAndColor, key.sequentialOpId, value);
+
+				// Entries which were evicted, rather than explicitly removed, are kept until their memory is needed.
+				if (softTier != null && !softTierSuspended && value != null && cause.wasEvicted()) {
+					softTier.put(key, value);
+				}
+			}
+
+			if (removalListener != null) {
+				removalListener.onRemoval(key, value, cause);
+			}
+		});
+
+		if (weigher != null) {
+			typedBuilder = typedBuilder.weigher(weigher);
+		}
+
+		cache = typedBuilder.build();
+	}
+
+	/**
+	 * Retrieves a cached rendering.
+	 *
+	 * @param codePoint A code point.
+	 * @param argb A colour, as a packed ARGB integer.
+	 * @param sequentialOpId ID of the sequential image operation, or {@code 0} if there is none.
+	 * @return The cached rendering, or null if there is none.
+	 */
+	V getIfPresent(final int codePoint, final int argb, final int sequentialOpId) {
+		final long codePointAndColor = GlyphKey.pack(codePoint, argb);
+		final int index = indexOf(codePointAndColor, sequentialOpId);
+
+		final var entry = table[index];
+		final GlyphKey key;
+		V value;
+		if (matches(entry, codePointAndColor, sequentialOpId)) {
+			key = entry.key;
+			value = getFromCache(index, entry);
+			if (value != null) {
+				return value;
+			}
+		} else {
+			key = new GlyphKey(codePointAndColor, sequentialOpId);
+			value = cache.getIfPresent(key);
+		}
+
+		if (value == null && softTier != null) {
+			value = softTier.asMap().remove(key);
+			if (value != null) {
+				cache.put(key, value);
+			}
+		}
+
+		if (value != null) {
+			putInTable(index, key, value);
+		}
+
+		return value;
+	}
+
+	/**
+	 * <p>Retrieves a cached rendering, creating and caching it if there is none.</p>
+	 *
+	 * <p>
+	 *     When several threads request the same missing rendering at once, the loader is only called by one of them,
+	 *     and the others wait for its result, so the rendering is never created more than once.
+	 * </p>
+	 *
+	 * @param codePoint A code point.
+	 * @param argb A colour, as a packed ARGB integer.
+	 * @param sequentialOpId ID of the sequential image operation, or {@code 0} if there is none.
+	 * @param loader Creates the rendering. It may return null, in which case nothing is cached.
+	 * @return The rendering, or null if the loader returned null.
+	 */
+	V get(final int codePoint, final int argb, final int sequentialOpId, final @NonNull Supplier<? extends V> loader) {
+		final long codePointAndColor = GlyphKey.pack(codePoint, argb);
+		final int index = indexOf(codePointAndColor, sequentialOpId);
+
+		final var entry = table[index];
+		final boolean isTableHit = matches(entry, codePointAndColor, sequentialOpId);
+		if (isTableHit) {
+			final var value = getFromCache(index, entry);
+			if (value != null) {
+				return value;
+			}
+		}
+
+		final var key = isTableHit ? entry.key : new GlyphKey(codePointAndColor, sequentialOpId);
+		final var value = cache.get(key, k -> {
+			final var tieredValue = softTier == null ? null : softTier.asMap().remove(k);
+			return tieredValue == null ? loader.get() : tieredValue;
+		});
+		if (value != null) {
+			putInTable(index, key, value);
+		}
+
+		return value;
+	}
+
+	/**
+	 * Removes a rendering from the cache.
+	 *
+	 * @param codePoint A code point.
+	 * @param argb A colour, as a packed ARGB integer.
+	 * @param sequentialOpId ID of the sequential image operation, or {@code 0} if there is none.
+	 */
+	void invalidate(final int codePoint, final int argb, final int sequentialOpId) {
+		final long codePointAndColor = GlyphKey.pack(codePoint, argb);
+		final int index = indexOf(codePointAndColor, sequentialOpId);
+
+		// The table is cleared immediately, as the removal listener may run asynchronously.
+		if (matches(table[index], codePointAndColor, sequentialOpId)) {
+			table[index] = null;
+		}
+
+		final var key = new GlyphKey(codePointAndColor, sequentialOpId);
+		cache.invalidate(key);
+		if (softTier != null) {
+			softTier.invalidate(key);
+		}
+	}
+
+	/**
+	 * Adds a rendering to the cache.
+	 *
+	 * @param codePoint A code point.
+	 * @param argb A colour, as a packed ARGB integer.
+	 * @param sequentialOpId ID of the sequential image operation, or {@code 0} if there is none.
+	 * @param value The rendering.
+	 */
+	void put(final int codePoint, final int argb, final int sequentialOpId, final @NonNull V value) {
+		final var key = new GlyphKey(GlyphKey.pack(codePoint, argb), sequentialOpId);
+		cache.put(key, value);
+		putInTable(indexOf(key.codePointAndColor, sequentialOpId), key, value);
+	}
+
+	/** Removes every entry from the cache. */
+	void invalidateAll() {
+		Arrays.fill(table, null);
+		cache.invalidateAll();
+		if (softTier != null) {
+			softTier.invalidateAll();
+		}
+	}
+
+	/**
+	 * <p>Sets the maximum weight of the cache to a fraction of its configured maximum weight, evicting entries if the
+	 * cache is now over its maximum weight.</p>
+	 *
+	 * <p>
+	 *     While the fraction is below 1, evicted entries are discarded rather than moved to the secondary tier, as
+	 *     the cache is only shrunk to free memory. This has no effect if the cache isn't bounded by weight.
+	 * </p>
+	 *
+	 * @param fraction The fraction, between 0 and 1.
+	 * @return The new maximum weight, or {@code -1} if the cache isn't bounded by weight.
+	 */
+	long scaleMaximumWeight(final double fraction) {
+		if (fraction < 0 || fraction > 1) {
+			throw new IllegalArgumentException("The fraction must be >= 0 and <= 1.");
+		}
+
+		if (maximumWeight < 0) {
+			return -1;
+		}
+
+		softTierSuspended = fraction < 1;
+
+		final long weight = (long) (maximumWeight * fraction);
+		cache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(weight));
+		return weight;
+	}
+
+	/**
+	 * Removes every entry from the soft-reference secondary tier, if there is one.
+	 *
+	 * @return Whether there is a secondary tier.
+	 */
+	boolean clearSoftTier() {
+		if (softTier == null) {
+			return false;
+		}
+
+		softTier.invalidateAll();
+		return true;
+	}
+
+	/**
+	 * Retrieves the total weight of the entries in the cache.
+	 *
+	 * @return The weight, in bytes, or {@code -1} if the cache isn't bounded by weight.
+	 */
+	long weightedSize() {
+		return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(-1)).orElse(-1L);
+	}
+
+	/**
+	 * Retrieves a snapshot of the cache's statistics. As each hit on the direct-mapped table is also looked up in the
+	 * cache, these include the hits which were served by the table.
+	 *
+	 * @return The statistics, or empty statistics if the cache doesn't record them.
+	 */
+	CacheStats stats() {
+		return cache.stats();
+	}
+
+	/**
+	 * Retrieves the underlying Caffeine cache.
+	 *
+	 * @return The underlying cache.
+	 */
+	Cache<GlyphKey, V> asCache() {
+		return cache;
+	}
+
+	/**
+	 * Determines whether an entry of the {@link #table} has a key.
+	 *
+	 * @param entry The entry, or null.
+	 * @param codePointAndColor A value returned by {@link GlyphKey#pack(int, int)}.
+	 * @param sequentialOpId ID of the sequential image operation, or {@code 0} if there is none.
+	 * @return Whether the entry has the key.
+	 */
+	private static boolean matches(final Entry<?> entry, final long codePointAndColor, final int sequentialOpId) {
+		return entry != null && entry.key.codePointAndColor == codePointAndColor && entry.key.sequentialOpId == sequentialOpId;
+	}
+
+	/**
+	 * <p>Looks up the key of an entry of the {@link #table} in the {@link #cache}, which records the access without
+	 * allocating a new key.</p>
+	 *
+	 * <p>
+	 *     If the cache no longer holds the key, then the entry is removed from the table. If the cache holds a different
+	 *     value, then the entry is replaced, so that the table doesn't keep the old value reachable.
+	 * </p>
+	 *
+	 * @param index The index of the entry.
+	 * @param entry The entry.
+	 * @return The cached value, or null if the cache no longer holds the key.
+	 */
+	private V getFromCache(final int index, final Entry<V> entry) {
+		final var value = cache.getIfPresent(entry.key);
+		if (value != entry.value && table[index] == entry) {
+			table[index] = value == null ? null : new Entry<>(entry.key, value);
+		}
+
+		return value;
+	}
+
+	/**
+	 * <p>Adds an entry to the {@link #table}.</p>
+	 *
+	 * <p>
+	 *     The entry may have been removed from the {@link #cache} before it was added to the table, in which case the
+	 *     removal listener has already tried to remove it from the table. So, the cache is checked again after the
+	 *     entry is added, without recording an access, and the entry is removed if the cache no longer holds it.
+	 * </p>
+	 *
+	 * @param index The index of the entry.
+	 * @param key The key of the entry.
+	 * @param value The value of the entry.
+	 */
+	private void putInTable(final int index, final GlyphKey key, final V value) {
+		final var entry = new Entry<>(key, value);
+		table[index] = entry;
+
+		if (cache.policy().getIfPresentQuietly(key) != value && table[index] == entry) {
+			table[index] = null;
+		}
+	}
+
+	/**
+	 * Removes an entry from the {@link #table}, if the table still holds that entry.
+	 *
+	 * @param codePointAndColor A value returned by {@link GlyphKey#pack(int, int)}.
+	 * @param sequentialOpId ID of the sequential image operation, or {@code 0} if there is none.
+	 * @param value The value of the removed entry.
+	 */
+	private void removeFromTable(final long codePointAndColor, final int sequentialOpId, final V value) {
+		final int index = indexOf(codePointAndColor, sequentialOpId);
+		final var entry = table[index];
+		if (entry != null && entry.value == value) {
+			table[index] = null;
+		}
+	}
+
+	/**
+	 * Calculates the {@link #table} index of a key.
+	 *
+	 * @param codePointAndColor A value returned by {@link GlyphKey#pack(int, int)}.
+	 * @param sequentialOpId ID of the sequential image operation, or {@code 0} if there is none.
+	 * @return The index.
+	 */
+	private static int indexOf(final long codePointAndColor, final int sequentialOpId) {
+		return (int) (GlyphKey.hash(codePointAndColor, sequentialOpId) >>> (64 - TABLE_BITS));
+	}
+
+	/** An immutable entry of the {@link #table}. */
+	private static final class Entry<V> {
+		/** The key of the entry in the {@link #cache}, which is reused to look up each hit on the table. */
+		private final GlyphKey key;
+		private final V value;
+
+		private Entry(final GlyphKey key, final V value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.valkryst.VTerminal.font;
+
+/**
+ * <p>Identifies a single rendering of a glyph.</p>
+ *
+ * <p>
+ *     Two keys are only equal when their code point, colour, and sequential image operation are all equal, so,
+ *     unlike a hash of those values, two different glyphs can never share a key.
+ * </p>
+ */
+final class GlyphKey {
+	/** The code point, in the upper 32 bits, and the ARGB colour, in the lower 32 bits. */
+	final long codePointAndColor;
+	/** ID of the sequential image operation, or {@code 0} if there is none. */
+	final int sequentialOpId;
+
+	/**
+	 * Constructs a new {@link GlyphKey}.
+	 *
+	 * @param codePointAndColor A value returned by {@link #pack(int, int)}.
+	 * @param sequentialOpId ID of the sequential image operation, or {@code 0} if there is none.
+	 */
+	GlyphKey(final long codePointAndColor, final int sequentialOpId) {
+		this.codePointAndColor = codePointAndColor;
+		this.sequentialOpId = sequentialOpId;
+	}
+
+	/**
+	 * Packs a code point and an ARGB colour into a single {@code long}.
+	 *
+	 * @param codePoint A code point.
+	 * @param argb A colour, as a packed ARGB integer.
+	 * @return The packed value.
+	 */
+	static long pack(final int codePoint, final int argb) {
+		return ((long) codePoint << 32) | (argb & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Calculates a well-distributed hash of a key's values, without constructing the key.
+	 *
+	 * @param codePointAndColor A value returned by {@link #pack(int, int)}.
+	 * @param sequentialOpId ID of the sequential image operation, or {@code 0} if there is none.
+	 * @return The hash.
+	 */
+	static long hash(final long codePointAndColor, final int sequentialOpId) {
+		long hash = (codePointAndColor ^ ((long) sequentialOpId << 21)) * 0x9E3779B97F4A7C15L;
+		return hash ^ (hash >>> 29);
+	}
+
+	/**
+	 * Retrieves the code point.
+	 *
+	 * @return The code point.
+	 */
+	int getCodePoint() {
+		return (int) (codePointAndColor >>> 32);
+	}
+
+	/**
+	 * Retrieves the colour.
+	 *
+	 * @return The colour, as a packed ARGB integer.
+	 */
+	int getColor() {
+		return (int) codePointAndColor;
+	}
+
+	@Override
+	public boolean equals(final Object object) {
+		if (this == object) {
+			return true;
+		}
+
+		if (!(object instanceof GlyphKey)) {
+			return false;
+		}
+
+		final var other = (GlyphKey) object;
+		return codePointAndColor == other.codePointAndColor && sequentialOpId == other.sequentialOpId;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(hash(codePointAndColor, sequentialOpId));
+	}
+}
@@ -0,0 +1,115 @@
+package com.valkryst.VTerminal.font;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * <p>A colour-independent rendering of a glyph, which stores only the alpha (coverage) of each pixel.</p>
+ *
+ * <p>
+ *     A mask is rendered once per code point and can then be tinted with any colour when it is drawn, so a glyph
+ *     doesn't need to be rendered and cached once for every colour that it's displayed in.
+ * </p>
+ */
+public final class GlyphMask {
+	/** Width of the mask, in pixels. */
+	@Getter private final int width;
+	/** Height of the mask, in pixels. */
+	@Getter private final int height;
+	/** Alpha of each pixel, stored in row-major order. */
+	private final byte[] alpha;
+
+	/**
+	 * Constructs a new {@link GlyphMask} from the alpha channel of an image.
+	 *
+	 * @param image An image of a glyph.
+	 */
+	GlyphMask(final @NonNull BufferedImage image) {
+		width = image.getWidth();
+		height = image.getHeight();
+		alpha = new byte[width * height];
+
+		final var alphaRaster = image.getAlphaRaster();
+		if (alphaRaster == null) {
+			throw new IllegalArgumentException("The image must have an alpha channel.");
+		}
+
+		final int[] row = new int[width];
+		for (int y = 0 ; y < height ; y++) {
+			alphaRaster.getSamples(0, y, width, 1, 0, row);
+
+			for (int x = 0 ; x < width ; x++) {
+				alpha[y * width + x] = (byte) row[x];
+			}
+		}
+	}
+
+	/**
+	 * Constructs a new {@link GlyphMask} from the alpha of each of its pixels.
+	 *
+	 * @param width Width of the mask, in pixels.
+	 * @param height Height of the mask, in pixels.
+	 * @param alpha Alpha of each pixel, stored in row-major order. The array is used directly, rather than copied.
+	 */
+	GlyphMask(final int width, final int height, final byte @NonNull [] alpha) {
+		if (width < 1 || height < 1) {
+			throw new IllegalArgumentException("The width and height must be >= 1.");
+		}
+
+		if (alpha.length != width * height) {
+			throw new IllegalArgumentException("The alpha array must contain width * height values.");
+		}
+
+		this.width = width;
+		this.height = height;
+		this.alpha = alpha;
+	}
+
+	/**
+	 * Retrieves the alpha of each pixel, stored in row-major order. The array must not be modified.
+	 *
+	 * @return The alpha of each pixel.
+	 */
+	byte[] getAlphaValues() {
+		return alpha;
+	}
+
+	/**
+	 * Retrieves the alpha of a pixel.
+	 *
+	 * @param x X-Axis coordinate of the pixel.
+	 * @param y Y-Axis coordinate of the pixel.
+	 * @return The alpha of the pixel, between 0 and 255.
+	 */
+	public int getAlpha(final int x, final int y) {
+		return alpha[y * width + x] & 0xFF;
+	}
+
+	/**
+	 * Writes a tinted copy of this mask into an array of non-premultiplied ARGB pixels, such as the data buffer of
+	 * a {@link BufferedImage#TYPE_INT_ARGB} image.
+	 *
+	 * The alpha of each written pixel is the alpha of the mask multiplied by the alpha of the colour.
+	 *
+	 * @param argb A colour to tint the mask with, as a packed ARGB integer.
+	 * @param destination An array of ARGB pixels.
+	 * @param offset Index of the pixel, within the array, at which to write the top-left pixel of the mask.
+	 * @param scanlineStride Number of pixels between the start of each row within the array.
+	 */
+	public void tint(final int argb, final int @NonNull [] destination, final int offset, final int scanlineStride) {
+		final int colorAlpha = argb >>> 24;
+		final int rgb = argb & 0xFFFFFF;
+
+		for (int y = 0 ; y < height ; y++) {
+			int sourceIndex = y * width;
+			int destinationIndex = offset + y * scanlineStride;
+
+			for (int x = 0 ; x < width ; x++) {
+				final int pixelAlpha = ((alpha[sourceIndex++] & 0xFF) * colorAlpha + 127) / 255;
+				destination[destinationIndex++] = (pixelAlpha << 24) | rgb;
+			}
+		}
+	}
+}
@@ -0,0 +1,155 @@
+package com.valkryst.VTerminal.font;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>Reads and writes files of glyph masks, so that masks which were rendered by one run of a program can be reused
+ * by later runs, rather than rendered again.</p>
+ *
+ * <p>
+ *     Each file begins with a key, which identifies everything that affects the rendering of its masks, such as the
+ *     font, point size, and rendering hints. A file whose key doesn't match the expected key is ignored, so that a
+ *     file is invalidated whenever any of those inputs change.
+ * </p>
+ *
+ * <p>
+ *     The file is a header of a magic number, format version, key length, key, and mask count, followed by the
+ *     code point, width, height, and alpha values of each mask. All integers are big-endian.
+ * </p>
+ */
+final class GlyphMaskFile {
+	/** The magic number at the start of every file, which is "VTGM" in ASCII. */
+	private static final int MAGIC = 0x5654474D;
+
+	/** Version of the file format. This must be incremented whenever the format, or the rendering of masks, changes. */
+	static final int VERSION = 1;
+
+	/** Private constructor, to prevent instantiation of this class. */
+	private GlyphMaskFile() {}
+
+	/**
+	 * Reads the masks from a file.
+	 *
+	 * @param path Path of the file.
+	 * @param key The expected key.
+	 * @return The masks, by code point. This is empty if the file doesn't exist, if its key doesn't match the expected
+	 *         key, or if it isn't a valid file.
+	 * @throws IOException If an I/O error occurs while reading the file.
+	 */
+	static Map<Integer, GlyphMask> read(final @NonNull Path path, final byte @NonNull [] key) throws IOException {
+		if (!Files.isRegularFile(path)) {
+			return Map.of();
+		}
+
+		try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+				return Map.of();
+			}
+
+			final var fileKey = new byte[buffer.getInt()];
+			buffer.get(fileKey);
+			if (!Arrays.equals(fileKey, key)) {
+				return Map.of();
+			}
+
+			final int count = buffer.getInt();
+			final var masks = new HashMap<Integer, GlyphMask>(count * 2);
+			for (int i = 0 ; i < count ; i++) {
+				final int codePoint = buffer.getInt();
+				final int width = buffer.getInt();
+				final int height = buffer.getInt();
+
+				if (!Character.isValidCodePoint(codePoint) || width < 1 || height < 1 || (long) width * height > buffer.remaining()) {
+					return Map.of();
+				}
+
+				final var alpha = new byte[width * height];
+				buffer.get(alpha);
+				masks.put(codePoint, new GlyphMask(width, height, alpha));
+			}
+
+			return masks;
+		} catch (final BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+			// The file has been truncated or corrupted.
+			return Map.of();
+		}
+	}
+
+	/**
+	 * <p>Writes masks to a file, replacing the file if it exists.</p>
+	 *
+	 * <p>
+	 *     The masks are written to a temporary file, which is then moved over the file, so that a reader never sees
+	 *     a partially written file.
+	 * </p>
+	 *
+	 * @param path Path of the file.
+	 * @param key The key.
+	 * @param masks The masks, by code point.
+	 * @throws IOException If an I/O error occurs while writing the file.
+	 */
+	static void write(final @NonNull Path path, final byte @NonNull [] key, final @NonNull Map<Integer, GlyphMask> masks) throws IOException {
+		long size = 16L + key.length;
+		for (final var mask : masks.values()) {
+			size += 12L + (long) mask.getWidth() * mask.getHeight();
+		}
+
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("Unable to write " + size + " bytes of masks to a single file.");
+		}
+
+		final var buffer = ByteBuffer.allocate((int) size);
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+		buffer.putInt(key.length);
+		buffer.put(key);
+		buffer.putInt(masks.size());
+
+		for (final var entry : masks.entrySet()) {
+			final var mask = entry.getValue();
+			buffer.putInt(entry.getKey());
+			buffer.putInt(mask.getWidth());
+			buffer.putInt(mask.getHeight());
+			buffer.put(mask.getAlphaValues());
+		}
+
+		buffer.flip();
+
+		final var directory = path.toAbsolutePath().getParent();
+		if (directory != null) {
+			Files.createDirectories(directory);
+		}
+
+		final var temporaryFile = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+		try {
+			try (final var channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+			}
+
+			try {
+				Files.move(temporaryFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (final AtomicMoveNotSupportedException e) {
+				Files.move(temporaryFile, path, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temporaryFile);
+		}
+	}
+}
@@ -0,0 +1,235 @@
+package com.valkryst.VTerminal.font;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>A record of how often each glyph is generated by a {@link VFont}, which can be saved at the end of one run
+ * of a program and used to pre-populate the glyph caches, in order of priority, at the start of the next.</p>
+ *
+ * <p>
+ *     A profile records glyphs while it's set as the usage profile of a font, with
+ *     {@link VFont#setUsageProfile(GlyphUsageProfile)}. Masks are recorded by code point, and images and atlas
+ *     regions are recorded by code point and colour. Glyphs with a sequential image operation aren't recorded, as
+ *     operations only exist for the duration of a run.
+ * </p>
+ *
+ * <p>
+ *     Only generations are recorded, rather than every request, so a glyph is recorded once when it's first
+ *     displayed and again each time it's generated after being evicted. A glyph which is served from a cache isn't
+ *     recorded, so recording doesn't slow down the painting of cached glyphs.
+ * </p>
+ *
+ * <p>
+ *     The profile is saved as a UTF-8 text file, with a line for each glyph. Mask lines are {@code M,codePoint,count}
+ *     and glyph lines are {@code G,codePoint,argb,count}, where the colour is hexadecimal. Empty lines, and lines
+ *     beginning with {@code #}, are ignored.
+ * </p>
+ */
+public final class GlyphUsageProfile {
+	/** The first line of every profile file. */
+	private static final String HEADER = "# VTerminal glyph usage profile";
+
+	/** The number of times that each mask has been generated, by code point. */
+	private final Map<Integer, Counter> maskCounts = new ConcurrentHashMap<>();
+	/** The number of times that each glyph has been generated, by code point and colour. */
+	private final Map<Long, Counter> glyphCounts = new ConcurrentHashMap<>();
+
+	/** The order of the next glyph, or mask, to be recorded for the first time. */
+	private final AtomicLong nextOrder = new AtomicLong();
+
+	/**
+	 * Records a generation of the mask of a code point.
+	 *
+	 * @param codePoint A code point.
+	 */
+	public void recordMask(final int codePoint) {
+		recordMask(codePoint, 1);
+	}
+
+	/**
+	 * Records a generation of an image, or atlas region, of a code point.
+	 *
+	 * @param codePoint A code point.
+	 * @param argb Colour of the glyph, as a packed ARGB integer.
+	 */
+	public void recordGlyph(final int codePoint, final int argb) {
+		recordGlyph(codePoint, argb, 1);
+	}
+
+	/**
+	 * Retrieves every recorded glyph, in descending order of the number of times that it was generated. Glyphs which
+	 * were generated the same number of times are in the order in which they were first recorded, so the glyphs of
+	 * the first screen that was displayed come first.
+	 *
+	 * @return The glyphs.
+	 */
+	public List<Entry> getEntries() {
+		final var entries = new ArrayList<Entry>(maskCounts.size() + glyphCounts.size());
+		maskCounts.forEach((codePoint, counter) -> entries.add(new Entry(codePoint, 0, true, counter.count.sum(), counter.order)));
+		glyphCounts.forEach((key, counter) -> {
+			entries.add(new Entry((int) (key >>> 32), (int) (long) key, false, counter.count.sum(), counter.order));
+		});
+
+		entries.sort(Comparator.comparingLong(Entry::getCount).reversed().thenComparingLong(entry -> entry.order));
+		return entries;
+	}
+
+	/** Removes every recorded glyph. */
+	public void clear() {
+		maskCounts.clear();
+		glyphCounts.clear();
+	}
+
+	/**
+	 * Saves the profile to a file, replacing the file if it exists.
+	 *
+	 * @param path Path of the file.
+	 * @throws IOException If an I/O error occurs while writing the file.
+	 */
+	public void save(final @NonNull Path path) throws IOException {
+		final var lines = new ArrayList<String>();
+		lines.add(HEADER);
+
+		for (final var entry : getEntries()) {
+			if (entry.isMask()) {
+				lines.add("M," + entry.getCodePoint() + "," + entry.getCount());
+			} else {
+				lines.add("G," + entry.getCodePoint() + "," + Integer.toHexString(entry.getArgb()) + "," + entry.getCount());
+			}
+		}
+
+		Files.write(path, lines, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Loads a profile from a file which was written by {@link #save(Path)}.
+	 *
+	 * @param path Path of the file.
+	 * @return The profile.
+	 * @throws IOException If an I/O error occurs while reading the file, or if the file contains an invalid line.
+	 */
+	public static GlyphUsageProfile load(final @NonNull Path path) throws IOException {
+		final var profile = new GlyphUsageProfile();
+		final var lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+
+		for (int i = 0 ; i < lines.size() ; i++) {
+			final var line = lines.get(i).trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+
+			try {
+				final var fields = line.split(",");
+				if (fields[0].equals("M") && fields.length == 3) {
+					profile.recordMask(parseCodePoint(fields[1]), Long.parseLong(fields[2]));
+				} else if (fields[0].equals("G") && fields.length == 4) {
+					profile.recordGlyph(parseCodePoint(fields[1]), Integer.parseUnsignedInt(fields[2], 16), Long.parseLong(fields[3]));
+				} else {
+					throw new IllegalArgumentException("Unknown record.");
+				}
+			} catch (final IllegalArgumentException e) {
+				throw new IOException("Line " + (i + 1) + " of the profile is invalid: " + line, e);
+			}
+		}
+
+		return profile;
+	}
+
+	/**
+	 * Records a number of generations of the mask of a code point.
+	 *
+	 * @param codePoint A code point.
+	 * @param count Number of generations.
+	 */
+	private void recordMask(final int codePoint, final long count) {
+		maskCounts.computeIfAbsent(codePoint, key -> new Counter(nextOrder.getAndIncrement())).count.add(count);
+	}
+
+	/**
+	 * Records a number of generations of an image, or atlas region, of a code point.
+	 *
+	 * @param codePoint A code point.
+	 * @param argb Colour of the glyph, as a packed ARGB integer.
+	 * @param count Number of generations.
+	 */
+	private void recordGlyph(final int codePoint, final int argb, final long count) {
+		glyphCounts.computeIfAbsent(GlyphKey.pack(codePoint, argb), key -> new Counter(nextOrder.getAndIncrement())).count.add(count);
+	}
+
+	/**
+	 * Parses a code point.
+	 *
+	 * @param text The text to parse.
+	 * @return The code point.
+	 * @throws IllegalArgumentException If the text isn't a valid code point.
+	 */
+	private static int parseCodePoint(final String text) {
+		final int codePoint = Integer.parseInt(text);
+		if (!Character.isValidCodePoint(codePoint)) {
+			throw new IllegalArgumentException(codePoint + " is not a valid code point.");
+		}
+
+		return codePoint;
+	}
+
+	/** The number of times that a glyph has been generated, and the order in which it was first recorded. */
+	private static final class Counter {
+		/** The order in which the glyph was first recorded. */
+		private final long order;
+		/** Number of times that the glyph was generated. */
+		private final LongAdder count = new LongAdder();
+
+		/**
+		 * Constructs a new {@link Counter}.
+		 *
+		 * @param order The order in which the glyph was first recorded.
+		 */
+		private Counter(final long order) {
+			this.order = order;
+		}
+	}
+
+	/** A glyph which was recorded by a {@link GlyphUsageProfile}. */
+	public static final class Entry {
+		/** The code point of the glyph. */
+		@Getter private final int codePoint;
+		/** Colour of the glyph, as a packed ARGB integer, or {@code 0} if the glyph is a mask. */
+		@Getter private final int argb;
+		/** Whether the glyph is a mask. */
+		@Getter private final boolean mask;
+		/** Number of times that the glyph was generated. */
+		@Getter private final long count;
+		/** The order in which the glyph was first recorded. */
+		private final long order;
+
+		/**
+		 * Constructs a new {@link Entry}.
+		 *
+		 * @param codePoint The code point of the glyph.
+		 * @param argb Colour of the glyph, as a packed ARGB integer, or {@code 0} if the glyph is a mask.
+		 * @param mask Whether the glyph is a mask.
+		 * @param count Number of times that the glyph was generated.
+		 * @param order The order in which the glyph was first recorded.
+		 */
+		private Entry(final int codePoint, final int argb, final boolean mask, final long count, final long order) {
+			this.codePoint = codePoint;
+			this.argb = argb;
+			this.mask = mask;
+			this.count = count;
+			this.order = order;
+		}
+	}
+}
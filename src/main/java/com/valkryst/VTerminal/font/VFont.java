@@ -1,45 +1,141 @@
 package com.valkryst.VTerminal.font;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.valkryst.VTerminal.image.CacheConfiguration;
+import com.valkryst.VTerminal.image.MemoryPressureMonitor;
+import com.valkryst.VTerminal.metrics.GlyphRenderEvent;
 import com.valkryst.VTerminal.image.SequentialOp;
 import com.valkryst.VTerminal.plaf.VTerminalLookAndFeel;
 import lombok.Getter;
 import lombok.NonNull;
+import lombok.Setter;
 
 import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.awt.image.AffineTransformOp;
 import java.awt.image.BufferedImage;
 import java.awt.image.VolatileImage;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Objects;
-import java.util.concurrent.TimeUnit;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+public class VFont implements MemoryPressureMonitor.Target {
+	/** Number of items generated by each task of {@link #prewarm}. */
+	private static final int PREWARM_BATCH_SIZE = 32;
 
-public class VFont {
 	@Getter private final Font font;
-	private final Cache<Integer, Image> imageCache;
+	/** Point size of the {@link #font}. */
+	private final int pointSize;
+	/** A SHA-256 digest of the font file. */
+	private final byte[] fontDigest;
+	/** The default policy of the image cache, which holds up to 32 MiB of images. */
+	public static final CacheConfiguration DEFAULT_IMAGE_CACHE_CONFIGURATION = CacheConfiguration.builder().maximumWeight(32L << 20).build();
+	/** The default policy of the mask cache, which holds up to 4 MiB of masks. */
+	public static final CacheConfiguration DEFAULT_MASK_CACHE_CONFIGURATION = CacheConfiguration.builder().maximumWeight(4L << 20).build();
+
+	/**
+	 * The policy of the image cache. Defaults to {@link #DEFAULT_IMAGE_CACHE_CONFIGURATION}, overridden by any
+	 * {@code vterminal.cache.image.*} system properties.
+	 */
+	@Getter private volatile CacheConfiguration imageCacheConfiguration;
+	private volatile GlyphCache<Image> imageCache;
+
+	/**
+	 * The policy of the mask cache. Defaults to {@link #DEFAULT_MASK_CACHE_CONFIGURATION}, overridden by any
+	 * {@code vterminal.cache.mask.*} system properties.
+	 */
+	@Getter private volatile CacheConfiguration maskCacheConfiguration;
+	private volatile GlyphCache<GlyphMask> maskCache;
+
+	/**
+	 * Whether components should draw glyphs by tinting the colour-independent masks returned by
+	 * {@link #generateMask(int)}, rather than by drawing the images returned by
+	 * {@link #generateImage(int, Color, SequentialOp)}.
+	 *
+	 * When enabled, each glyph is rendered and cached once, rather than once per colour.
+	 */
+	@Getter @Setter private volatile boolean maskModeEnabled = false;
+
+	private final GlyphAtlas atlas;
+
+	/**
+	 * Whether components should draw glyphs from the shared atlas pages returned by
+	 * {@link #generateAtlasRegion(int, Color, SequentialOp)}, rather than from the individual images returned by
+	 * {@link #generateImage(int, Color, SequentialOp)}.
+	 */
+	@Getter @Setter private volatile boolean atlasModeEnabled = false;
+
+	/**
+	 * <p>The executor on which glyphs are generated when they're requested asynchronously, or null if they're always
+	 * generated synchronously.</p>
+	 *
+	 * <p>
+	 *     When set, components don't wait for uncached glyphs to be generated. Each uncached glyph is requested from
+	 *     this executor, the tile is drawn without its glyph, and the tile is redrawn once the glyph is ready.
+	 * </p>
+	 */
+	@Getter @Setter private volatile Executor glyphExecutor;
+
+	/**
+	 * A profile in which every glyph generated by this font is recorded, or null if generations aren't recorded.
+	 * Glyphs generated by {@link #prewarm} aren't recorded.
+	 */
+	@Getter @Setter private volatile GlyphUsageProfile usageProfile;
+
+	/** The asynchronous generations of images which have been requested, but which haven't completed. */
+	private final Map<GlyphKey, CompletableFuture<Void>> pendingImages = new ConcurrentHashMap<>();
+	/** The asynchronous generations of atlas regions which have been requested, but which haven't completed. */
+	private final Map<GlyphKey, CompletableFuture<Void>> pendingAtlasRegions = new ConcurrentHashMap<>();
+	/** The asynchronous generations of masks which have been requested, but which haven't completed. */
+	private final Map<GlyphKey, CompletableFuture<Void>> pendingMasks = new ConcurrentHashMap<>();
 
 	@Getter private final int maxTileWidth;
 	@Getter private final int maxTileHeight;
 	private final int fontAscent;
 
+	/** The number of glyphs which have been rendered, whether as images, atlas regions, or masks. */
+	private final LongAdder renderedGlyphs = new LongAdder();
+
+	/** Metrics of the font, which are created once and shared by every thread that renders a glyph. */
+	private final FontMetrics fontMetrics;
+
 	public VFont(final @NonNull InputStream inputStream, final int pointSize) throws IOException, FontFormatException {
-		font = Font.createFont(Font.TRUETYPE_FONT, inputStream)
+		final var fontBytes = inputStream.readAllBytes();
+		font = Font.createFont(Font.TRUETYPE_FONT, new ByteArrayInputStream(fontBytes))
 				   .deriveFont(Font.PLAIN, pointSize);
+		this.pointSize = pointSize;
+		fontDigest = createDigest().digest(fontBytes);
+
+		imageCacheConfiguration = DEFAULT_IMAGE_CACHE_CONFIGURATION.withSystemProperties("vterminal.cache.image");
+		imageCache = createImageCache(imageCacheConfiguration);
 
-		imageCache = Caffeine.newBuilder()
-							 .initialCapacity(24)
-							 .maximumSize(50_000)
-							 .expireAfterAccess(5, TimeUnit.MINUTES)
-							 .build();
+		maskCacheConfiguration = DEFAULT_MASK_CACHE_CONFIGURATION.withSystemProperties("vterminal.cache.mask");
+		maskCache = createMaskCache(maskCacheConfiguration);
 
-		final var fontMetrics = getFontMetrics();
+		fontMetrics = createFontMetrics();
 		maxTileWidth = fontMetrics.charWidth('A');
 		maxTileHeight = fontMetrics.getHeight();
 		fontAscent = fontMetrics.getAscent();
 
+		atlas = new GlyphAtlas(maxTileWidth, maxTileHeight, 32, 32, 16);
+
 		/*
 		 * The user can reconfigure their desktop environment while the program
 		 * is running. This can affect the awt.font.desktophints that are used
@@ -54,61 +150,200 @@ public class VFont {
 			if (event.getPropertyName().equals("awt.font.desktophints")) {
 				if (!event.getOldValue().equals(event.getNewValue())) {
 					imageCache.invalidateAll();
+					maskCache.invalidateAll();
+					atlas.invalidateAll();
 				}
 			}
 		});
+
+		MemoryPressureMonitor.getInstance().register(this);
 	}
 
-	public Image generateImage(final int codePoint, final @NonNull Color color, final SequentialOp sequentialOp) {
-		if (!Character.isValidCodePoint(codePoint)) {
-			throw new IllegalArgumentException(codePoint + " is not a valid code point.");
-		}
+	/**
+	 * Sets the policy of the image cache. This replaces the cache, so every cached image is discarded.
+	 *
+	 * @param configuration The policy.
+	 */
+	public void setImageCacheConfiguration(final @NonNull CacheConfiguration configuration) {
+		imageCacheConfiguration = configuration;
+		imageCache = createImageCache(configuration);
+		onMemoryPressure(MemoryPressureMonitor.getInstance().getLevel(), action -> {});
+	}
 
-		final var hash = Objects.hash(codePoint, color, sequentialOp);
-		final var cachedImage = imageCache.getIfPresent(hash);
-		if (cachedImage != null) {
-			if (cachedImage instanceof VolatileImage) {
-				if (!((VolatileImage) cachedImage).contentsLost()) {
-					return cachedImage;
-				}
-			} else {
-				return cachedImage;
+	/**
+	 * Sets the policy of the mask cache. This replaces the cache, so every cached mask is discarded.
+	 *
+	 * @param configuration The policy.
+	 */
+	public void setMaskCacheConfiguration(final @NonNull CacheConfiguration configuration) {
+		maskCacheConfiguration = configuration;
+		maskCache = createMaskCache(configuration);
+		onMemoryPressure(MemoryPressureMonitor.getInstance().getLevel(), action -> {});
+	}
+
+	/**
+	 * Retrieves a snapshot of the image cache's statistics.
+	 *
+	 * @return The statistics, or empty statistics if the cache doesn't record them.
+	 */
+	public CacheStats getImageCacheStats() {
+		return imageCache.stats();
+	}
+
+	/**
+	 * Retrieves a snapshot of the mask cache's statistics.
+	 *
+	 * @return The statistics, or empty statistics if the cache doesn't record them.
+	 */
+	public CacheStats getMaskCacheStats() {
+		return maskCache.stats();
+	}
+
+	/**
+	 * Retrieves the total weight of the images in the image cache.
+	 *
+	 * @return The weight, in bytes.
+	 */
+	public long getImageCacheWeight() {
+		return imageCache.weightedSize();
+	}
+
+	/**
+	 * Retrieves the total weight of the masks in the mask cache.
+	 *
+	 * @return The weight, in bytes.
+	 */
+	public long getMaskCacheWeight() {
+		return maskCache.weightedSize();
+	}
+
+	/**
+	 * Retrieves the number of glyphs which have been rendered, whether as images, atlas regions, or masks, since the
+	 * font was created.
+	 *
+	 * @return The number of glyphs.
+	 */
+	public long getRenderedGlyphCount() {
+		return renderedGlyphs.sum();
+	}
+
+	/**
+	 * <p>Adjusts the glyph caches to a level of memory pressure.</p>
+	 *
+	 * <p>
+	 *     At {@link MemoryPressureMonitor.Level#HIGH}, the soft-reference secondary tiers are cleared and the image
+	 *     cache is shrunk to half of its maximum weight. At {@link MemoryPressureMonitor.Level#CRITICAL}, the image
+	 *     cache is shrunk to a tenth of its maximum weight, the mask cache to half of its maximum weight, and the
+	 *     atlas is cleared. Masks are shed last, as they're the smallest and are shared by every colour.
+	 * </p>
+	 *
+	 * @param level The level.
+	 * @param actions Accepts a description of each action taken.
+	 */
+	@Override
+	public void onMemoryPressure(final MemoryPressureMonitor.@NonNull Level level, final @NonNull Consumer<String> actions) {
+		final var name = font.getFontName() + " " + pointSize + "pt";
+		final var imageCache = this.imageCache;
+		final var maskCache = this.maskCache;
+
+		final double imageFraction;
+		final double maskFraction;
+		switch (level) {
+			case HIGH: {
+				imageFraction = 0.5;
+				maskFraction = 1;
+				break;
+			}
+			case CRITICAL: {
+				imageFraction = 0.1;
+				maskFraction = 0.5;
+				break;
+			}
+			default: {
+				imageFraction = 1;
+				maskFraction = 1;
+				break;
 			}
 		}
 
-		if (!font.canDisplay(codePoint) || Character.isWhitespace(codePoint)) {
-			return null;
+		final long imageWeight = imageCache.scaleMaximumWeight(imageFraction);
+		if (imageWeight >= 0) {
+			actions.accept("Set the maximum weight of the " + name + " image cache to " + imageWeight + " bytes.");
 		}
 
-		final var fontMetrics = getFontMetrics();
-		final var charWidth = fontMetrics.charWidth(codePoint);
-		final var imageWidth = Math.max(charWidth, maxTileWidth);
-		var image = new BufferedImage(imageWidth, maxTileHeight, Transparency.TRANSLUCENT);
-
-		final var graphics = image.createGraphics();
-        this.applyRenderingHints(graphics, codePoint);
-		graphics.setFont(font);
+		final long maskWeight = maskCache.scaleMaximumWeight(maskFraction);
+		if (maskWeight >= 0) {
+			actions.accept("Set the maximum weight of the " + name + " mask cache to " + maskWeight + " bytes.");
+		}
 
-		graphics.setColor(new Color(0, 0, 0, 0));
-		graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+		if (level == MemoryPressureMonitor.Level.NORMAL) {
+			return;
+		}
 
-		graphics.setColor(color);
-		graphics.drawString(Character.toString(codePoint), 0, fontAscent);
+		if (imageCache.clearSoftTier()) {
+			actions.accept("Cleared the secondary tier of the " + name + " image cache.");
+		}
 
-		graphics.dispose();
+		if (maskCache.clearSoftTier()) {
+			actions.accept("Cleared the secondary tier of the " + name + " mask cache.");
+		}
 
-		// Allows non-monospaced fonts, but roughly scales them to be monospaced.
-		if (charWidth > maxTileWidth) {
-			final double scaleWidth = maxTileWidth / (double) charWidth;
-			final AffineTransform tx = AffineTransform.getScaleInstance(scaleWidth, 1);
-			final AffineTransformOp op = new AffineTransformOp(tx, AffineTransformOp.TYPE_BICUBIC);
-			image = op.filter(image, null);
+		if (level == MemoryPressureMonitor.Level.CRITICAL) {
+			atlas.invalidateAll();
+			actions.accept("Cleared the " + name + " glyph atlas.");
 		}
+	}
 
-		if (sequentialOp != null) {
-			image = sequentialOp.filter(image, null);
+	/**
+	 * Creates an image cache, in which each image is weighed at four bytes per pixel.
+	 *
+	 * @param configuration The policy of the cache.
+	 * @return The cache.
+	 */
+	private static GlyphCache<Image> createImageCache(final CacheConfiguration configuration) {
+		return new GlyphCache<>(configuration, (key, image) -> CacheConfiguration.weighImage(image));
+	}
+
+	/**
+	 * Creates a mask cache, in which each mask is weighed at one byte per pixel.
+	 *
+	 * @param configuration The policy of the cache.
+	 * @return The cache.
+	 */
+	private static GlyphCache<GlyphMask> createMaskCache(final CacheConfiguration configuration) {
+		return new GlyphCache<>(configuration, (key, mask) -> Math.max(1, mask.getWidth() * mask.getHeight()));
+	}
+
+	public Image generateImage(final int codePoint, final @NonNull Color color, final SequentialOp sequentialOp) {
+		return generateImage(codePoint, color.getRGB(), sequentialOp);
+	}
+
+	/**
+	 * Generates an image of a code point.
+	 *
+	 * @param codePoint A code point.
+	 * @param argb A colour, as a packed ARGB integer.
+	 * @param sequentialOp A sequential image operation, or null.
+	 * @return The image, or null if the code point is whitespace or cannot be displayed by the font.
+	 */
+	public Image generateImage(final int codePoint, final int argb, final SequentialOp sequentialOp) {
+		if (!Character.isValidCodePoint(codePoint)) {
+			throw new IllegalArgumentException(codePoint + " is not a valid code point.");
 		}
 
+		return loadImage(codePoint, argb, sequentialOp, true);
+	}
+
+	/**
+	 * Retrieves an image of a code point from the cache, rendering and caching it if it isn't cached.
+	 *
+	 * @param codePoint A valid code point.
+	 * @param argb A colour, as a packed ARGB integer.
+	 * @param sequentialOp A sequential image operation, or null.
+	 * @param record Whether the image is recorded in the {@link #usageProfile}, if it's rendered.
+	 * @return The image, or null if the code point is whitespace or cannot be displayed by the font.
+	 */
+	private Image loadImage(final int codePoint, final int argb, final SequentialOp sequentialOp, final boolean record) {
 		/*
 		 * We could manually convert the BufferedImage into a VolatileImage
 		 * using GraphicsConfiguration#createCompatibleVolatileImage. This would
@@ -131,8 +366,588 @@ public class VFont {
 		 * advantage.
 		 *
 		 * Source: https://kitfox.com/projects/javaOne2007/javaOne-notes.pdf
+		 *
+		 * ---
+		 *
+		 * The image is rendered by the cache's loader, so that when several
+		 * threads miss on the same glyph at once, it's only rendered once.
+		 */
+		final int sequentialOpId = sequentialOp == null ? 0 : sequentialOp.getId();
+		final var image = imageCache.get(codePoint, argb, sequentialOpId, () -> renderImage(codePoint, argb, sequentialOp, record));
+
+		if (image instanceof VolatileImage && ((VolatileImage) image).contentsLost()) {
+			imageCache.invalidate(codePoint, argb, sequentialOpId);
+			return imageCache.get(codePoint, argb, sequentialOpId, () -> renderImage(codePoint, argb, sequentialOp, record));
+		}
+
+		return image;
+	}
+
+	/**
+	 * <p>Generates an image of a code point and stores it in the glyph atlas.</p>
+	 *
+	 * <p>
+	 *     The returned region identifies the glyph's location on one of the atlas' pages, so many glyphs can be
+	 *     drawn from the same image using
+	 *     {@link Graphics#drawImage(Image, int, int, int, int, int, int, int, int, java.awt.image.ImageObserver)}.
+	 *     New pages are added as the atlas fills, and the least recently used glyphs are evicted once the atlas
+	 *     has reached its maximum number of pages.
+	 * </p>
+	 *
+	 * @param codePoint A code point.
+	 * @param color A colour.
+	 * @param sequentialOp A sequential image operation, or null.
+	 * @return The region of the atlas occupied by the glyph, or null if the code point is whitespace or cannot be
+	 *         displayed by the font.
+	 */
+	public AtlasRegion generateAtlasRegion(final int codePoint, final @NonNull Color color, final SequentialOp sequentialOp) {
+		return generateAtlasRegion(codePoint, color.getRGB(), sequentialOp);
+	}
+
+	/**
+	 * See {@link #generateAtlasRegion(int, Color, SequentialOp)}.
+	 *
+	 * @param codePoint A code point.
+	 * @param argb A colour, as a packed ARGB integer.
+	 * @param sequentialOp A sequential image operation, or null.
+	 * @return The region of the atlas occupied by the glyph, or null if the code point is whitespace or cannot be
+	 *         displayed by the font.
+	 */
+	public AtlasRegion generateAtlasRegion(final int codePoint, final int argb, final SequentialOp sequentialOp) {
+		if (!Character.isValidCodePoint(codePoint)) {
+			throw new IllegalArgumentException(codePoint + " is not a valid code point.");
+		}
+
+		return loadAtlasRegion(codePoint, argb, sequentialOp, true);
+	}
+
+	/**
+	 * Retrieves the atlas region of a code point, rendering the code point and adding it to the atlas if it isn't in
+	 * the atlas.
+	 *
+	 * @param codePoint A valid code point.
+	 * @param argb A colour, as a packed ARGB integer.
+	 * @param sequentialOp A sequential image operation, or null.
+	 * @param record Whether the glyph is recorded in the {@link #usageProfile}, if it's rendered.
+	 * @return The region of the atlas occupied by the glyph, or null if the code point is whitespace or cannot be
+	 *         displayed by the font.
+	 */
+	private AtlasRegion loadAtlasRegion(final int codePoint, final int argb, final SequentialOp sequentialOp, final boolean record) {
+		final int sequentialOpId = sequentialOp == null ? 0 : sequentialOp.getId();
+		final var cachedRegion = atlas.get(codePoint, argb, sequentialOpId);
+		if (cachedRegion != null) {
+			return cachedRegion;
+		}
+
+		// Blank glyphs are never added to the atlas, so there's no need to reserve a slot for them.
+		if (isBlank(codePoint)) {
+			return null;
+		}
+
+		/*
+		 * The atlas ensures that the glyph is only rendered once, even when
+		 * several threads miss at once. The glyph isn't added to the image
+		 * cache, as the atlas holds its only copy.
+		 */
+		return atlas.get(codePoint, argb, sequentialOpId, () -> renderImage(codePoint, argb, sequentialOp, record));
+	}
+
+	/**
+	 * <p>Generates a colour-independent mask of a code point.</p>
+	 *
+	 * <p>
+	 *     Unlike {@link #generateImage(int, Color, SequentialOp)}, the mask is only rendered and cached once per code
+	 *     point. It can then be tinted with any colour, using {@link GlyphMask#tint(int, int[], int, int)}, when it
+	 *     is drawn.
+	 * </p>
+	 *
+	 * @param codePoint A code point.
+	 * @return The mask, or null if the code point is whitespace or cannot be displayed by the font.
+	 */
+	public GlyphMask generateMask(final int codePoint) {
+		if (!Character.isValidCodePoint(codePoint)) {
+			throw new IllegalArgumentException(codePoint + " is not a valid code point.");
+		}
+
+		return loadMask(codePoint, true);
+	}
+
+	/**
+	 * Retrieves a mask of a code point from the cache, rendering and caching it if it isn't cached.
+	 *
+	 * @param codePoint A valid code point.
+	 * @param record Whether the mask is recorded in the {@link #usageProfile}, if it's rendered.
+	 * @return The mask, or null if the code point is whitespace or cannot be displayed by the font.
+	 */
+	private GlyphMask loadMask(final int codePoint, final boolean record) {
+		return maskCache.get(codePoint, 0, 0, () -> {
+			final var event = new GlyphRenderEvent();
+			event.begin();
+
+			final var image = renderGlyph(codePoint, Color.WHITE);
+			final var mask = image == null ? null : new GlyphMask(image);
+
+			event.end();
+			if (mask != null && event.shouldCommit()) {
+				event.setCodePoint(codePoint);
+				event.setMask(true);
+				event.commit();
+			}
+
+			if (mask != null && record) {
+				recordMask(codePoint);
+			}
+
+			return mask;
+		});
+	}
+
+	/**
+	 * <p>Loads the masks from a file which was written by {@link #saveMasks(Path)}, so that they don't need to be
+	 * rendered.</p>
+	 *
+	 * <p>
+	 *     The file is read with a memory-mapped buffer. It's ignored if it was written by a font with a different font
+	 *     file, point size, or rendering hints, or by a different version of the file format.
+	 * </p>
+	 *
+	 * @param path Path of the file.
+	 * @return Number of masks which were loaded. This is {@code 0} if the file doesn't exist, or if it was ignored.
+	 * @throws IOException If an I/O error occurs while reading the file.
+	 */
+	public int loadMasks(final @NonNull Path path) throws IOException {
+		final var masks = GlyphMaskFile.read(path, createMaskFileKey());
+		masks.forEach((codePoint, mask) -> maskCache.put(codePoint, 0, 0, mask));
+		return masks.size();
+	}
+
+	/**
+	 * Saves every cached mask to a file, from which they can be loaded by {@link #loadMasks(Path)}.
+	 *
+	 * @param path Path of the file. The file is replaced if it exists.
+	 * @throws IOException If an I/O error occurs while writing the file.
+	 */
+	public void saveMasks(final @NonNull Path path) throws IOException {
+		final var masks = new HashMap<Integer, GlyphMask>();
+		maskCache.asCache().asMap().forEach((key, mask) -> masks.put(key.getCodePoint(), mask));
+		GlyphMaskFile.write(path, createMaskFileKey(), masks);
+	}
+
+	/**
+	 * Creates the key of the files written by {@link #saveMasks(Path)}, which is a digest of every input that
+	 * affects the rendering of a mask.
+	 *
+	 * @return The key.
+	 */
+	private byte[] createMaskFileKey() {
+		final var digest = createDigest();
+		digest.update(fontDigest);
+		digest.update(ByteBuffer.allocate(16).putInt(GlyphMaskFile.VERSION).putInt(pointSize).putInt(maxTileWidth).putInt(maxTileHeight).array());
+
+		/*
+		 * The desktop hints are applied to every rendering, and may be changed
+		 * by the user while the program runs. They're sorted, as the order in
+		 * which a map of hints is iterated may differ between runs.
 		 */
-		imageCache.put(hash, image);
+		final var desktopHints = Toolkit.getDefaultToolkit().getDesktopProperty("awt.font.desktophints");
+		if (desktopHints instanceof Map) {
+			final var hints = ((Map<?, ?>) desktopHints).entrySet()
+														.stream()
+														.map(entry -> entry.getKey() + "=" + entry.getValue())
+														.sorted()
+														.collect(Collectors.joining(";"));
+			digest.update(hints.getBytes(StandardCharsets.UTF_8));
+		}
+
+		return digest.digest();
+	}
+
+	/**
+	 * Creates a SHA-256 {@link MessageDigest}.
+	 *
+	 * @return The digest.
+	 */
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (final NoSuchAlgorithmException e) {
+			// Every implementation of the Java platform is required to support SHA-256.
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Retrieves a cached image of a code point, without generating it.
+	 *
+	 * @param codePoint A code point.
+	 * @param argb A colour, as a packed ARGB integer.
+	 * @param sequentialOp A sequential image operation, or null.
+	 * @return The image, or null if it isn't cached.
+	 */
+	public Image getCachedImage(final int codePoint, final int argb, final SequentialOp sequentialOp) {
+		final var image = imageCache.getIfPresent(codePoint, argb, sequentialOp == null ? 0 : sequentialOp.getId());
+		if (image instanceof VolatileImage && ((VolatileImage) image).contentsLost()) {
+			return null;
+		}
+
+		return image;
+	}
+
+	/**
+	 * Retrieves the cached atlas region of a code point, without generating it.
+	 *
+	 * @param codePoint A code point.
+	 * @param argb A colour, as a packed ARGB integer.
+	 * @param sequentialOp A sequential image operation, or null.
+	 * @return The region, or null if it isn't cached.
+	 */
+	public AtlasRegion getCachedAtlasRegion(final int codePoint, final int argb, final SequentialOp sequentialOp) {
+		return atlas.get(codePoint, argb, sequentialOp == null ? 0 : sequentialOp.getId());
+	}
+
+	/**
+	 * Retrieves a cached mask of a code point, without generating it.
+	 *
+	 * @param codePoint A code point.
+	 * @return The mask, or null if it isn't cached.
+	 */
+	public GlyphMask getCachedMask(final int codePoint) {
+		return maskCache.getIfPresent(codePoint, 0, 0);
+	}
+
+	/**
+	 * Requests that an image of a code point be generated on the {@link #glyphExecutor}.
+	 *
+	 * @see #generateImage(int, int, SequentialOp)
+	 * @see #request(Map, GlyphKey, Runnable, Runnable)
+	 *
+	 * @param codePoint A code point.
+	 * @param argb A colour, as a packed ARGB integer.
+	 * @param sequentialOp A sequential image operation, or null.
+	 * @param onGenerated Run once the image has been generated and cached.
+	 */
+	public void requestImage(final int codePoint, final int argb, final SequentialOp sequentialOp, final @NonNull Runnable onGenerated) {
+		if (isBlank(codePoint)) {
+			return;
+		}
+
+		final var key = new GlyphKey(GlyphKey.pack(codePoint, argb), sequentialOp == null ? 0 : sequentialOp.getId());
+		request(pendingImages, key, () -> loadImage(codePoint, argb, sequentialOp, true), onGenerated);
+	}
+
+	/**
+	 * Requests that the atlas region of a code point be generated on the {@link #glyphExecutor}.
+	 *
+	 * @see #generateAtlasRegion(int, int, SequentialOp)
+	 * @see #request(Map, GlyphKey, Runnable, Runnable)
+	 *
+	 * @param codePoint A code point.
+	 * @param argb A colour, as a packed ARGB integer.
+	 * @param sequentialOp A sequential image operation, or null.
+	 * @param onGenerated Run once the region has been generated and cached.
+	 */
+	public void requestAtlasRegion(final int codePoint, final int argb, final SequentialOp sequentialOp, final @NonNull Runnable onGenerated) {
+		if (isBlank(codePoint)) {
+			return;
+		}
+
+		final var key = new GlyphKey(GlyphKey.pack(codePoint, argb), sequentialOp == null ? 0 : sequentialOp.getId());
+		request(pendingAtlasRegions, key, () -> loadAtlasRegion(codePoint, argb, sequentialOp, true), onGenerated);
+	}
+
+	/**
+	 * Requests that a mask of a code point be generated on the {@link #glyphExecutor}.
+	 *
+	 * @see #generateMask(int)
+	 * @see #request(Map, GlyphKey, Runnable, Runnable)
+	 *
+	 * @param codePoint A code point.
+	 * @param onGenerated Run once the mask has been generated and cached.
+	 */
+	public void requestMask(final int codePoint, final @NonNull Runnable onGenerated) {
+		if (isBlank(codePoint)) {
+			return;
+		}
+
+		request(pendingMasks, new GlyphKey(GlyphKey.pack(codePoint, 0), 0), () -> loadMask(codePoint, true), onGenerated);
+	}
+
+	/**
+	 * <p>Runs a glyph's generator on the {@link #glyphExecutor}, unless the generation of that glyph has already been
+	 * requested and hasn't completed, and then runs a callback.</p>
+	 *
+	 * <p>
+	 *     The callback is run on the thread which generated the glyph, or on the calling thread if the generation
+	 *     had already completed. It isn't run if the generator fails. If there is no executor, or if the executor
+	 *     rejects the generator, then the glyph is generated on the calling thread.
+	 * </p>
+	 *
+	 * @param pending The pending generations of the glyph's type.
+	 * @param key Key of the glyph.
+	 * @param generator Generates and caches the glyph.
+	 * @param onGenerated The callback.
+	 */
+	private void request(final Map<GlyphKey, CompletableFuture<Void>> pending, final GlyphKey key, final Runnable generator, final Runnable onGenerated) {
+		final var future = new CompletableFuture<Void>();
+		final var existingFuture = pending.putIfAbsent(key, future);
+		if (existingFuture != null) {
+			existingFuture.thenRun(onGenerated);
+			return;
+		}
+
+		future.thenRun(onGenerated);
+
+		final Runnable task = () -> {
+			try {
+				generator.run();
+				pending.remove(key, future);
+				future.complete(null);
+			} catch (final Throwable t) {
+				pending.remove(key, future);
+				future.completeExceptionally(t);
+			}
+		};
+
+		final var executor = glyphExecutor;
+		if (executor == null) {
+			task.run();
+			return;
+		}
+
+		try {
+			executor.execute(task);
+		} catch (final RejectedExecutionException e) {
+			task.run();
+		}
+	}
+
+	/**
+	 * <p>Generates and caches the glyphs of every code point within a set of ranges, in parallel, so that they don't
+	 * need to be generated when they're first displayed.</p>
+	 *
+	 * <p>
+	 *     The mask of each code point is always generated, as masks are drawn by the software rasterizer. Unless
+	 *     mask mode is enabled, an image, or an atlas region if atlas mode is enabled, is also generated in each of
+	 *     the colours. Whitespace, and code points which cannot be displayed by the font, are skipped.
+	 * </p>
+	 *
+	 * <p>The returned future can be waited on, or ignored while the glyphs are generated in the background.</p>
+	 *
+	 * @param ranges The ranges of code points.
+	 * @param colors The colours in which to generate each glyph.
+	 * @param executor The executor on which the glyphs are generated.
+	 * @param listener A listener to notify as the glyphs are generated, or null.
+	 * @return A future which completes once every glyph has been generated.
+	 */
+	public CompletableFuture<Void> prewarm(
+		final @NonNull Collection<CodePointRange> ranges, final @NonNull Collection<Color> colors,
+		final @NonNull Executor executor, final PrewarmListener listener
+	) {
+		final int[] codePoints = ranges.stream()
+									   .flatMapToInt(CodePointRange::stream)
+									   .distinct()
+									   .filter(codePoint -> !isBlank(codePoint))
+									   .toArray();
+		final int[] argbs = colors.stream().mapToInt(Color::getRGB).distinct().toArray();
+
+		return prewarm(codePoints.length, i -> {
+			final int codePoint = codePoints[i];
+			loadMask(codePoint, false);
+
+			if (!maskModeEnabled) {
+				for (final int argb : argbs) {
+					if (atlasModeEnabled) {
+						loadAtlasRegion(codePoint, argb, null, false);
+					} else {
+						loadImage(codePoint, argb, null, false);
+					}
+				}
+			}
+		}, executor, listener);
+	}
+
+	/**
+	 * <p>Generates and caches every glyph recorded by a usage profile, in parallel, so that they don't need to be
+	 * generated when they're first displayed.</p>
+	 *
+	 * <p>
+	 *     The glyphs are generated in the order of {@link GlyphUsageProfile#getEntries()}, so the most frequently
+	 *     generated glyphs, and then the glyphs which were first generated earliest, are cached first. Glyphs which were recorded as images are generated as atlas
+	 *     regions if atlas mode is enabled, and masks are generated regardless of mask mode.
+	 * </p>
+	 *
+	 * @param profile The profile.
+	 * @param executor The executor on which the glyphs are generated.
+	 * @param listener A listener to notify as the glyphs are generated, or null.
+	 * @return A future which completes once every glyph has been generated.
+	 */
+	public CompletableFuture<Void> prewarm(final @NonNull GlyphUsageProfile profile, final @NonNull Executor executor, final PrewarmListener listener) {
+		final var entries = profile.getEntries()
+								   .stream()
+								   .filter(entry -> !isBlank(entry.getCodePoint()))
+								   .toArray(GlyphUsageProfile.Entry[]::new);
+
+		return prewarm(entries.length, i -> {
+			final var entry = entries[i];
+			if (entry.isMask()) {
+				loadMask(entry.getCodePoint(), false);
+			} else if (atlasModeEnabled) {
+				loadAtlasRegion(entry.getCodePoint(), entry.getArgb(), null, false);
+			} else {
+				loadImage(entry.getCodePoint(), entry.getArgb(), null, false);
+			}
+		}, executor, listener);
+	}
+
+	/**
+	 * Runs a generator for each of a number of items, in batches of {@link #PREWARM_BATCH_SIZE}, on an executor. The
+	 * batches are submitted in order, so that earlier items are generally generated first.
+	 *
+	 * @param count Number of items.
+	 * @param generator Generates the item at an index.
+	 * @param executor The executor on which the items are generated.
+	 * @param listener A listener to notify after each batch has been generated, or null.
+	 * @return A future which completes once every item has been generated.
+	 */
+	private CompletableFuture<Void> prewarm(final int count, final IntConsumer generator, final Executor executor, final PrewarmListener listener) {
+		final var generatedItems = new AtomicInteger(0);
+		final var tasks = new CompletableFuture<?>[(count + PREWARM_BATCH_SIZE - 1) / PREWARM_BATCH_SIZE];
+
+		for (int task = 0 ; task < tasks.length ; task++) {
+			final int from = task * PREWARM_BATCH_SIZE;
+			final int to = Math.min(count, from + PREWARM_BATCH_SIZE);
+
+			tasks[task] = CompletableFuture.runAsync(() -> {
+				for (int i = from ; i < to ; i++) {
+					generator.accept(i);
+				}
+
+				if (listener != null) {
+					listener.onProgress(generatedItems.addAndGet(to - from), count);
+				}
+			}, executor);
+		}
+
+		return CompletableFuture.allOf(tasks);
+	}
+
+	/**
+	 * Records the generation of an image, or atlas region, of a code point in the {@link #usageProfile}, if there is
+	 * one.
+	 *
+	 * @param codePoint A code point.
+	 * @param argb A colour, as a packed ARGB integer.
+	 * @param sequentialOp A sequential image operation, or null. Glyphs with an operation aren't recorded.
+	 */
+	private void recordGlyph(final int codePoint, final int argb, final SequentialOp sequentialOp) {
+		final var usageProfile = this.usageProfile;
+		if (usageProfile != null && sequentialOp == null) {
+			usageProfile.recordGlyph(codePoint, argb);
+		}
+	}
+
+	/**
+	 * Records the generation of the mask of a code point in the {@link #usageProfile}, if there is one.
+	 *
+	 * @param codePoint A code point.
+	 */
+	private void recordMask(final int codePoint) {
+		final var usageProfile = this.usageProfile;
+		if (usageProfile != null) {
+			usageProfile.recordMask(codePoint);
+		}
+	}
+
+	/**
+	 * Determines whether a code point has no rendering, in which case it's never cached.
+	 *
+	 * @param codePoint A code point.
+	 * @return Whether the code point is whitespace or cannot be displayed by the font.
+	 */
+	private boolean isBlank(final int codePoint) {
+		if (!Character.isValidCodePoint(codePoint)) {
+			throw new IllegalArgumentException(codePoint + " is not a valid code point.");
+		}
+
+		return Character.isWhitespace(codePoint) || !font.canDisplay(codePoint);
+	}
+
+	/**
+	 * Renders a code point, in a given colour, onto a new image and then applies a sequential image operation to
+	 * the image.
+	 *
+	 * @param codePoint A code point.
+	 * @param argb A colour, as a packed ARGB integer.
+	 * @param sequentialOp A sequential image operation, or null.
+	 * @param record Whether the glyph is recorded in the {@link #usageProfile}.
+	 * @return The image, or null if the code point is whitespace or cannot be displayed by the font.
+	 */
+	private BufferedImage renderImage(final int codePoint, final int argb, final SequentialOp sequentialOp, final boolean record) {
+		final var event = new GlyphRenderEvent();
+		event.begin();
+
+		var image = renderGlyph(codePoint, new Color(argb, true));
+		if (image == null) {
+			return null;
+		}
+
+		if (sequentialOp != null) {
+			image = sequentialOp.filter(image, null);
+		}
+
+		event.end();
+		if (event.shouldCommit()) {
+			event.setCodePoint(codePoint);
+			event.setArgb(argb);
+			event.setSequentialOpApplied(sequentialOp != null);
+			event.commit();
+		}
+
+		if (record) {
+			recordGlyph(codePoint, argb, sequentialOp);
+		}
+
+		return image;
+	}
+
+	/**
+	 * Renders a code point, in a given colour, onto a new image.
+	 *
+	 * @param codePoint A code point.
+	 * @param color A colour.
+	 * @return The image, or null if the code point is whitespace or cannot be displayed by the font.
+	 */
+	private BufferedImage renderGlyph(final int codePoint, final @NonNull Color color) {
+		if (isBlank(codePoint)) {
+			return null;
+		}
+
+		renderedGlyphs.increment();
+
+		final var charWidth = fontMetrics.charWidth(codePoint);
+		final var imageWidth = Math.max(charWidth, maxTileWidth);
+		var image = new BufferedImage(imageWidth, maxTileHeight, Transparency.TRANSLUCENT);
+
+		final var graphics = image.createGraphics();
+        this.applyRenderingHints(graphics, codePoint);
+		graphics.setFont(font);
+
+		graphics.setColor(new Color(0, 0, 0, 0));
+		graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+
+		graphics.setColor(color);
+		graphics.drawString(Character.toString(codePoint), 0, fontAscent);
+
+		graphics.dispose();
+
+		// Allows non-monospaced fonts, but roughly scales them to be monospaced.
+		if (charWidth > maxTileWidth) {
+			final double scaleWidth = maxTileWidth / (double) charWidth;
+			final AffineTransform tx = AffineTransform.getScaleInstance(scaleWidth, 1);
+			final AffineTransformOp op = new AffineTransformOp(tx, AffineTransformOp.TYPE_BICUBIC);
+			image = op.filter(image, null);
+		}
+
 		return image;
 	}
 
@@ -152,12 +967,29 @@ public class VFont {
 				(unicodeBlock == Character.UnicodeBlock.GEOMETRIC_SHAPES_EXTENDED);
 	}
 
-	private FontMetrics getFontMetrics() {
+	private FontMetrics createFontMetrics() {
 		final var image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
 		final var graphics = image.createGraphics();
         this.applyRenderingHints(graphics, 0);
 		graphics.setFont(font);
 
-		return graphics.getFontMetrics();
+		final var fontMetrics = graphics.getFontMetrics();
+		graphics.dispose();
+		return fontMetrics;
+	}
+
+	/**
+	 * A listener which is notified as the glyphs requested by {@link #prewarm} are generated. Progress is counted in
+	 * code points when prewarming ranges of code points, and in entries when prewarming a usage profile.
+	 */
+	@FunctionalInterface
+	public interface PrewarmListener {
+		/**
+		 * Called, on the thread which generated them, after each batch of items has been generated.
+		 *
+		 * @param generatedItems Number of items which have been generated so far.
+		 * @param totalItems Total number of items which will be generated.
+		 */
+		void onProgress(final int generatedItems, final int totalItems);
 	}
 }
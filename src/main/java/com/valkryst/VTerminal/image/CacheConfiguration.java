@@ -0,0 +1,301 @@
+package com.valkryst.VTerminal.image;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.awt.*;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * <p>The eviction and expiry policy of an image cache, such as the glyph caches of a
+ * {@link com.valkryst.VTerminal.font.VFont} or the cache of a {@link SequentialOp}.</p>
+ *
+ * <p>
+ *     Caches are bounded by the approximate number of bytes used by their entries, rather than by the number of
+ *     entries, so the memory used by a cache doesn't grow with the size of the font. When the bound is reached, the
+ *     entries which are least likely to be used again are evicted.
+ * </p>
+ *
+ * <p>
+ *     A cache may optionally have a soft-reference secondary tier. Entries which are evicted from the cache are
+ *     moved to the tier, where they're kept until the garbage collector needs their memory, and are moved back to
+ *     the cache if they're requested again before then.
+ * </p>
+ *
+ * <p>
+ *     Each setting can be overridden with a system property, using {@link #withSystemProperties(String)}. For a
+ *     prefix of {@code vterminal.cache.image}, the properties are:
+ * </p>
+ *
+ * <ul>
+ *     <li>{@code vterminal.cache.image.maximumWeight}, a number of bytes with an optional K, M, or G suffix.</li>
+ *     <li>{@code vterminal.cache.image.expireAfterAccess}, an ISO-8601 duration such as {@code PT5M}, or
+ *     {@code none}.</li>
+ *     <li>{@code vterminal.cache.image.softTier}, either {@code true} or {@code false}.</li>
+ *     <li>{@code vterminal.cache.image.recordStats}, either {@code true} or {@code false}.</li>
+ * </ul>
+ */
+public final class CacheConfiguration {
+	/** Maximum total weight of the entries, in bytes. */
+	@Getter private final long maximumWeight;
+	/** Duration after which an entry, which hasn't been accessed, expires, or null if entries don't expire. */
+	@Getter private final Duration expireAfterAccess;
+	/** Whether entries which are evicted from the cache are kept in a soft-reference secondary tier. */
+	@Getter private final boolean softTierEnabled;
+	/** Whether the cache records its hits, misses, loads, and evictions, so that they can be monitored. */
+	@Getter private final boolean statsEnabled;
+
+	/**
+	 * Constructs a new {@link CacheConfiguration}.
+	 *
+	 * @param builder The builder.
+	 */
+	private CacheConfiguration(final Builder builder) {
+		maximumWeight = builder.maximumWeight;
+		expireAfterAccess = builder.expireAfterAccess;
+		softTierEnabled = builder.softTierEnabled;
+		statsEnabled = builder.statsEnabled;
+	}
+
+	/**
+	 * Creates a new {@link Builder}, with the settings of this configuration.
+	 *
+	 * @return The builder.
+	 */
+	public Builder toBuilder() {
+		return new Builder().maximumWeight(maximumWeight)
+							.expireAfterAccess(expireAfterAccess)
+							.softTierEnabled(softTierEnabled)
+							.statsEnabled(statsEnabled);
+	}
+
+	/**
+	 * Creates a new {@link Builder}, with a maximum weight of 16 MiB, an expiry of five minutes, no secondary tier,
+	 * and statistics enabled.
+	 *
+	 * @return The builder.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Creates a copy of this configuration, with any settings which have been set as system properties overridden.
+	 *
+	 * @param prefix Prefix of the system properties, such as {@code vterminal.cache.image}.
+	 * @return The configuration.
+	 * @throws IllegalArgumentException If a property has an invalid value.
+	 */
+	public CacheConfiguration withSystemProperties(final @NonNull String prefix) {
+		final var builder = toBuilder();
+
+		final var maximumWeight = System.getProperty(prefix + ".maximumWeight");
+		if (maximumWeight != null) {
+			builder.maximumWeight(parseBytes(prefix + ".maximumWeight", maximumWeight));
+		}
+
+		final var expireAfterAccess = System.getProperty(prefix + ".expireAfterAccess");
+		if (expireAfterAccess != null) {
+			builder.expireAfterAccess(parseDuration(prefix + ".expireAfterAccess", expireAfterAccess));
+		}
+
+		final var softTier = System.getProperty(prefix + ".softTier");
+		if (softTier != null) {
+			if (!softTier.equalsIgnoreCase("true") && !softTier.equalsIgnoreCase("false")) {
+				throw new IllegalArgumentException("The " + prefix + ".softTier property must be true or false.");
+			}
+
+			builder.softTierEnabled(Boolean.parseBoolean(softTier));
+		}
+
+		final var recordStats = System.getProperty(prefix + ".recordStats");
+		if (recordStats != null) {
+			if (!recordStats.equalsIgnoreCase("true") && !recordStats.equalsIgnoreCase("false")) {
+				throw new IllegalArgumentException("The " + prefix + ".recordStats property must be true or false.");
+			}
+
+			builder.statsEnabled(Boolean.parseBoolean(recordStats));
+		}
+
+		return builder.build();
+	}
+
+	/**
+	 * Creates a Caffeine builder, with this configuration's eviction, expiry, and statistics policies. A weigher,
+	 * which calculates the approximate number of bytes used by each entry, must be set on the builder before the
+	 * cache is built.
+	 *
+	 * @return The builder.
+	 */
+	public Caffeine<Object, Object> newCaffeineBuilder() {
+		final var builder = Caffeine.newBuilder()
+									.initialCapacity(0)
+									.maximumWeight(maximumWeight);
+
+		if (expireAfterAccess != null) {
+			builder.expireAfterAccess(expireAfterAccess);
+		}
+
+		if (statsEnabled) {
+			builder.recordStats();
+		}
+
+		return builder;
+	}
+
+	/**
+	 * Creates the soft-reference secondary tier of a cache.
+	 *
+	 * @param <K> Type of the keys.
+	 * @param <V> Type of the values.
+	 * @return The tier, or null if the tier isn't enabled.
+	 */
+	public <K, V> Cache<K, V> newSoftTier() {
+		return softTierEnabled ? Caffeine.newBuilder().softValues().build() : null;
+	}
+
+	/**
+	 * Calculates the approximate number of bytes used by an image, assuming four bytes per pixel.
+	 *
+	 * @param image An image.
+	 * @return The number of bytes.
+	 */
+	public static int weighImage(final @NonNull Image image) {
+		return (int) Math.min(Integer.MAX_VALUE, Math.max(1L, (long) image.getWidth(null) * image.getHeight(null) * 4));
+	}
+
+	/**
+	 * Parses a number of bytes, with an optional K, M, or G suffix.
+	 *
+	 * @param property Name of the property.
+	 * @param value The value to parse.
+	 * @return The number of bytes.
+	 */
+	private static long parseBytes(final String property, final String value) {
+		final var text = value.trim().toUpperCase(Locale.ROOT);
+		final char suffix = text.isEmpty() ? ' ' : text.charAt(text.length() - 1);
+
+		final long multiplier;
+		switch (suffix) {
+			case 'K': {
+				multiplier = 1L << 10;
+				break;
+			}
+			case 'M': {
+				multiplier = 1L << 20;
+				break;
+			}
+			case 'G': {
+				multiplier = 1L << 30;
+				break;
+			}
+			default: {
+				multiplier = 1;
+				break;
+			}
+		}
+
+		final var number = multiplier == 1 ? text : text.substring(0, text.length() - 1);
+
+		try {
+			return Math.multiplyExact(Long.parseLong(number), multiplier);
+		} catch (final NumberFormatException | ArithmeticException e) {
+			throw new IllegalArgumentException("The " + property + " property must be a number of bytes.", e);
+		}
+	}
+
+	/**
+	 * Parses an ISO-8601 duration, or {@code none}.
+	 *
+	 * @param property Name of the property.
+	 * @param value The value to parse.
+	 * @return The duration, or null if the value is {@code none}.
+	 */
+	private static Duration parseDuration(final String property, final String value) {
+		if (value.trim().equalsIgnoreCase("none")) {
+			return null;
+		}
+
+		try {
+			return Duration.parse(value.trim());
+		} catch (final DateTimeParseException e) {
+			throw new IllegalArgumentException("The " + property + " property must be an ISO-8601 duration or none.", e);
+		}
+	}
+
+	/** A builder for a {@link CacheConfiguration}. */
+	public static final class Builder {
+		private long maximumWeight = 16L << 20;
+		private Duration expireAfterAccess = Duration.ofMinutes(5);
+		private boolean softTierEnabled = false;
+		private boolean statsEnabled = true;
+
+		/** Constructs a new {@link Builder}. */
+		private Builder() {}
+
+		/**
+		 * Sets the maximum total weight of the entries.
+		 *
+		 * @param maximumWeight The weight, in bytes.
+		 * @return This builder.
+		 */
+		public Builder maximumWeight(final long maximumWeight) {
+			if (maximumWeight < 0) {
+				throw new IllegalArgumentException("The maximum weight must be >= 0.");
+			}
+
+			this.maximumWeight = maximumWeight;
+			return this;
+		}
+
+		/**
+		 * Sets the duration after which an entry, which hasn't been accessed, expires.
+		 *
+		 * @param expireAfterAccess The duration, or null if entries don't expire.
+		 * @return This builder.
+		 */
+		public Builder expireAfterAccess(final Duration expireAfterAccess) {
+			if (expireAfterAccess != null && expireAfterAccess.isNegative()) {
+				throw new IllegalArgumentException("The expiry must be >= 0.");
+			}
+
+			this.expireAfterAccess = expireAfterAccess;
+			return this;
+		}
+
+		/**
+		 * Sets whether entries which are evicted from the cache are kept in a soft-reference secondary tier.
+		 *
+		 * @param softTierEnabled Whether the tier is enabled.
+		 * @return This builder.
+		 */
+		public Builder softTierEnabled(final boolean softTierEnabled) {
+			this.softTierEnabled = softTierEnabled;
+			return this;
+		}
+
+		/**
+		 * Sets whether the cache records its hits, misses, loads, and evictions, so that they can be monitored.
+		 *
+		 * @param statsEnabled Whether statistics are recorded.
+		 * @return This builder.
+		 */
+		public Builder statsEnabled(final boolean statsEnabled) {
+			this.statsEnabled = statsEnabled;
+			return this;
+		}
+
+		/**
+		 * Builds the configuration.
+		 *
+		 * @return The configuration.
+		 */
+		public CacheConfiguration build() {
+			return new CacheConfiguration(this);
+		}
+	}
+}
@@ -0,0 +1,334 @@
+package com.valkryst.VTerminal.image;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * <p>Shrinks the image caches of every registered {@link Target}, such as the glyph caches of a
+ * {@link com.valkryst.VTerminal.font.VFont} and the cache of each {@link SequentialOp}, when the heap runs low, and
+ * restores them once it recovers.</p>
+ *
+ * <p>
+ *     Once started, the monitor sets a collection usage threshold on the tenured heap pool. When the pool is still
+ *     above the threshold after a garbage collection, the pressure is raised to {@link Level#HIGH}, and the usage of
+ *     the pool is then polled, after each collection, until it falls below the recovery threshold. The pressure is
+ *     raised to {@link Level#CRITICAL} if the usage reaches the critical threshold while it's polled.
+ * </p>
+ *
+ * <p>
+ *     Targets shed their lowest-value entries first. At {@link Level#HIGH}, secondary tiers are cleared and caches
+ *     are shrunk. At {@link Level#CRITICAL}, caches which are cheap to rebuild are cleared entirely. At
+ *     {@link Level#NORMAL}, every cache is restored to its configured limits.
+ * </p>
+ *
+ * <p>
+ *     {@link com.valkryst.VTerminal.font.VFont}s and {@link SequentialOp}s register themselves when they're
+ *     constructed. Targets are held weakly, so registration never prevents a target from being garbage collected.
+ * </p>
+ */
+public final class MemoryPressureMonitor {
+	/** The singleton instance. */
+	private static final MemoryPressureMonitor INSTANCE = new MemoryPressureMonitor();
+
+	/** The registered targets. */
+	private final Set<Target> targets = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+	/** The current memory pressure. */
+	@Getter private volatile Level level = Level.NORMAL;
+
+	/** The listener which is notified of each action, or null. */
+	@Getter @Setter private volatile Listener listener;
+
+	/** The pool whose usage is monitored, or null if the monitor isn't running. */
+	private MemoryPoolMXBean pool;
+	/** Fraction of the pool's maximum size at which the pressure becomes {@link Level#HIGH}. */
+	private double highThreshold;
+	/** Fraction of the pool's maximum size at which the pressure becomes {@link Level#CRITICAL}. */
+	private double criticalThreshold;
+	/** Fraction of the pool's maximum size below which the pressure returns to {@link Level#NORMAL}. */
+	private double recoveryThreshold;
+	/** Interval at which the pool's usage is polled while the pressure isn't {@link Level#NORMAL}. */
+	private Duration pollInterval;
+
+	/** Runs the polls, or null if the monitor isn't running. */
+	private ScheduledExecutorService scheduler;
+	/** The scheduled polls, or null if the pool isn't being polled. */
+	private ScheduledFuture<?> polls;
+
+	/** Receives the JMX notifications of the memory MXBean. */
+	private final NotificationListener notificationListener = this::handleNotification;
+
+	/** Private constructor, to enforce the singleton. */
+	private MemoryPressureMonitor() {}
+
+	/**
+	 * Retrieves the singleton instance.
+	 *
+	 * @return The singleton instance.
+	 */
+	public static MemoryPressureMonitor getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Registers a target, whose caches are adjusted whenever the memory pressure changes.
+	 *
+	 * @param target The target.
+	 */
+	public void register(final @NonNull Target target) {
+		targets.add(target);
+	}
+
+	/**
+	 * Starts monitoring the tenured heap pool, with a high threshold of 75%, a critical threshold of 90%, a
+	 * recovery threshold of 60%, and a poll interval of one second.
+	 *
+	 * @see #start(double, double, double, Duration, Listener)
+	 *
+	 * @param listener The listener to notify of each action, or null.
+	 * @return Whether a tenured heap pool, which supports collection usage thresholds, was found.
+	 */
+	public boolean start(final Listener listener) {
+		return start(0.75, 0.9, 0.6, Duration.ofSeconds(1), listener);
+	}
+
+	/**
+	 * Starts monitoring the tenured heap pool. If the monitor is already running, it's restarted with the new
+	 * settings.
+	 *
+	 * @param highThreshold Fraction of the pool's maximum size at which the pressure becomes {@link Level#HIGH}.
+	 * @param criticalThreshold Fraction of the pool's maximum size at which the pressure becomes
+	 *                          {@link Level#CRITICAL}.
+	 * @param recoveryThreshold Fraction of the pool's maximum size below which the pressure returns to
+	 *                          {@link Level#NORMAL}.
+	 * @param pollInterval Interval at which the pool's usage is polled while the pressure isn't {@link Level#NORMAL}.
+	 * @param listener The listener to notify of each action, or null.
+	 * @return Whether a tenured heap pool, which supports collection usage thresholds, was found.
+	 */
+	public synchronized boolean start(
+		final double highThreshold, final double criticalThreshold, final double recoveryThreshold,
+		final @NonNull Duration pollInterval, final Listener listener
+	) {
+		if (!(0 < recoveryThreshold && recoveryThreshold <= highThreshold && highThreshold <= criticalThreshold && criticalThreshold <= 1)) {
+			throw new IllegalArgumentException("The thresholds must satisfy 0 < recovery <= high <= critical <= 1.");
+		}
+
+		if (pollInterval.isNegative() || pollInterval.isZero()) {
+			throw new IllegalArgumentException("The poll interval must be > 0.");
+		}
+
+		stop();
+
+		final var tenuredPool = findTenuredPool();
+		if (tenuredPool == null) {
+			return false;
+		}
+
+		this.pool = tenuredPool;
+		this.highThreshold = highThreshold;
+		this.criticalThreshold = criticalThreshold;
+		this.recoveryThreshold = recoveryThreshold;
+		this.pollInterval = pollInterval;
+		this.listener = listener;
+
+		pool.setCollectionUsageThreshold((long) (pool.getUsage().getMax() * highThreshold));
+
+		scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+			final var thread = new Thread(runnable, "VTerminal Memory Pressure Monitor");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		((NotificationEmitter) ManagementFactory.getMemoryMXBean()).addNotificationListener(notificationListener, null, null);
+		return true;
+	}
+
+	/** Stops monitoring the heap, and restores every cache to its configured limits. */
+	public synchronized void stop() {
+		if (pool == null) {
+			return;
+		}
+
+		try {
+			((NotificationEmitter) ManagementFactory.getMemoryMXBean()).removeNotificationListener(notificationListener);
+		} catch (final ListenerNotFoundException ignored) {}
+
+		scheduler.shutdownNow();
+		scheduler = null;
+		polls = null;
+		pool = null;
+
+		setLevel(Level.NORMAL);
+	}
+
+	/**
+	 * <p>Sets the memory pressure, and adjusts the caches of every registered target if it has changed.</p>
+	 *
+	 * <p>This is called automatically while the monitor is running, but it can also be called manually.</p>
+	 *
+	 * @param level The pressure.
+	 */
+	public synchronized void setLevel(final @NonNull Level level) {
+		if (this.level == level) {
+			return;
+		}
+
+		this.level = level;
+
+		final var listener = this.listener;
+		final var actions = new ArrayList<String>();
+
+		final Target[] targets;
+		synchronized (this.targets) {
+			targets = this.targets.toArray(new Target[0]);
+		}
+
+		for (final var target : targets) {
+			target.onMemoryPressure(level, actions::add);
+		}
+
+		if (listener != null) {
+			for (final var action : actions) {
+				listener.onAction(level, action);
+			}
+		}
+	}
+
+	/**
+	 * Handles a JMX notification from the memory MXBean. The pool is polled if it has exceeded its collection usage
+	 * threshold.
+	 *
+	 * @param notification The notification.
+	 * @param handback Unused.
+	 */
+	private void handleNotification(final Notification notification, final Object handback) {
+		if (!MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+			return;
+		}
+
+		final var info = MemoryNotificationInfo.from((CompositeData) notification.getUserData());
+
+		synchronized (this) {
+			if (pool == null || !pool.getName().equals(info.getPoolName())) {
+				return;
+			}
+
+			poll();
+
+			if (polls == null && level != Level.NORMAL) {
+				final long interval = pollInterval.toMillis();
+				polls = scheduler.scheduleWithFixedDelay(this::poll, interval, interval, TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+	/**
+	 * Updates the memory pressure from the usage of the pool after its most recent collection, and stops polling
+	 * once the pressure has returned to {@link Level#NORMAL}.
+	 */
+	private synchronized void poll() {
+		if (pool == null) {
+			return;
+		}
+
+		final var usage = pool.getCollectionUsage();
+		if (usage == null || usage.getMax() <= 0) {
+			return;
+		}
+
+		final double fraction = usage.getUsed() / (double) usage.getMax();
+		if (fraction >= criticalThreshold) {
+			setLevel(Level.CRITICAL);
+		} else if (fraction >= highThreshold) {
+			setLevel(Level.HIGH);
+		} else if (fraction < recoveryThreshold) {
+			setLevel(Level.NORMAL);
+		}
+
+		if (level == Level.NORMAL && polls != null) {
+			polls.cancel(false);
+			polls = null;
+		}
+	}
+
+	/**
+	 * Finds the tenured heap pool, which is the heap pool that supports collection usage thresholds and holds
+	 * long-lived objects.
+	 *
+	 * @return The pool, or null if there is no such pool.
+	 */
+	private static MemoryPoolMXBean findTenuredPool() {
+		MemoryPoolMXBean largestPool = null;
+
+		for (final var pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() != MemoryType.HEAP || !pool.isCollectionUsageThresholdSupported() || pool.getUsage().getMax() <= 0) {
+				continue;
+			}
+
+			final var name = pool.getName();
+			if (name.contains("Old") || name.contains("Tenured")) {
+				return pool;
+			}
+
+			if (largestPool == null || pool.getUsage().getMax() > largestPool.getUsage().getMax()) {
+				largestPool = pool;
+			}
+		}
+
+		return largestPool;
+	}
+
+	/** The level of memory pressure. */
+	public enum Level {
+		/** The heap has enough free memory, so caches use their configured limits. */
+		NORMAL,
+		/** The heap is running low, so caches shed their lowest-value entries. */
+		HIGH,
+		/** The heap is almost full, so caches shed every entry which is cheap to rebuild. */
+		CRITICAL
+	}
+
+	/** An owner of caches, which adjusts them according to the memory pressure. */
+	public interface Target {
+		/**
+		 * Adjusts the caches to a new level of memory pressure.
+		 *
+		 * @param level The new level.
+		 * @param actions Accepts a description of each action taken.
+		 */
+		void onMemoryPressure(final @NonNull Level level, final @NonNull Consumer<String> actions);
+	}
+
+	/** A listener which is notified of each action taken in response to a change in memory pressure. */
+	@FunctionalInterface
+	public interface Listener {
+		/**
+		 * Called after the caches have been adjusted to a new level of memory pressure, once for each action taken.
+		 *
+		 * @param level The new level.
+		 * @param action A description of the action.
+		 */
+		void onAction(final Level level, final String action);
+	}
+}
@@ -1,7 +1,9 @@
 package com.valkryst.VTerminal.image;
 
 import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.valkryst.VTerminal.metrics.SequentialOpFilterEvent;
+import lombok.Getter;
 import lombok.NonNull;
 
 import java.awt.*;
@@ -13,26 +15,90 @@ import java.awt.image.ColorModel;
 import java.awt.image.ImagingOpException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /** A class for applying multiple {@link BufferedImageOp} operations, in sequence, to a {@link BufferedImage}. */
-public class SequentialOp implements BufferedImageOp {
+public class SequentialOp implements BufferedImageOp, MemoryPressureMonitor.Target {
+	/** The next ID to assign to a {@link SequentialOp}. IDs begin at 1, so that 0 can represent the absence of an op. */
+	private static final AtomicInteger NEXT_ID = new AtomicInteger(1);
+
+	/** Every {@link SequentialOp} which hasn't been garbage collected. They're held weakly. */
+	private static final Set<SequentialOp> INSTANCES = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
 	/** A list of {@link BufferedImageOp} operations to apply to the image, in the order they should be applied. */
 	private final List<BufferedImageOp> operations = new CopyOnWriteArrayList<>();
 
-	/** A cache of {@link BufferedImage}s that have recently been filtered. */
-	private final Cache<Integer, BufferedImage> cache;
+	/** A cache of {@link BufferedImage}s that have recently been filtered, keyed by the content of the source image. */
+	private final Cache<ImageKey, BufferedImage> cache;
+
+	/**
+	 * A soft-reference secondary tier, which holds the images that have been evicted from the {@link #cache}, or null
+	 * if there is no secondary tier.
+	 */
+	private final Cache<ImageKey, BufferedImage> softTier;
+
+	/** The maximum weight of the {@link #cache}, as configured. */
+	private final long maximumWeight;
+
+	/**
+	 * Whether images which are evicted from the {@link #cache} are discarded, rather than moved to the
+	 * {@link #softTier}, because the cache has been shrunk to free memory.
+	 */
+	private volatile boolean softTierSuspended = false;
+
+	/**
+	 * <p>A unique ID, which identifies this op and its current sequence of operations.</p>
+	 *
+	 * <p>
+	 *     A new ID is assigned whenever the sequence of operations is changed, so that images which were filtered
+	 *     and cached, using the old sequence, are never mistaken for images filtered with the new sequence.
+	 * </p>
+	 */
+	@Getter private volatile int id = NEXT_ID.getAndIncrement();
+
+	/**
+	 * The default policy of the cache, which holds up to 8 MiB of images, including the copy of each source image
+	 * that's kept in its key.
+	 */
+	public static final CacheConfiguration DEFAULT_CACHE_CONFIGURATION = CacheConfiguration.builder().maximumWeight(8L << 20).build();
 
-	/** Constructs a new {@link SequentialOp}. */
+	/**
+	 * Constructs a new {@link SequentialOp}, whose cache has the {@link #DEFAULT_CACHE_CONFIGURATION} policy,
+	 * overridden by any {@code vterminal.cache.sequentialOp.*} system properties.
+	 */
 	public SequentialOp() {
-		cache = Caffeine.newBuilder()
-						.initialCapacity(0)
-						.maximumSize(2_500)
-						.expireAfterAccess(5, TimeUnit.MINUTES)
-						.build();
+		this(DEFAULT_CACHE_CONFIGURATION.withSystemProperties("vterminal.cache.sequentialOp"));
+	}
+
+	/**
+	 * Constructs a new {@link SequentialOp}.
+	 *
+	 * @param configuration The policy of the cache, in which each filtered image is weighed at four bytes per pixel,
+	 *                      plus four bytes per pixel of the copy of its source image that's kept in its key.
+	 */
+	public SequentialOp(final @NonNull CacheConfiguration configuration) {
+		softTier = configuration.newSoftTier();
+		maximumWeight = configuration.getMaximumWeight();
+		cache = configuration.newCaffeineBuilder()
+							 .<ImageKey, BufferedImage>weigher((key, image) -> (int) Math.min(Integer.MAX_VALUE,
+																					(long) key.pixels.length * 4 + CacheConfiguration.weighImage(image)))
+							 .removalListener((key, image, cause) -> {
+								 // Images which were evicted, rather than explicitly removed, are kept until their memory is needed.
+								 if (softTier != null && !softTierSuspended && key != null && image != null && cause.wasEvicted()) {
+									 softTier.put(key, image);
+								 }
+							 })
+							 .build();
+
+		MemoryPressureMonitor.getInstance().register(this);
+		INSTANCES.add(this);
 	}
 
 	/**
@@ -55,6 +121,93 @@ public class SequentialOp implements BufferedImageOp {
 	public void addOperations(final @NonNull BufferedImageOp ... operations) {
 		this.operations.addAll(Arrays.asList(operations));
 		cache.invalidateAll();
+		if (softTier != null) {
+			softTier.invalidateAll();
+		}
+
+		id = NEXT_ID.getAndIncrement();
+	}
+
+	/**
+	 * Retrieves a snapshot of the cache's statistics.
+	 *
+	 * @return The statistics, or empty statistics if the cache doesn't record them.
+	 */
+	public CacheStats getCacheStats() {
+		return cache.policy().isRecordingStats() ? cache.stats() : CacheStats.empty();
+	}
+
+	/**
+	 * Retrieves the total weight of the entries in the cache.
+	 *
+	 * @return The weight, in bytes, or {@code -1} if the cache isn't bounded by weight.
+	 */
+	public long getCacheWeight() {
+		return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(-1)).orElse(-1L);
+	}
+
+	/**
+	 * Retrieves the number of {@link SequentialOp}s which haven't been garbage collected.
+	 *
+	 * @return The number of ops.
+	 */
+	public static int getInstanceCount() {
+		return INSTANCES.size();
+	}
+
+	/**
+	 * Retrieves the sum of the cache statistics of every {@link SequentialOp} which hasn't been garbage collected.
+	 *
+	 * @return The statistics.
+	 */
+	public static CacheStats getTotalCacheStats() {
+		final SequentialOp[] instances;
+		synchronized (INSTANCES) {
+			instances = INSTANCES.toArray(new SequentialOp[0]);
+		}
+
+		var stats = CacheStats.empty();
+		for (final var instance : instances) {
+			stats = stats.plus(instance.getCacheStats());
+		}
+
+		return stats;
+	}
+
+	/**
+	 * <p>Adjusts the cache to a level of memory pressure.</p>
+	 *
+	 * <p>
+	 *     At {@link MemoryPressureMonitor.Level#HIGH}, the soft-reference secondary tier is cleared and the cache is
+	 *     shrunk to half of its maximum weight. At {@link MemoryPressureMonitor.Level#CRITICAL}, the cache is cleared,
+	 *     as filtered images can always be recreated from their source images.
+	 * </p>
+	 *
+	 * @param level The level.
+	 * @param actions Accepts a description of each action taken.
+	 */
+	@Override
+	public void onMemoryPressure(final MemoryPressureMonitor.@NonNull Level level, final @NonNull Consumer<String> actions) {
+		final var name = "SequentialOp #" + id;
+		final long weight = level == MemoryPressureMonitor.Level.NORMAL ? maximumWeight : maximumWeight / 2;
+
+		softTierSuspended = level != MemoryPressureMonitor.Level.NORMAL;
+		cache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(weight));
+		actions.accept("Set the maximum weight of the " + name + " cache to " + weight + " bytes.");
+
+		if (level == MemoryPressureMonitor.Level.NORMAL) {
+			return;
+		}
+
+		if (softTier != null) {
+			softTier.invalidateAll();
+			actions.accept("Cleared the secondary tier of the " + name + " cache.");
+		}
+
+		if (level == MemoryPressureMonitor.Level.CRITICAL) {
+			cache.invalidateAll();
+			actions.accept("Cleared the " + name + " cache.");
+		}
 	}
 
 	@Override
@@ -69,14 +222,39 @@ public class SequentialOp implements BufferedImageOp {
 
 	@Override
 	public BufferedImage filter(final @NonNull BufferedImage source, BufferedImage destination) {
-		final int hashCode = this.getBufferedImageHashCode(source);
+		final var event = new SequentialOpFilterEvent();
+		event.begin();
+		event.setCacheHit(true);
 
-		destination = cache.getIfPresent(hashCode);
-		if (destination != null) {
-			return destination;
+		// The operations are applied by the cache's loader, so that concurrent calls with the same image only apply them once.
+		final var image = cache.get(new ImageKey(source), key -> {
+			final var tieredImage = softTier == null ? null : softTier.asMap().remove(key);
+			if (tieredImage != null) {
+				return tieredImage;
+			}
+
+			event.setCacheHit(false);
+			return applyOperations(source);
+		});
+
+		event.end();
+		if (event.shouldCommit()) {
+			event.setSequentialOpId(id);
+			event.setOperationCount(operations.size());
+			event.commit();
 		}
 
-		destination = createCompatibleDestImage(source, null);
+		return image;
+	}
+
+	/**
+	 * Applies each operation, in sequence, to a copy of an image.
+	 *
+	 * @param source The image.
+	 * @return The filtered copy of the image.
+	 */
+	private BufferedImage applyOperations(final BufferedImage source) {
+		var destination = createCompatibleDestImage(source, null);
 
 		for (final BufferedImageOp imageOp : operations) {
 			var temp = createCompatibleDestImage(destination, null);
@@ -91,26 +269,9 @@ public class SequentialOp implements BufferedImageOp {
 			destination = temp;
 		}
 
-		cache.put(hashCode, destination);
 		return destination;
 	}
 
-	/**
-	 * Calculates the hash code of a {@link BufferedImage}.
-	 *
-	 * @param image {@link BufferedImage} to calculate the hash code of.
-	 * @return Calculated hash code of the {@link BufferedImage}.
-	 */
-	private int getBufferedImageHashCode(final @NonNull BufferedImage image) {
-		return Objects.hash(
-			Arrays.hashCode(
-				image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth())
-			),
-			image.getColorModel(),
-			image.isAlphaPremultiplied()
-		);
-	}
-
 	@Override
 	public Rectangle2D getBounds2D(final @NonNull BufferedImage source) {
 		return new Rectangle(0, 0, source.getWidth(), source.getHeight());
@@ -125,4 +286,54 @@ public class SequentialOp implements BufferedImageOp {
 	public RenderingHints getRenderingHints() {
 		throw new UnsupportedOperationException("This function should not be called. It only exists to satisfy the BufferedImageOp interface.");
 	}
+
+	/**
+	 * <p>Identifies a {@link BufferedImage} by its content.</p>
+	 *
+	 * <p>
+	 *     Two keys are only equal when their images have the same pixels, colour model, and alpha premultiplication,
+	 *     so two different images can never share a cached result.
+	 * </p>
+	 */
+	private static final class ImageKey {
+		private final int width;
+		private final int height;
+		private final int[] pixels;
+		private final ColorModel colorModel;
+		private final boolean isAlphaPremultiplied;
+		private final int hashCode;
+
+		private ImageKey(final @NonNull BufferedImage image) {
+			width = image.getWidth();
+			height = image.getHeight();
+			pixels = image.getRGB(0, 0, width, height, null, 0, width);
+			colorModel = image.getColorModel();
+			isAlphaPremultiplied = image.isAlphaPremultiplied();
+			hashCode = Objects.hash(width, height, Arrays.hashCode(pixels), colorModel, isAlphaPremultiplied);
+		}
+
+		@Override
+		public boolean equals(final Object object) {
+			if (this == object) {
+				return true;
+			}
+
+			if (!(object instanceof ImageKey)) {
+				return false;
+			}
+
+			final var other = (ImageKey) object;
+			return hashCode == other.hashCode
+				&& width == other.width
+				&& height == other.height
+				&& isAlphaPremultiplied == other.isAlphaPremultiplied
+				&& colorModel.equals(other.colorModel)
+				&& Arrays.equals(pixels, other.pixels);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
 }
@@ -0,0 +1,41 @@
+package com.valkryst.VTerminal.metrics;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * A snapshot of a cache's statistics, which JMX clients can read as composite data without any of Caffeine's classes
+ * on their class path.
+ */
+public final class CacheStatistics {
+	/** The number of requests which were served from the cache. */
+	@Getter private final long hitCount;
+	/** The number of requests which weren't served from the cache. */
+	@Getter private final long missCount;
+	/** The fraction of requests which were served from the cache. */
+	@Getter private final double hitRate;
+	/** The number of entries which were created and added to the cache. */
+	@Getter private final long loadCount;
+	/** The mean time, in nanoseconds, taken to create an entry. */
+	@Getter private final double averageLoadPenaltyNanos;
+	/** The number of entries which have been evicted. */
+	@Getter private final long evictionCount;
+	/** The total weight, in bytes, of the entries which have been evicted. */
+	@Getter private final long evictionWeight;
+
+	/**
+	 * Constructs a new {@link CacheStatistics}.
+	 *
+	 * @param stats The Caffeine statistics.
+	 */
+	public CacheStatistics(final @NonNull CacheStats stats) {
+		hitCount = stats.hitCount();
+		missCount = stats.missCount();
+		hitRate = stats.hitRate();
+		loadCount = stats.loadCount();
+		averageLoadPenaltyNanos = stats.averageLoadPenalty();
+		evictionCount = stats.evictionCount();
+		evictionWeight = stats.evictionWeight();
+	}
+}
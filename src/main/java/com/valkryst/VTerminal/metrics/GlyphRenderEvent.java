@@ -0,0 +1,35 @@
+package com.valkryst.VTerminal.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * A Java Flight Recorder event, which is recorded whenever a {@link com.valkryst.VTerminal.font.VFont} misses its
+ * glyph caches and renders a glyph. Like {@link PaintEvent}, it doesn't record stack traces by default.
+ */
+@Name("com.valkryst.VTerminal.GlyphRender")
+@Label("Glyph Render")
+@Description("The rendering of a glyph which wasn't in the glyph caches.")
+@Category("VTerminal")
+@StackTrace(false)
+public final class GlyphRenderEvent extends Event {
+	@Label("Code Point")
+	@Setter private int codePoint;
+
+	@Label("Colour")
+	@Description("The colour of the glyph, as a packed ARGB integer, or 0 if the glyph is a mask.")
+	@Setter private int argb;
+
+	@Label("Mask")
+	@Description("Whether the glyph was rendered as a colour-independent mask.")
+	@Setter private boolean mask;
+
+	@Label("SequentialOp Applied")
+	@Description("Whether a SequentialOp was applied to the glyph.")
+	@Setter private boolean sequentialOpApplied;
+}
@@ -0,0 +1,84 @@
+package com.valkryst.VTerminal.metrics;
+
+import lombok.NonNull;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * <p>Registers VTerminal's MBeans with the platform MBean server, under the {@code com.valkryst.VTerminal} domain.</p>
+ *
+ * <p>Registration can be disabled by setting the {@code vterminal.jmx} system property to {@code false}.</p>
+ */
+public final class MBeans {
+	/** The domain of every VTerminal MBean. */
+	public static final String DOMAIN = "com.valkryst.VTerminal";
+
+	/** Private constructor, as this class only has static methods. */
+	private MBeans() {}
+
+	/**
+	 * Determines whether MBeans are registered.
+	 *
+	 * @return Whether MBeans are registered.
+	 */
+	public static boolean isEnabled() {
+		return !"false".equalsIgnoreCase(System.getProperty("vterminal.jmx"));
+	}
+
+	/**
+	 * Creates the name of a VTerminal MBean.
+	 *
+	 * @param properties The key properties of the name, such as {@code type=VPanel,id=1}.
+	 * @return The name.
+	 */
+	public static ObjectName createName(final @NonNull String properties) {
+		try {
+			return new ObjectName(DOMAIN + ":" + properties);
+		} catch (final MalformedObjectNameException e) {
+			throw new IllegalArgumentException("The properties must form a valid object name.", e);
+		}
+	}
+
+	/**
+	 * Registers an MBean, replacing any MBean which is already registered with the same name. Nothing is registered
+	 * if MBeans are disabled.
+	 *
+	 * @param name The name of the MBean.
+	 * @param mBean The MBean.
+	 */
+	public static void register(final @NonNull ObjectName name, final @NonNull Object mBean) {
+		if (!isEnabled()) {
+			return;
+		}
+
+		final var server = ManagementFactory.getPlatformMBeanServer();
+
+		try {
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+
+			server.registerMBean(mBean, name);
+		} catch (final JMException e) {
+			System.err.println("The " + name + " MBean could not be registered: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Unregisters an MBean, if it's registered.
+	 *
+	 * @param name The name of the MBean.
+	 */
+	public static void unregister(final @NonNull ObjectName name) {
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+		} catch (final InstanceNotFoundException ignored) {
+		} catch (final JMException e) {
+			System.err.println("The " + name + " MBean could not be unregistered: " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package com.valkryst.VTerminal.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * <p>A Java Flight Recorder event, which is recorded for each paint of a
+ * {@link com.valkryst.VTerminal.component.VPanel}.</p>
+ *
+ * <p>
+ *     Stack traces aren't recorded by default, so the event is cheap enough to leave enabled. When the event is
+ *     disabled, the JIT removes its allocation entirely.
+ * </p>
+ */
+@Name("com.valkryst.VTerminal.Paint")
+@Label("VPanel Paint")
+@Description("A paint of a VPanel, including the re-rendering of its stale tiles.")
+@Category("VTerminal")
+@StackTrace(false)
+public final class PaintEvent extends Event {
+	@Label("Panel ID")
+	@Description("The ID of the panel, which also identifies its MBean.")
+	@Setter private int panelId;
+
+	@Label("Tiles Painted")
+	@Description("The number of stale tiles which were re-rendered.")
+	@Setter private int tileCount;
+
+	@Label("Clip Width")
+	@Description("The width, in pixels, of the region which was repainted.")
+	@Setter private int clipWidth;
+
+	@Label("Clip Height")
+	@Description("The height, in pixels, of the region which was repainted.")
+	@Setter private int clipHeight;
+}
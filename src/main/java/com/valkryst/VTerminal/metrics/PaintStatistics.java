@@ -0,0 +1,109 @@
+package com.valkryst.VTerminal.metrics;
+
+import java.util.Arrays;
+
+/**
+ * <p>Records the duration of, and the number of tiles painted by, each paint of a component.</p>
+ *
+ * <p>
+ *     The durations of the most recent paints are kept in a fixed-size ring buffer, so recording a paint never
+ *     allocates, and percentiles are calculated from them when they're requested.
+ * </p>
+ */
+public final class PaintStatistics {
+	/** The durations, in nanoseconds, of the most recent paints. */
+	private final long[] durations;
+
+	/** The number of paints which have been recorded. */
+	private long paintCount = 0;
+	/** The total number of tiles which have been painted. */
+	private long totalTilesPainted = 0;
+	/** The number of tiles which were painted by the most recent paint. */
+	private int lastTilesPainted = 0;
+
+	/**
+	 * Constructs a new {@link PaintStatistics}.
+	 *
+	 * @param capacity The number of recent paints from which percentiles are calculated.
+	 */
+	public PaintStatistics(final int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The capacity must be >= 1.");
+		}
+
+		durations = new long[capacity];
+	}
+
+	/**
+	 * Records a paint.
+	 *
+	 * @param durationNanos The duration of the paint, in nanoseconds.
+	 * @param tilesPainted The number of tiles which were painted.
+	 */
+	public synchronized void record(final long durationNanos, final int tilesPainted) {
+		durations[(int) (paintCount % durations.length)] = durationNanos;
+		paintCount++;
+		totalTilesPainted += tilesPainted;
+		lastTilesPainted = tilesPainted;
+	}
+
+	/**
+	 * Retrieves the number of paints which have been recorded.
+	 *
+	 * @return The number of paints.
+	 */
+	public synchronized long getPaintCount() {
+		return paintCount;
+	}
+
+	/**
+	 * Retrieves the number of tiles which were painted by the most recent paint.
+	 *
+	 * @return The number of tiles.
+	 */
+	public synchronized int getLastTilesPainted() {
+		return lastTilesPainted;
+	}
+
+	/**
+	 * Retrieves the mean number of tiles painted by each paint.
+	 *
+	 * @return The mean number of tiles, or {@code 0} if no paints have been recorded.
+	 */
+	public synchronized double getAverageTilesPainted() {
+		return paintCount == 0 ? 0 : totalTilesPainted / (double) paintCount;
+	}
+
+	/**
+	 * Calculates a percentile of the durations of the most recent paints, using the nearest-rank method.
+	 *
+	 * @param percentile The percentile, between 0 and 100.
+	 * @return The duration, in nanoseconds, or {@code 0} if no paints have been recorded.
+	 */
+	public long getDurationPercentile(final double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("The percentile must be >= 0 and <= 100.");
+		}
+
+		final long[] sorted;
+		synchronized (this) {
+			sorted = Arrays.copyOf(durations, (int) Math.min(paintCount, durations.length));
+		}
+
+		if (sorted.length == 0) {
+			return 0;
+		}
+
+		Arrays.sort(sorted);
+
+		final int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+		return sorted[Math.max(0, rank - 1)];
+	}
+
+	/** Removes every recorded paint. */
+	public synchronized void reset() {
+		paintCount = 0;
+		totalTilesPainted = 0;
+		lastTilesPainted = 0;
+	}
+}
@@ -0,0 +1,32 @@
+package com.valkryst.VTerminal.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * A Java Flight Recorder event, which is recorded for each call to
+ * {@link com.valkryst.VTerminal.image.SequentialOp#filter}. Like {@link PaintEvent}, it doesn't record stack traces by
+ * default.
+ */
+@Name("com.valkryst.VTerminal.SequentialOpFilter")
+@Label("SequentialOp Filter")
+@Description("The filtering of an image by a SequentialOp, which is served from its cache when possible.")
+@Category("VTerminal")
+@StackTrace(false)
+public final class SequentialOpFilterEvent extends Event {
+	@Label("SequentialOp ID")
+	@Setter private int sequentialOpId;
+
+	@Label("Operation Count")
+	@Description("The number of operations in the sequence.")
+	@Setter private int operationCount;
+
+	@Label("Cache Hit")
+	@Description("Whether the filtered image was served from the cache, rather than created by the operations.")
+	@Setter private boolean cacheHit;
+}
@@ -0,0 +1,73 @@
+package com.valkryst.VTerminal.metrics;
+
+/**
+ * The paint metrics of a {@link com.valkryst.VTerminal.component.VPanel}, which is registered as
+ * {@code com.valkryst.VTerminal:type=VPanel,id=N} while the panel is displayable.
+ */
+public interface VPanelMXBean {
+	/**
+	 * Retrieves the width of the panel.
+	 *
+	 * @return The width, in tiles.
+	 */
+	int getWidthInTiles();
+
+	/**
+	 * Retrieves the height of the panel.
+	 *
+	 * @return The height, in tiles.
+	 */
+	int getHeightInTiles();
+
+	/**
+	 * Retrieves the number of times that the panel has been painted.
+	 *
+	 * @return The number of paints.
+	 */
+	long getPaintCount();
+
+	/**
+	 * Retrieves the number of tiles which were re-rendered by the most recent paint.
+	 *
+	 * @return The number of tiles.
+	 */
+	int getTilesPaintedLastFrame();
+
+	/**
+	 * Retrieves the mean number of tiles which were re-rendered by each paint.
+	 *
+	 * @return The mean number of tiles.
+	 */
+	double getAverageTilesPaintedPerFrame();
+
+	/**
+	 * Retrieves the median duration of the most recent paints.
+	 *
+	 * @return The duration, in milliseconds.
+	 */
+	double getPaintTimeMillis50thPercentile();
+
+	/**
+	 * Retrieves the 95th percentile of the durations of the most recent paints.
+	 *
+	 * @return The duration, in milliseconds.
+	 */
+	double getPaintTimeMillis95thPercentile();
+
+	/**
+	 * Retrieves the 99th percentile of the durations of the most recent paints.
+	 *
+	 * @return The duration, in milliseconds.
+	 */
+	double getPaintTimeMillis99thPercentile();
+
+	/**
+	 * Retrieves the longest duration of the most recent paints.
+	 *
+	 * @return The duration, in milliseconds.
+	 */
+	double getPaintTimeMillisMax();
+
+	/** Removes every recorded paint. */
+	void resetPaintStatistics();
+}
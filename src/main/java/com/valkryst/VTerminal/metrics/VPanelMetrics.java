@@ -0,0 +1,86 @@
+package com.valkryst.VTerminal.metrics;
+
+import lombok.NonNull;
+
+/** The {@link VPanelMXBean} of a {@link com.valkryst.VTerminal.component.VPanel}. */
+public final class VPanelMetrics implements VPanelMXBean {
+	/** The width of the panel, in tiles. */
+	private final int widthInTiles;
+	/** The height of the panel, in tiles. */
+	private final int heightInTiles;
+	/** The paint statistics of the panel. */
+	private final PaintStatistics statistics;
+
+	/**
+	 * Constructs a new {@link VPanelMetrics}.
+	 *
+	 * @param widthInTiles The width of the panel, in tiles.
+	 * @param heightInTiles The height of the panel, in tiles.
+	 * @param statistics The paint statistics of the panel.
+	 */
+	public VPanelMetrics(final int widthInTiles, final int heightInTiles, final @NonNull PaintStatistics statistics) {
+		this.widthInTiles = widthInTiles;
+		this.heightInTiles = heightInTiles;
+		this.statistics = statistics;
+	}
+
+	@Override
+	public int getWidthInTiles() {
+		return widthInTiles;
+	}
+
+	@Override
+	public int getHeightInTiles() {
+		return heightInTiles;
+	}
+
+	@Override
+	public long getPaintCount() {
+		return statistics.getPaintCount();
+	}
+
+	@Override
+	public int getTilesPaintedLastFrame() {
+		return statistics.getLastTilesPainted();
+	}
+
+	@Override
+	public double getAverageTilesPaintedPerFrame() {
+		return statistics.getAverageTilesPainted();
+	}
+
+	@Override
+	public double getPaintTimeMillis50thPercentile() {
+		return toMillis(statistics.getDurationPercentile(50));
+	}
+
+	@Override
+	public double getPaintTimeMillis95thPercentile() {
+		return toMillis(statistics.getDurationPercentile(95));
+	}
+
+	@Override
+	public double getPaintTimeMillis99thPercentile() {
+		return toMillis(statistics.getDurationPercentile(99));
+	}
+
+	@Override
+	public double getPaintTimeMillisMax() {
+		return toMillis(statistics.getDurationPercentile(100));
+	}
+
+	@Override
+	public void resetPaintStatistics() {
+		statistics.reset();
+	}
+
+	/**
+	 * Converts a duration from nanoseconds to milliseconds.
+	 *
+	 * @param nanos The duration, in nanoseconds.
+	 * @return The duration, in milliseconds.
+	 */
+	private static double toMillis(final long nanos) {
+		return nanos / 1_000_000d;
+	}
+}
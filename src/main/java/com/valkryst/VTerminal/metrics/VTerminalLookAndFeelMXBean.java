@@ -0,0 +1,73 @@
+package com.valkryst.VTerminal.metrics;
+
+/**
+ * The cache and glyph metrics of the {@link com.valkryst.VTerminal.plaf.VTerminalLookAndFeel}, which is registered as
+ * {@code com.valkryst.VTerminal:type=VTerminalLookAndFeel}.
+ */
+public interface VTerminalLookAndFeelMXBean {
+	/**
+	 * Retrieves the statistics of the font's image cache.
+	 *
+	 * @return The statistics.
+	 */
+	CacheStatistics getImageCacheStatistics();
+
+	/**
+	 * Retrieves the statistics of the font's mask cache.
+	 *
+	 * @return The statistics.
+	 */
+	CacheStatistics getMaskCacheStatistics();
+
+	/**
+	 * Retrieves the total weight of the images in the font's image cache.
+	 *
+	 * @return The weight, in bytes.
+	 */
+	long getImageCacheWeight();
+
+	/**
+	 * Retrieves the total weight of the masks in the font's mask cache.
+	 *
+	 * @return The weight, in bytes.
+	 */
+	long getMaskCacheWeight();
+
+	/**
+	 * Retrieves the number of {@link com.valkryst.VTerminal.image.SequentialOp}s, each of which has its own cache,
+	 * which haven't been garbage collected.
+	 *
+	 * @return The number of ops.
+	 */
+	int getSequentialOpCount();
+
+	/**
+	 * Retrieves the sum of the cache statistics of every {@link com.valkryst.VTerminal.image.SequentialOp} which
+	 * hasn't been garbage collected.
+	 *
+	 * @return The statistics.
+	 */
+	CacheStatistics getSequentialOpCacheStatistics();
+
+	/**
+	 * Retrieves the number of glyphs which the font has rendered.
+	 *
+	 * @return The number of glyphs.
+	 */
+	long getRenderedGlyphCount();
+
+	/**
+	 * Retrieves the rate at which the font has rendered glyphs, since this attribute was last sampled, or over the
+	 * last second if it was sampled more recently.
+	 *
+	 * @return The number of glyphs per second.
+	 */
+	double getRenderedGlyphsPerSecond();
+
+	/**
+	 * Retrieves the current level of memory pressure.
+	 *
+	 * @return The level.
+	 */
+	String getMemoryPressureLevel();
+}
@@ -0,0 +1,88 @@
+package com.valkryst.VTerminal.metrics;
+
+import com.valkryst.VTerminal.font.VFont;
+import com.valkryst.VTerminal.image.MemoryPressureMonitor;
+import com.valkryst.VTerminal.image.SequentialOp;
+import lombok.NonNull;
+
+/** The {@link VTerminalLookAndFeelMXBean} of a {@link com.valkryst.VTerminal.plaf.VTerminalLookAndFeel}. */
+public final class VTerminalLookAndFeelMetrics implements VTerminalLookAndFeelMXBean {
+	/** The minimum time, in nanoseconds, between the samples of {@link #getRenderedGlyphsPerSecond()}. */
+	private static final long MINIMUM_SAMPLE_INTERVAL = 1_000_000_000L;
+
+	/** The font of the look-and-feel. */
+	private final VFont font;
+
+	/** The number of rendered glyphs, when the rate was last sampled. */
+	private long sampledGlyphCount;
+	/** The value of {@link System#nanoTime()}, when the rate was last sampled. */
+	private long sampleTime;
+	/** The rate which was calculated when it was last sampled. */
+	private double sampledRate = 0;
+
+	/**
+	 * Constructs a new {@link VTerminalLookAndFeelMetrics}.
+	 *
+	 * @param font The font of the look-and-feel.
+	 */
+	public VTerminalLookAndFeelMetrics(final @NonNull VFont font) {
+		this.font = font;
+		sampledGlyphCount = font.getRenderedGlyphCount();
+		sampleTime = System.nanoTime();
+	}
+
+	@Override
+	public CacheStatistics getImageCacheStatistics() {
+		return new CacheStatistics(font.getImageCacheStats());
+	}
+
+	@Override
+	public CacheStatistics getMaskCacheStatistics() {
+		return new CacheStatistics(font.getMaskCacheStats());
+	}
+
+	@Override
+	public long getImageCacheWeight() {
+		return font.getImageCacheWeight();
+	}
+
+	@Override
+	public long getMaskCacheWeight() {
+		return font.getMaskCacheWeight();
+	}
+
+	@Override
+	public int getSequentialOpCount() {
+		return SequentialOp.getInstanceCount();
+	}
+
+	@Override
+	public CacheStatistics getSequentialOpCacheStatistics() {
+		return new CacheStatistics(SequentialOp.getTotalCacheStats());
+	}
+
+	@Override
+	public long getRenderedGlyphCount() {
+		return font.getRenderedGlyphCount();
+	}
+
+	@Override
+	public synchronized double getRenderedGlyphsPerSecond() {
+		final long time = System.nanoTime();
+		final long elapsed = time - sampleTime;
+
+		if (elapsed >= MINIMUM_SAMPLE_INTERVAL) {
+			final long glyphCount = font.getRenderedGlyphCount();
+			sampledRate = (glyphCount - sampledGlyphCount) / (elapsed / 1_000_000_000d);
+			sampledGlyphCount = glyphCount;
+			sampleTime = time;
+		}
+
+		return sampledRate;
+	}
+
+	@Override
+	public String getMemoryPressureLevel() {
+		return MemoryPressureMonitor.getInstance().getLevel().name();
+	}
+}
@@ -1,7 +1,14 @@
 package com.valkryst.VTerminal.plaf;
 
+import com.valkryst.VTerminal.font.AtlasRegion;
+import com.valkryst.VTerminal.font.CodePointRange;
+import com.valkryst.VTerminal.font.GlyphUsageProfile;
+import com.valkryst.VTerminal.font.GlyphMask;
 import com.valkryst.VTerminal.font.VFont;
+import com.valkryst.VTerminal.image.CacheConfiguration;
 import com.valkryst.VTerminal.image.SequentialOp;
+import com.valkryst.VTerminal.metrics.MBeans;
+import com.valkryst.VTerminal.metrics.VTerminalLookAndFeelMetrics;
 import com.valkryst.VTerminal.palette.Palette;
 import lombok.NonNull;
 import lombok.SneakyThrows;
@@ -11,8 +18,12 @@ import javax.swing.plaf.basic.BasicLookAndFeel;
 import java.awt.*;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
 
 public class VTerminalLookAndFeel extends BasicLookAndFeel {
 	/** The singleton instance. */
@@ -112,6 +123,100 @@ public class VTerminalLookAndFeel extends BasicLookAndFeel {
 		return vFont.generateImage(codePoint, color, sequentialOp);
 	}
 
+	/** See {@link VFont#generateImage(int, int, SequentialOp)}. */
+	public Image generateImage(final int codePoint, final int argb, final SequentialOp sequentialOp) {
+		return vFont.generateImage(codePoint, argb, sequentialOp);
+	}
+
+	/** See {@link VFont#generateAtlasRegion(int, Color, SequentialOp)}. */
+	public AtlasRegion generateAtlasRegion(final int codePoint, final Color color, final SequentialOp sequentialOp) {
+		return vFont.generateAtlasRegion(codePoint, color, sequentialOp);
+	}
+
+	/** See {@link VFont#generateAtlasRegion(int, int, SequentialOp)}. */
+	public AtlasRegion generateAtlasRegion(final int codePoint, final int argb, final SequentialOp sequentialOp) {
+		return vFont.generateAtlasRegion(codePoint, argb, sequentialOp);
+	}
+
+	/** See {@link VFont#generateMask(int)}. */
+	public GlyphMask generateMask(final int codePoint) {
+		return vFont.generateMask(codePoint);
+	}
+
+	/**
+	 * Generates and caches the glyphs of every code point within a set of ranges, in the foreground colours of the
+	 * palette, on the common fork-join pool.
+	 *
+	 * @see #prewarm(Collection, Collection, VFont.PrewarmListener)
+	 *
+	 * @param ranges The ranges of code points, such as {@link CodePointRange#COMMON}.
+	 * @return A future which completes once every glyph has been generated.
+	 */
+	public CompletableFuture<Void> prewarm(final @NonNull Collection<CodePointRange> ranges) {
+		return prewarm(ranges, getPaletteForegroundColors(), null);
+	}
+
+	/**
+	 * Generates and caches the glyphs of every code point within a set of ranges, in a set of colours, on the common
+	 * fork-join pool.
+	 *
+	 * @see VFont#prewarm(Collection, Collection, java.util.concurrent.Executor, VFont.PrewarmListener)
+	 *
+	 * @param ranges The ranges of code points, such as {@link CodePointRange#COMMON}.
+	 * @param colors The colours in which to generate each glyph.
+	 * @param listener A listener to notify as the glyphs are generated, or null.
+	 * @return A future which completes once every glyph has been generated.
+	 */
+	public CompletableFuture<Void> prewarm(final @NonNull Collection<CodePointRange> ranges, final @NonNull Collection<Color> colors, final VFont.PrewarmListener listener) {
+		return vFont.prewarm(ranges, colors, ForkJoinPool.commonPool(), listener);
+	}
+
+	/**
+	 * Generates and caches every glyph recorded by a usage profile, in descending order of frequency, on the common
+	 * fork-join pool.
+	 *
+	 * @see VFont#prewarm(GlyphUsageProfile, java.util.concurrent.Executor, VFont.PrewarmListener)
+	 *
+	 * @param profile The profile.
+	 * @param listener A listener to notify as the glyphs are generated, or null.
+	 * @return A future which completes once every glyph has been generated.
+	 */
+	public CompletableFuture<Void> prewarm(final @NonNull GlyphUsageProfile profile, final VFont.PrewarmListener listener) {
+		return vFont.prewarm(profile, ForkJoinPool.commonPool(), listener);
+	}
+
+	/**
+	 * Sets the policies of the font's glyph caches. This replaces the caches, so every cached glyph is discarded.
+	 *
+	 * The policies can also be set, without code changes, with the {@code vterminal.cache.image.*} and
+	 * {@code vterminal.cache.mask.*} system properties described by {@link CacheConfiguration}.
+	 *
+	 * @param imageCacheConfiguration The policy of the image cache.
+	 * @param maskCacheConfiguration The policy of the mask cache.
+	 */
+	public void configureGlyphCaches(final @NonNull CacheConfiguration imageCacheConfiguration, final @NonNull CacheConfiguration maskCacheConfiguration) {
+		vFont.setImageCacheConfiguration(imageCacheConfiguration);
+		vFont.setMaskCacheConfiguration(maskCacheConfiguration);
+	}
+
+	/**
+	 * Retrieves the distinct foreground colours which have been registered as {@link UIManager} defaults.
+	 *
+	 * @return The colours.
+	 */
+	private static Collection<Color> getPaletteForegroundColors() {
+		final var colors = new LinkedHashSet<Color>();
+		for (final var entry : UIManager.getDefaults().entrySet()) {
+			if (entry.getKey() instanceof String && entry.getValue() instanceof Color) {
+				if (((String) entry.getKey()).endsWith("foreground")) {
+					colors.add(new Color(((Color) entry.getValue()).getRGB(), true));
+				}
+			}
+		}
+
+		return colors;
+	}
+
 	@Override
 	public String getDescription() {
 		return "The VTerminal look and feel.";
@@ -182,6 +287,7 @@ public class VTerminalLookAndFeel extends BasicLookAndFeel {
 		}
 
 		instance = new VTerminalLookAndFeel(fontInputStream, pointSize);
+		MBeans.register(MBeans.createName("type=VTerminalLookAndFeel"), new VTerminalLookAndFeelMetrics(instance.vFont));
 		return instance;
 	}
 
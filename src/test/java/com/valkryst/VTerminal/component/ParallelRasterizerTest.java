@@ -0,0 +1,73 @@
+package com.valkryst.VTerminal.component;
+
+import com.valkryst.VTerminal.plaf.VTerminalLookAndFeel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+public class ParallelRasterizerTest {
+	@Test
+	public void canRasterizeTheSameImageAsTheSerialRasterizer() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final int tileWidth = laf.getTileWidth();
+		final int tileHeight = laf.getTileHeight();
+
+		final var tiles = new TileGrid(20, 30, 0xFF000000, 0xFFFFFFFF);
+		for (int i = 0 ; i < tiles.codePoints.length ; i++) {
+			tiles.codePoints[i] = 'A' + (i % 26);
+			tiles.backgroundColors[i] = 0xFF000000 | (i * 7919);
+		}
+
+		final var expected = new BufferedImage(20 * tileWidth, 30 * tileHeight, BufferedImage.TYPE_INT_RGB);
+		TileRasterizer.rasterize(tiles, laf.vFont, tileWidth, tileHeight, true, expected, 0, 0, 0, 0, 20, 30, null);
+
+		final var executor = Executors.newFixedThreadPool(3);
+		try {
+			final var rasterizer = new ParallelRasterizer(executor, 4, 4, 0);
+			final var actual = new BufferedImage(20 * tileWidth, 30 * tileHeight, BufferedImage.TYPE_INT_RGB);
+			rasterizer.rasterize(tiles, laf.vFont, tileWidth, tileHeight, true, actual, 0, 0, 0, 0, 20, 30, null);
+
+			for (int y = 0 ; y < expected.getHeight() ; y++) {
+				for (int x = 0 ; x < expected.getWidth() ; x++) {
+					Assertions.assertEquals(expected.getRGB(x, y), actual.getRGB(x, y));
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void canRasterizeWhenTheExecutorRejectsTasks() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final int tileWidth = laf.getTileWidth();
+		final int tileHeight = laf.getTileHeight();
+
+		final var tiles = new TileGrid(4, 4, 0xFF00FF00, 0xFFFFFFFF);
+		final var rasterizer = new ParallelRasterizer(task -> {
+			throw new RejectedExecutionException();
+		}, 4, 1, 0);
+
+		final var image = new BufferedImage(4 * tileWidth, 4 * tileHeight, BufferedImage.TYPE_INT_RGB);
+		rasterizer.rasterize(tiles, laf.vFont, tileWidth, tileHeight, true, image, 0, 0, 0, 0, 4, 4, null);
+		Assertions.assertEquals(0xFF00FF00, image.getRGB(image.getWidth() - 1, image.getHeight() - 1));
+	}
+
+	@Test
+	public void cannotCreateWithInvalidParallelism() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new ParallelRasterizer(Runnable::run, 0, 8, 0));
+	}
+
+	@Test
+	public void cannotCreateWithInvalidBandHeight() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new ParallelRasterizer(Runnable::run, 1, 0, 0));
+	}
+
+	@Test
+	public void cannotCreateWithInvalidMinimumTiles() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new ParallelRasterizer(Runnable::run, 1, 8, -1));
+	}
+}
@@ -0,0 +1,91 @@
+package com.valkryst.VTerminal.component;
+
+import com.valkryst.VTerminal.image.SequentialOp;
+import com.valkryst.VTerminal.plaf.VTerminalLookAndFeel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+
+public class TileRasterizerTest {
+	@Test
+	public void canBlendOpaqueSource() {
+		Assertions.assertEquals(0xFF123456, TileRasterizer.blend(255, 0x00123456, 0xFFABCDEF, true));
+	}
+
+	@Test
+	public void canBlendOntoTransparentDestination() {
+		Assertions.assertEquals(0x80123456, TileRasterizer.blend(128, 0xFF123456, 0x00ABCDEF, true));
+	}
+
+	@Test
+	public void canBlendOntoOpaqueDestination() {
+		Assertions.assertEquals(0xFF808080, TileRasterizer.blend(128, 0xFFFFFFFF, 0xFF000000, true));
+	}
+
+	@Test
+	public void canBlendOntoDestinationWithoutAlpha() {
+		Assertions.assertEquals(0xFF808080, TileRasterizer.blend(128, 0xFFFFFFFF, 0x00000000, false));
+	}
+
+	@Test
+	public void canBlendOntoTranslucentDestination() {
+		final int result = TileRasterizer.blend(128, 0xFFFFFFFF, 0x80000000, true);
+		Assertions.assertEquals(192, result >>> 24);
+		Assertions.assertEquals(0xAA, result & 0xFF);
+	}
+
+	@Test
+	public void canRasterizeBackgrounds() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final int tileWidth = laf.getTileWidth();
+		final int tileHeight = laf.getTileHeight();
+
+		final var tiles = new TileGrid(2, 1, 0xFFFF0000, 0xFFFFFFFF);
+		tiles.backgroundColors[1] = 0xFF0000FF;
+
+		final var image = new BufferedImage(tileWidth * 2, tileHeight, BufferedImage.TYPE_INT_RGB);
+		TileRasterizer.rasterize(tiles, laf.vFont, tileWidth, tileHeight, true, image, 0, 0, 0, 0, 2, 1, null);
+
+		Assertions.assertEquals(0xFFFF0000, image.getRGB(0, 0));
+		Assertions.assertEquals(0xFF0000FF, image.getRGB(tileWidth * 2 - 1, tileHeight - 1));
+	}
+
+	@Test
+	public void canRasterizeSequentialOpTilesFromPremultipliedImages() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final int tileWidth = laf.getTileWidth();
+		final int tileHeight = laf.getTileHeight();
+		final int foregroundColor = 0x80FF8040;
+
+		final var tiles = new TileGrid(1, 1, 0xFF000000, foregroundColor);
+		tiles.codePoints[0] = '@';
+		tiles.sequentialImageOps[0] = new SequentialOp();
+
+		final var image = new BufferedImage(tileWidth, tileHeight, BufferedImage.TYPE_INT_ARGB);
+		TileRasterizer.rasterize(tiles, laf.vFont, tileWidth, tileHeight, false, image, 0, 0, 0, 0, 1, 1, null);
+
+		final var glyph = (BufferedImage) laf.vFont.generateImage('@', new Color(foregroundColor, true), tiles.sequentialImageOps[0]);
+		Assertions.assertEquals(BufferedImage.TYPE_INT_ARGB_PRE, glyph.getType());
+
+		for (int y = 0 ; y < tileHeight ; y++) {
+			for (int x = 0 ; x < tileWidth ; x++) {
+				final int argb = glyph.getRGB(x, y);
+				final int expected = (argb >>> 24) == 0 ? 0xFF000000 : TileRasterizer.blend(argb >>> 24, argb, 0xFF000000, true);
+				Assertions.assertEquals(expected, image.getRGB(x, y));
+			}
+		}
+	}
+
+	@Test
+	public void cannotRasterizeIntoUnsupportedImage() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var tiles = new TileGrid(1, 1, 0xFF000000, 0xFFFFFFFF);
+		final var image = new BufferedImage(laf.getTileWidth(), laf.getTileHeight(), BufferedImage.TYPE_BYTE_GRAY);
+
+		Assertions.assertThrows(IllegalArgumentException.class, () -> {
+			TileRasterizer.rasterize(tiles, laf.vFont, laf.getTileWidth(), laf.getTileHeight(), true, image, 0, 0, 0, 0, 1, 1, null);
+		});
+	}
+}
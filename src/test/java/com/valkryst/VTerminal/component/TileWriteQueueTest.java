@@ -0,0 +1,52 @@
+package com.valkryst.VTerminal.component;
+
+import com.valkryst.VTerminal.image.SequentialOp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TileWriteQueueTest {
+	@Test
+	public void canDrainOnlyTheMostRecentWriteToEachProperty() {
+		final var queue = new TileWriteQueue(4);
+		queue.add(1, TileWriteQueue.CODE_POINT, 'a', null);
+		queue.add(1, TileWriteQueue.BACKGROUND_COLOR, 0xFF0000FF, null);
+		queue.add(1, TileWriteQueue.CODE_POINT, 'b', null);
+		queue.add(2, TileWriteQueue.CODE_POINT, 'c', null);
+
+		final List<String> writes = new ArrayList<>();
+		queue.drain((index, property, value, sequentialOp) -> writes.add(index + ":" + property + ":" + value));
+
+		Assertions.assertEquals(3, writes.size());
+		Assertions.assertTrue(writes.contains("1:" + TileWriteQueue.CODE_POINT + ":" + (int) 'b'));
+		Assertions.assertTrue(writes.contains("1:" + TileWriteQueue.BACKGROUND_COLOR + ":" + 0xFF0000FF));
+		Assertions.assertTrue(writes.contains("2:" + TileWriteQueue.CODE_POINT + ":" + (int) 'c'));
+	}
+
+	@Test
+	public void canDrainSequentialImageOps() {
+		final var queue = new TileWriteQueue(1);
+		final var sequentialOp = new SequentialOp();
+		queue.add(0, TileWriteQueue.SEQUENTIAL_IMAGE_OP, 0, sequentialOp);
+
+		final List<SequentialOp> writes = new ArrayList<>();
+		queue.drain((index, property, value, op) -> writes.add(op));
+		Assertions.assertEquals(List.of(sequentialOp), writes);
+	}
+
+	@Test
+	public void canDrainTheSameTileAcrossMultipleDrains() {
+		final var queue = new TileWriteQueue(1);
+		final List<Integer> writes = new ArrayList<>();
+
+		queue.add(0, TileWriteQueue.CODE_POINT, 'a', null);
+		queue.drain((index, property, value, sequentialOp) -> writes.add(value));
+		queue.add(0, TileWriteQueue.CODE_POINT, 'b', null);
+		queue.drain((index, property, value, sequentialOp) -> writes.add(value));
+		queue.drain((index, property, value, sequentialOp) -> writes.add(value));
+
+		Assertions.assertEquals(List.of((int) 'a', (int) 'b'), writes);
+	}
+}
@@ -1,56 +1,35 @@
 package com.valkryst.VTerminal.component;
 
 import com.valkryst.VTerminal.image.SequentialOp;
+import com.valkryst.VTerminal.plaf.VTerminalLookAndFeel;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
 
 public class VPanelTest {
 	@Test
-	public void canCreatePanel() throws NoSuchFieldException, IllegalAccessException {
+	public void canCreatePanel() {
 		final int panelWidth = 10;
 		final int panelHeight = 15;
 
 		final var panel = new VPanel(panelWidth, panelHeight);
 		Assertions.assertNotNull(panel);
-
-		final var panelClass = panel.getClass();
-		final var codePointsField = panelClass.getDeclaredField("codePoints");
-		final var backgroundColorsField = panelClass.getDeclaredField("backgroundColors");
-		final var foregroundColorsField = panelClass.getDeclaredField("foregroundColors");
-		final var sequentialImageOpsField = panelClass.getDeclaredField("sequentialImageOps");
-
-		codePointsField.setAccessible(true);
-		backgroundColorsField.setAccessible(true);
-		foregroundColorsField.setAccessible(true);
-		sequentialImageOpsField.setAccessible(true);
-
-		final var codePoints = (int[][]) codePointsField.get(panel);
-		Assertions.assertEquals(panelHeight, codePoints.length);
-		Assertions.assertEquals(panelWidth, codePoints[0].length);
-
-		final var backgroundColors = (Color[][]) backgroundColorsField.get(panel);
-		Assertions.assertEquals(panelHeight, backgroundColors.length);
-		Assertions.assertEquals(panelWidth, backgroundColors[0].length);
-
-		final var foregroundColors = (Color[][]) foregroundColorsField.get(panel);
-		Assertions.assertEquals(panelHeight, foregroundColors.length);
-		Assertions.assertEquals(panelWidth, foregroundColors[0].length);
-
-		final var sequentialImageOps = (SequentialOp[][]) sequentialImageOpsField.get(panel);
-		Assertions.assertEquals(panelHeight, sequentialImageOps.length);
-		Assertions.assertEquals(panelWidth, sequentialImageOps[0].length);
+		Assertions.assertEquals(panelHeight, panel.getHeightInTiles());
+		Assertions.assertEquals(panelWidth, panel.getWidthInTiles());
 
 		final var panelBackgroundColor = panel.getBackground();
 		final var panelForegroundColor = panel.getForeground();
 		for (int y = 0 ; y < panelHeight ; y++) {
 			for (int x = 0 ; x < panelWidth ; x++) {
-				Assertions.assertEquals(' ', codePoints[y][x]);
-				Assertions.assertEquals(panelBackgroundColor, backgroundColors[y][x]);
-				Assertions.assertEquals(panelForegroundColor, foregroundColors[y][x]);
-				Assertions.assertNull(sequentialImageOps[y][x]);
+				Assertions.assertEquals(' ', panel.getCodePointAt(x, y));
+				Assertions.assertEquals(panelBackgroundColor, panel.getBackgroundAt(x, y));
+				Assertions.assertEquals(panelForegroundColor, panel.getForegroundAt(x, y));
+				Assertions.assertNull(panel.getSequentialImageOpAt(x, y));
 			}
 		}
 	}
@@ -70,24 +49,20 @@ public class VPanelTest {
 	}
 
 	@Test
-	public void canSetBackgroundColor() throws NoSuchFieldException, IllegalAccessException {
+	public void canSetBackgroundColor() {
 		final var panel = new VPanel(2, 2);
 		panel.setBackground(Color.MAGENTA);
 
-		final var backgroundColorsField = panel.getClass().getDeclaredField("backgroundColors");
-		backgroundColorsField.setAccessible(true);
-		final var backgroundColors = (Color[][]) backgroundColorsField.get(panel);
-
 		for (int y = 0 ; y < panel.getHeightInTiles() ; y ++) {
 			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
-				Assertions.assertEquals(Color.MAGENTA, backgroundColors[y][x]);
+				Assertions.assertEquals(Color.MAGENTA, panel.getBackgroundAt(x, y));
 
 			}
 		}
 	}
 
 	@Test
-	public void canReset() throws NoSuchFieldException, IllegalAccessException {
+	public void canReset() {
 		final var panel = new VPanel(2, 2);
 		for (int y = 0 ; y < panel.getHeightInTiles() ; y++) {
 			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
@@ -98,36 +73,19 @@ public class VPanelTest {
 			}
 		}
 
-		final var backgroundColorsField = panel.getClass().getDeclaredField("backgroundColors");
-		backgroundColorsField.setAccessible(true);
-		final var backgroundColors = (Color[][]) backgroundColorsField.get(panel);
-
-		final var codePointsField = panel.getClass().getDeclaredField("codePoints");
-		codePointsField.setAccessible(true);
-		final var codePoints = (int[][]) codePointsField.get(panel);
-
-		final var foregroundColorsField = panel.getClass().getDeclaredField("foregroundColors");
-		foregroundColorsField.setAccessible(true);
-		final var foregroundColors = (Color[][]) foregroundColorsField.get(panel);
-
-		final var sequentialImageOpsField = panel.getClass().getDeclaredField("sequentialImageOps");
-		sequentialImageOpsField.setAccessible(true);
-		final var sequentialImageOps = (SequentialOp[][]) sequentialImageOpsField.get(panel);
-
-
 		panel.reset();
 		for (int y = 0 ; y < panel.getHeightInTiles() ; y++) {
 			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
-				Assertions.assertNotEquals(Color.MAGENTA, backgroundColors[y][x]);
-				Assertions.assertNotEquals('~', codePoints[y][x]);
-				Assertions.assertNotEquals(Color.GREEN, foregroundColors[y][x]);
-				Assertions.assertNull(sequentialImageOps[y][x]);
+				Assertions.assertNotEquals(Color.MAGENTA, panel.getBackgroundAt(x, y));
+				Assertions.assertNotEquals('~', panel.getCodePointAt(x, y));
+				Assertions.assertNotEquals(Color.GREEN, panel.getForegroundAt(x, y));
+				Assertions.assertNull(panel.getSequentialImageOpAt(x, y));
 			}
 		}
 	}
 
 	@Test
-	public void canResetBackgroundColors() throws NoSuchFieldException, IllegalAccessException {
+	public void canResetBackgroundColors() {
 		final var panel = new VPanel(2, 2);
 		for (int y = 0 ; y < panel.getHeightInTiles() ; y++) {
 			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
@@ -135,21 +93,16 @@ public class VPanelTest {
 			}
 		}
 
-		final var backgroundColorsField = panel.getClass().getDeclaredField("backgroundColors");
-		backgroundColorsField.setAccessible(true);
-		final var backgroundColors = (Color[][]) backgroundColorsField.get(panel);
-
-
 		panel.resetBackgroundColors();
 		for (int y = 0 ; y < panel.getHeightInTiles() ; y++) {
 			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
-				Assertions.assertNotEquals(Color.MAGENTA, backgroundColors[y][x]);
+				Assertions.assertNotEquals(Color.MAGENTA, panel.getBackgroundAt(x, y));
 			}
 		}
 	}
 
 	@Test
-	public void canResetCodePoints() throws NoSuchFieldException, IllegalAccessException {
+	public void canResetCodePoints() {
 		final var panel = new VPanel(2, 2);
 		for (int y = 0 ; y < panel.getHeightInTiles() ; y++) {
 			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
@@ -157,21 +110,16 @@ public class VPanelTest {
 			}
 		}
 
-		final var codePointsField = panel.getClass().getDeclaredField("codePoints");
-		codePointsField.setAccessible(true);
-		final var codePoints = (int[][]) codePointsField.get(panel);
-
-
 		panel.resetCodePoints();
 		for (int y = 0 ; y < panel.getHeightInTiles() ; y++) {
 			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
-				Assertions.assertNotEquals('~', codePoints[y][x]);
+				Assertions.assertNotEquals('~', panel.getCodePointAt(x, y));
 			}
 		}
 	}
 
 	@Test
-	public void canResetForegroundColors() throws NoSuchFieldException, IllegalAccessException {
+	public void canResetForegroundColors() {
 		final var panel = new VPanel(2, 2);
 		for (int y = 0 ; y < panel.getHeightInTiles() ; y++) {
 			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
@@ -179,21 +127,16 @@ public class VPanelTest {
 			}
 		}
 
-		final var foregroundColorsField = panel.getClass().getDeclaredField("foregroundColors");
-		foregroundColorsField.setAccessible(true);
-		final var foregroundColors = (Color[][]) foregroundColorsField.get(panel);
-
-
 		panel.resetForegroundColors();
 		for (int y = 0 ; y < panel.getHeightInTiles() ; y++) {
 			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
-				Assertions.assertNotEquals(Color.MAGENTA, foregroundColors[y][x]);
+				Assertions.assertNotEquals(Color.MAGENTA, panel.getForegroundAt(x, y));
 			}
 		}
 	}
 
 	@Test
-	public void canResetSequentialImageOps() throws NoSuchFieldException, IllegalAccessException {
+	public void canResetSequentialImageOps() {
 		final var panel = new VPanel(2, 2);
 		for (int y = 0 ; y < panel.getHeightInTiles() ; y++) {
 			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
@@ -201,61 +144,44 @@ public class VPanelTest {
 			}
 		}
 
-		final var sequentialImageOpsField = panel.getClass().getDeclaredField("sequentialImageOps");
-		sequentialImageOpsField.setAccessible(true);
-		final var sequentialImageOps = (SequentialOp[][]) sequentialImageOpsField.get(panel);
-
-
 		panel.resetSequentialImageOps();
 		for (int y = 0 ; y < panel.getHeightInTiles() ; y++) {
 			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
-				Assertions.assertNull(sequentialImageOps[y][x]);
+				Assertions.assertNull(panel.getSequentialImageOpAt(x, y));
 			}
 		}
 	}
 
 	@Test
-	public void canSetBackgroundColorWithNullColor() throws NoSuchFieldException, IllegalAccessException {
+	public void canSetBackgroundColorWithNullColor() {
 		final var panel = new VPanel(2, 2);
 		panel.setBackground(Color.MAGENTA);
 
-		final var backgroundColorsField = panel.getClass().getDeclaredField("backgroundColors");
-		backgroundColorsField.setAccessible(true);
-		final var backgroundColors = (Color[][]) backgroundColorsField.get(panel);
-
 		panel.setBackground(null);
 		final var defaultColor = UIManager.getColor("Panel.background");
 		for (int y = 0 ; y < panel.getHeightInTiles() ; y ++) {
 			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
-				Assertions.assertEquals(defaultColor, backgroundColors[y][x]);
+				Assertions.assertEquals(defaultColor, panel.getBackgroundAt(x, y));
 
 			}
 		}
 	}
 
 	@Test
-	public void canSetBackgroundColorAtLocation() throws NoSuchFieldException, IllegalAccessException {
+	public void canSetBackgroundColorAtLocation() {
 		final var panel = new VPanel(1, 1);
 		panel.setBackgroundAt(0, 0, Color.MAGENTA);
 
-		final var backgroundColorsField = panel.getClass().getDeclaredField("backgroundColors");
-		backgroundColorsField.setAccessible(true);
-		final var backgroundColors = (Color[][]) backgroundColorsField.get(panel);
-
-		Assertions.assertEquals(Color.MAGENTA, backgroundColors[0][0]);
+		Assertions.assertEquals(Color.MAGENTA, panel.getBackgroundAt(0, 0));
 	}
 
 	@Test
-	public void canSetBackgroundColorAtLocationWithNullColor() throws NoSuchFieldException, IllegalAccessException {
+	public void canSetBackgroundColorAtLocationWithNullColor() {
 		final var panel = new VPanel(1, 1);
 		panel.setBackgroundAt(0, 0, Color.MAGENTA);
 
-		final var backgroundColorsField = panel.getClass().getDeclaredField("backgroundColors");
-		backgroundColorsField.setAccessible(true);
-		final var backgroundColors = (Color[][]) backgroundColorsField.get(panel);
-
 		panel.setBackgroundAt(0, 0, null);
-		Assertions.assertEquals(UIManager.getColor("Panel.background"), backgroundColors[0][0]);
+		Assertions.assertEquals(UIManager.getColor("Panel.background"), panel.getBackgroundAt(0, 0));
 	}
 
 	@Test
@@ -266,15 +192,18 @@ public class VPanelTest {
 	}
 
 	@Test
-	public void canSetCodePointAtLocation() throws NoSuchFieldException, IllegalAccessException {
+	public void canSetBackgroundColorAtLocationWithPackedColor() {
 		final var panel = new VPanel(1, 1);
-		panel.setCodePointAt(0, 0, '~');
+		panel.setBackgroundAt(0, 0, Color.MAGENTA.getRGB());
+		Assertions.assertEquals(Color.MAGENTA, panel.getBackgroundAt(0, 0));
+	}
 
-		final var codePointsField = panel.getClass().getDeclaredField("codePoints");
-		codePointsField.setAccessible(true);
-		final var codePoints = (int[][]) codePointsField.get(panel);
+	@Test
+	public void canSetCodePointAtLocation() {
+		final var panel = new VPanel(1, 1);
+		panel.setCodePointAt(0, 0, '~');
 
-		Assertions.assertEquals('~', codePoints[0][0]);
+		Assertions.assertEquals('~', panel.getCodePointAt(0, 0));
 	}
 
 	@Test
@@ -285,63 +214,54 @@ public class VPanelTest {
 	}
 
 	@Test
-	public void canSetForegroundColor() throws NoSuchFieldException, IllegalAccessException {
+	public void canSetCodePointAtLocationBeyondPanelWidth() {
+		Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> {
+			new VPanel(2, 2).setCodePointAt(2, 0, '~');
+		});
+	}
+
+	@Test
+	public void canSetForegroundColor() {
 		final var panel = new VPanel(2, 2);
 		panel.setForeground(Color.MAGENTA);
 
-		final var foregroundColorsField = panel.getClass().getDeclaredField("foregroundColors");
-		foregroundColorsField.setAccessible(true);
-		final var foregroundColors = (Color[][]) foregroundColorsField.get(panel);
-
 		for (int y = 0 ; y < panel.getHeightInTiles() ; y ++) {
 			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
-				Assertions.assertEquals(Color.MAGENTA, foregroundColors[y][x]);
+				Assertions.assertEquals(Color.MAGENTA, panel.getForegroundAt(x, y));
 			}
 		}
 	}
 
 	@Test
-	public void canSetForegroundColorWithNullColor() throws NoSuchFieldException, IllegalAccessException {
+	public void canSetForegroundColorWithNullColor() {
 		final var panel = new VPanel(2, 2);
 		panel.setForeground(Color.MAGENTA);
 
-		final var foregroundColorsField = panel.getClass().getDeclaredField("foregroundColors");
-		foregroundColorsField.setAccessible(true);
-		final var foregroundColors = (Color[][]) foregroundColorsField.get(panel);
-
 		panel.setForeground(null);
 		final var defaultColor = UIManager.getColor("Panel.foreground");
 		for (int y = 0 ; y < panel.getHeightInTiles() ; y ++) {
 			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
-				Assertions.assertEquals(defaultColor, foregroundColors[y][x]);
+				Assertions.assertEquals(defaultColor, panel.getForegroundAt(x, y));
 
 			}
 		}
 	}
 
 	@Test
-	public void canSetForegroundColorAtLocation() throws NoSuchFieldException, IllegalAccessException {
+	public void canSetForegroundColorAtLocation() {
 		final var panel = new VPanel(1, 1);
 		panel.setForegroundAt(0, 0, Color.MAGENTA);
 
-		final var foregroundColorsField = panel.getClass().getDeclaredField("foregroundColors");
-		foregroundColorsField.setAccessible(true);
-		final var foregroundColors = (Color[][]) foregroundColorsField.get(panel);
-
-		Assertions.assertEquals(Color.MAGENTA, foregroundColors[0][0]);
+		Assertions.assertEquals(Color.MAGENTA, panel.getForegroundAt(0, 0));
 	}
 
 	@Test
-	public void canSetForegroundColorAtLocationWithNullColor() throws NoSuchFieldException, IllegalAccessException {
+	public void canSetForegroundColorAtLocationWithNullColor() {
 		final var panel = new VPanel(1, 1);
 		panel.setForegroundAt(0, 0, Color.MAGENTA);
 
-		final var foregroundColorsField = panel.getClass().getDeclaredField("foregroundColors");
-		foregroundColorsField.setAccessible(true);
-		final var foregroundColors = (Color[][]) foregroundColorsField.get(panel);
-
 		panel.setForegroundAt(0, 0, null);
-		Assertions.assertEquals(UIManager.getColor("Panel.foreground"), foregroundColors[0][0]);
+		Assertions.assertEquals(UIManager.getColor("Panel.foreground"), panel.getForegroundAt(0, 0));
 	}
 
 	@Test
@@ -350,4 +270,722 @@ public class VPanelTest {
 			new VPanel(1, 1).setForegroundAt(-1, -1, Color.MAGENTA);
 		});
 	}
+
+	@Test
+	public void canSetForegroundColorAtLocationWithPackedColor() {
+		final var panel = new VPanel(1, 1);
+		panel.setForegroundAt(0, 0, Color.MAGENTA.getRGB());
+		Assertions.assertEquals(Color.MAGENTA, panel.getForegroundAt(0, 0));
+	}
+
+	@Test
+	public void canWriteString() {
+		final var panel = new VPanel(10, 2);
+		panel.writeString(1, 1, "a\uD83D\uDE00b", Color.RED, Color.BLUE);
+
+		Assertions.assertEquals('a', panel.getCodePointAt(1, 1));
+		Assertions.assertEquals(0x1F600, panel.getCodePointAt(2, 1));
+		Assertions.assertEquals('b', panel.getCodePointAt(3, 1));
+		Assertions.assertEquals(' ', panel.getCodePointAt(4, 1));
+		Assertions.assertEquals(Color.RED.getRGB(), panel.getForegroundAt(3, 1).getRGB());
+		Assertions.assertEquals(Color.BLUE.getRGB(), panel.getBackgroundAt(3, 1).getRGB());
+	}
+
+	@Test
+	public void canWriteStringBeyondPanelWidth() {
+		final var panel = new VPanel(3, 1);
+		panel.writeString(1, 0, "abcdef", Color.RED, Color.BLUE);
+
+		Assertions.assertEquals(' ', panel.getCodePointAt(0, 0));
+		Assertions.assertEquals('a', panel.getCodePointAt(1, 0));
+		Assertions.assertEquals('b', panel.getCodePointAt(2, 0));
+	}
+
+	@Test
+	public void canWriteStringWithNullColors() {
+		final var panel = new VPanel(3, 1);
+		panel.writeString(0, 0, "abc", null, null);
+
+		Assertions.assertEquals(UIManager.getColor("Panel.foreground").getRGB(), panel.getForegroundAt(0, 0).getRGB());
+		Assertions.assertEquals(UIManager.getColor("Panel.background").getRGB(), panel.getBackgroundAt(0, 0).getRGB());
+	}
+
+	@Test
+	public void cannotWriteStringAtOutOfBoundsLocation() {
+		final var panel = new VPanel(3, 1);
+		Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> panel.writeString(3, 0, "a", Color.RED, Color.BLUE));
+	}
+
+	@Test
+	public void canFill() {
+		final var panel = new VPanel(5, 5);
+		panel.fill(1, 1, 3, 2, '#', Color.RED, Color.BLUE);
+
+		for (int y = 0 ; y < 5 ; y++) {
+			for (int x = 0 ; x < 5 ; x++) {
+				final boolean isInside = x >= 1 && x < 4 && y >= 1 && y < 3;
+				Assertions.assertEquals(isInside ? '#' : ' ', panel.getCodePointAt(x, y));
+				Assertions.assertEquals(isInside, panel.getForegroundAt(x, y).getRGB() == Color.RED.getRGB());
+				Assertions.assertEquals(isInside, panel.getBackgroundAt(x, y).getRGB() == Color.BLUE.getRGB());
+			}
+		}
+	}
+
+	@Test
+	public void cannotFillOutOfBoundsRegion() {
+		final var panel = new VPanel(5, 5);
+		Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> panel.fill(3, 3, 3, 1, '#', Color.RED, Color.BLUE));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> panel.fill(0, 0, -1, 1, '#', Color.RED, Color.BLUE));
+	}
+
+	@Test
+	public void canCopyRegion() {
+		final var panel = new VPanel(5, 5);
+		final var sequentialOp = new SequentialOp();
+		panel.setCodePointAt(0, 0, 'a');
+		panel.setCodePointAt(1, 1, 'b');
+		panel.setBackgroundAt(1, 1, Color.BLUE);
+		panel.setSequentialImageOpAt(1, 1, sequentialOp);
+
+		panel.copyRegion(0, 0, 2, 2, 3, 3);
+
+		Assertions.assertEquals('a', panel.getCodePointAt(3, 3));
+		Assertions.assertEquals('b', panel.getCodePointAt(4, 4));
+		Assertions.assertEquals(Color.BLUE.getRGB(), panel.getBackgroundAt(4, 4).getRGB());
+		Assertions.assertSame(sequentialOp, panel.getSequentialImageOpAt(4, 4));
+	}
+
+	@Test
+	public void canCopyOverlappingRegion() {
+		final var panel = new VPanel(1, 4);
+		panel.setCodePointAt(0, 0, 'a');
+		panel.setCodePointAt(0, 1, 'b');
+		panel.setCodePointAt(0, 2, 'c');
+
+		panel.copyRegion(0, 0, 1, 3, 0, 1);
+		Assertions.assertEquals('a', panel.getCodePointAt(0, 0));
+		Assertions.assertEquals('a', panel.getCodePointAt(0, 1));
+		Assertions.assertEquals('b', panel.getCodePointAt(0, 2));
+		Assertions.assertEquals('c', panel.getCodePointAt(0, 3));
+
+		panel.copyRegion(0, 1, 1, 3, 0, 0);
+		Assertions.assertEquals('a', panel.getCodePointAt(0, 0));
+		Assertions.assertEquals('b', panel.getCodePointAt(0, 1));
+		Assertions.assertEquals('c', panel.getCodePointAt(0, 2));
+	}
+
+	@Test
+	public void cannotCopyRegionOutOfBounds() {
+		final var panel = new VPanel(5, 5);
+		Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> panel.copyRegion(0, 0, 2, 2, 4, 4));
+	}
+
+	@Test
+	public void canRepaintBulkWriteAsSingleRectangle() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			final var panel = new RepaintRecordingPanel(10, 10);
+			panel.fill(2, 3, 4, 5, '#', Color.RED, Color.BLUE);
+			panel.repaintDirtyTiles();
+
+			final var laf = VTerminalLookAndFeel.getInstance();
+			final var tileWidth = laf.getTileWidth();
+			final var tileHeight = laf.getTileHeight();
+			Assertions.assertEquals(1, panel.repaintedRegions.size());
+			Assertions.assertEquals(new Rectangle(2 * tileWidth, 3 * tileHeight, 4 * tileWidth, 5 * tileHeight), panel.repaintedRegions.get(0));
+		});
+	}
+
+	@Test
+	public void canScroll() {
+		final var panel = new VPanel(3, 3);
+		panel.writeString(0, 0, "abc", Color.RED, Color.BLUE);
+		panel.writeString(0, 1, "def", Color.RED, Color.BLUE);
+		panel.writeString(0, 2, "ghi", Color.RED, Color.BLUE);
+		panel.setSequentialImageOpAt(0, 0, new SequentialOp());
+
+		panel.scroll(0, -1);
+		Assertions.assertEquals('d', panel.getCodePointAt(0, 0));
+		Assertions.assertEquals('g', panel.getCodePointAt(0, 1));
+		Assertions.assertEquals(' ', panel.getCodePointAt(0, 2));
+		Assertions.assertEquals(panel.getBackground().getRGB(), panel.getBackgroundAt(0, 2).getRGB());
+		Assertions.assertNull(panel.getSequentialImageOpAt(0, 0));
+
+		panel.scroll(1, 0);
+		Assertions.assertEquals(' ', panel.getCodePointAt(0, 0));
+		Assertions.assertEquals('d', panel.getCodePointAt(1, 0));
+		Assertions.assertEquals('e', panel.getCodePointAt(2, 0));
+	}
+
+	@Test
+	public void canScrollRegion() {
+		final var panel = new VPanel(3, 3);
+		panel.writeString(0, 0, "abc", Color.RED, Color.BLUE);
+		panel.writeString(0, 1, "def", Color.RED, Color.BLUE);
+
+		panel.scroll(0, 1, new Rectangle(1, 0, 1, 3));
+		Assertions.assertEquals('a', panel.getCodePointAt(0, 0));
+		Assertions.assertEquals(' ', panel.getCodePointAt(1, 0));
+		Assertions.assertEquals('b', panel.getCodePointAt(1, 1));
+		Assertions.assertEquals('e', panel.getCodePointAt(1, 2));
+		Assertions.assertEquals('c', panel.getCodePointAt(2, 0));
+	}
+
+	@Test
+	public void canScrollEntireRegionOutOfView() {
+		final var panel = new VPanel(3, 1);
+		panel.writeString(0, 0, "abc", Color.RED, Color.BLUE);
+
+		panel.scroll(5, 0);
+		for (int x = 0 ; x < 3 ; x++) {
+			Assertions.assertEquals(' ', panel.getCodePointAt(x, 0));
+		}
+	}
+
+	@Test
+	public void cannotScrollOutOfBoundsRegion() {
+		final var panel = new VPanel(3, 3);
+		Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> panel.scroll(0, 1, new Rectangle(1, 1, 3, 3)));
+	}
+
+	@Test
+	public void canPaintScrolledPanelFromBackBuffer() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var panel = new VPanel(4, 4);
+		panel.setSize(laf.getTileWidth() * 4, laf.getTileHeight() * 4);
+		panel.fill(0, 0, 4, 4, '#', Color.RED, Color.BLACK);
+		panel.setBackgroundAt(1, 1, Color.BLUE);
+		paint(panel);
+
+		// Changed, but not yet rendered into the back buffer, before the scroll.
+		panel.setBackgroundAt(2, 2, Color.GREEN);
+		panel.scroll(0, -1);
+
+		final var expected = new VPanel(4, 4);
+		expected.setSize(panel.getSize());
+		expected.fill(0, 0, 4, 4, '#', Color.RED, Color.BLACK);
+		expected.fill(0, 3, 4, 1, ' ', panel.getForeground(), panel.getBackground());
+		expected.setBackgroundAt(1, 0, Color.BLUE);
+		expected.setBackgroundAt(2, 1, Color.GREEN);
+
+		final var expectedImage = paint(expected);
+		final var actualImage = paint(panel);
+		for (int y = 0 ; y < expectedImage.getHeight() ; y++) {
+			for (int x = 0 ; x < expectedImage.getWidth() ; x++) {
+				Assertions.assertEquals(expectedImage.getRGB(x, y), actualImage.getRGB(x, y));
+			}
+		}
+	}
+
+	@Test
+	public void canPaintOnlyPresentedTilesWhenTileBufferingIsEnabled() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var panel = new VPanel(1, 1);
+		panel.setSize(laf.getTileWidth(), laf.getTileHeight());
+		panel.setBackgroundAt(0, 0, Color.BLACK);
+		panel.setTileBufferingEnabled(true);
+		Assertions.assertTrue(panel.isTileBufferingEnabled());
+
+		panel.setBackgroundAt(0, 0, Color.BLUE);
+		Assertions.assertEquals(Color.BLUE.getRGB(), panel.getBackgroundAt(0, 0).getRGB());
+		Assertions.assertEquals(Color.BLACK.getRGB(), paint(panel).getRGB(0, 0));
+
+		panel.present();
+		Assertions.assertEquals(Color.BLUE.getRGB(), paint(panel).getRGB(0, 0));
+	}
+
+	@Test
+	public void canPaintUnpresentedTilesWhenTileBufferingIsDisabled() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var panel = new VPanel(1, 1);
+		panel.setSize(laf.getTileWidth(), laf.getTileHeight());
+		panel.setTileBufferingEnabled(true);
+		panel.setBackgroundAt(0, 0, Color.BLUE);
+
+		panel.setTileBufferingEnabled(false);
+		Assertions.assertFalse(panel.isTileBufferingEnabled());
+		Assertions.assertEquals(Color.BLUE.getRGB(), paint(panel).getRGB(0, 0));
+	}
+
+	@Test
+	public void canRepaintOnlyPresentedTilesWhenTileBufferingIsEnabled() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			final var panel = new RepaintRecordingPanel(10, 10);
+			panel.setTileBufferingEnabled(true);
+			panel.repaintDirtyTiles();
+			panel.repaintedRegions.clear();
+
+			panel.setCodePointAt(2, 1, '~');
+			panel.repaintDirtyTiles();
+			Assertions.assertTrue(panel.repaintedRegions.isEmpty());
+
+			panel.present();
+			panel.repaintDirtyTiles();
+
+			final var laf = VTerminalLookAndFeel.getInstance();
+			Assertions.assertEquals(1, panel.repaintedRegions.size());
+			Assertions.assertEquals(new Rectangle(2 * laf.getTileWidth(), laf.getTileHeight(), laf.getTileWidth(), laf.getTileHeight()), panel.repaintedRegions.get(0));
+		});
+	}
+
+	@Test
+	public void canPresentScrolledTiles() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var panel = new VPanel(1, 2);
+		panel.setSize(laf.getTileWidth(), laf.getTileHeight() * 2);
+		panel.setTileBufferingEnabled(true);
+		panel.setBackgroundAt(0, 1, Color.BLUE);
+		panel.present();
+		paint(panel);
+
+		panel.scroll(0, -1);
+		panel.present();
+		Assertions.assertEquals(Color.BLUE.getRGB(), paint(panel).getRGB(0, 0));
+	}
+
+	@Test
+	public void canApplyQueuedWrites() throws Exception {
+		final var panel = new VPanel(4, 4);
+		final var sequentialOp = new SequentialOp();
+
+		final var producers = new Thread[4];
+		for (int i = 0 ; i < producers.length ; i++) {
+			final int y = i;
+			producers[i] = new Thread(() -> {
+				panel.queueCodePointAt(0, y, 'a');
+				panel.queueCodePointAt(0, y, 'b');
+				panel.queueBackgroundAt(1, y, Color.BLUE);
+				panel.queueForegroundAt(2, y, Color.RED.getRGB());
+				panel.queueSequentialImageOpAt(3, y, sequentialOp);
+			});
+			producers[i].start();
+		}
+
+		for (final var producer : producers) {
+			producer.join();
+		}
+
+		SwingUtilities.invokeAndWait(() -> {});
+
+		for (int y = 0 ; y < 4 ; y++) {
+			Assertions.assertEquals('b', panel.getCodePointAt(0, y));
+			Assertions.assertEquals(Color.BLUE.getRGB(), panel.getBackgroundAt(1, y).getRGB());
+			Assertions.assertEquals(Color.RED.getRGB(), panel.getForegroundAt(2, y).getRGB());
+			Assertions.assertSame(sequentialOp, panel.getSequentialImageOpAt(3, y));
+		}
+	}
+
+	@Test
+	public void cannotQueueWriteAtOutOfBoundsLocation() {
+		final var panel = new VPanel(4, 4);
+		Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> panel.queueCodePointAt(4, 0, 'a'));
+	}
+
+	@Test
+	public void canRepaintQueuedWritesAsSingleRectangle() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			final var panel = new RepaintRecordingPanel(10, 10);
+			for (int x = 0 ; x < 5 ; x++) {
+				panel.queueCodePointAt(x, 2, '#');
+				panel.queueCodePointAt(x, 2, '~');
+			}
+
+			panel.applyQueuedWrites();
+			panel.repaintDirtyTiles();
+
+			final var laf = VTerminalLookAndFeel.getInstance();
+			Assertions.assertEquals(1, panel.repaintedRegions.size());
+			Assertions.assertEquals(new Rectangle(0, 2 * laf.getTileHeight(), 5 * laf.getTileWidth(), laf.getTileHeight()), panel.repaintedRegions.get(0));
+			Assertions.assertEquals('~', panel.getCodePointAt(4, 2));
+		});
+	}
+
+	@Test
+	public void canCreateConcurrentPanel() {
+		Assertions.assertTrue(new VPanel(2, 2, true).isConcurrent());
+		Assertions.assertFalse(new VPanel(2, 2).isConcurrent());
+	}
+
+	@Test
+	public void canWriteConcurrentlyFromManyThreads() throws Exception {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var panel = new VPanel(16, 16, true);
+		panel.setSize(laf.getTileWidth() * 16, laf.getTileHeight() * 16);
+		panel.setRasterizerEnabled(true);
+
+		final var writers = new Thread[4];
+		for (int i = 0 ; i < writers.length ; i++) {
+			final int firstRow = i * 4;
+			writers[i] = new Thread(() -> {
+				for (int frame = 0 ; frame < 50 ; frame++) {
+					panel.fill(0, firstRow, 16, 4, '#', Color.RED, Color.BLUE);
+					panel.writeString(0, firstRow, "Row " + firstRow, Color.WHITE, Color.BLACK);
+
+					for (int x = 0 ; x < 16 ; x++) {
+						panel.setCodePointAt(x, firstRow + 3, 'A' + frame % 26);
+					}
+				}
+			});
+			writers[i].start();
+		}
+
+		// Paints concurrently with the writers.
+		for (int i = 0 ; i < 10 ; i++) {
+			paint(panel);
+		}
+
+		for (final var writer : writers) {
+			writer.join();
+		}
+
+		for (int row = 0 ; row < 16 ; row += 4) {
+			Assertions.assertEquals('R', panel.getCodePointAt(0, row));
+			Assertions.assertEquals('#', panel.getCodePointAt(0, row + 1));
+			Assertions.assertEquals('A' + 49 % 26, panel.getCodePointAt(15, row + 3));
+		}
+	}
+
+	@Test
+	public void canRenderToImage() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var panel = new VPanel(3, 2);
+		panel.setSize(laf.getTileWidth() * 3, laf.getTileHeight() * 2);
+		panel.fill(0, 0, 3, 2, '#', Color.RED, Color.BLACK);
+		panel.setBackgroundAt(2, 1, Color.BLUE);
+
+		final var image = new BufferedImage(panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_ARGB);
+		panel.renderTo(image);
+
+		panel.setRasterizerEnabled(true);
+		final var expected = paint(panel);
+		for (int y = 0 ; y < image.getHeight() ; y++) {
+			for (int x = 0 ; x < image.getWidth() ; x++) {
+				Assertions.assertEquals(expected.getRGB(x, y), image.getRGB(x, y));
+			}
+		}
+	}
+
+	@Test
+	public void canRenderRegionToImage() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var panel = new VPanel(3, 2);
+		panel.fill(0, 0, 3, 2, ' ', Color.RED, Color.BLACK);
+		panel.setBackgroundAt(2, 1, Color.BLUE);
+
+		final var image = new BufferedImage(laf.getTileWidth(), laf.getTileHeight(), BufferedImage.TYPE_INT_RGB);
+		panel.renderTo(image, new Rectangle(2, 1, 1, 1));
+		Assertions.assertEquals(Color.BLUE.getRGB(), image.getRGB(0, 0));
+		Assertions.assertEquals(Color.BLUE.getRGB(), image.getRGB(image.getWidth() - 1, image.getHeight() - 1));
+	}
+
+	@Test
+	public void canRenderToSubimage() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final int tileWidth = laf.getTileWidth();
+		final int tileHeight = laf.getTileHeight();
+		final var panel = new VPanel(4, 2);
+		panel.fill(0, 0, 4, 2, ' ', Color.BLACK, Color.RED);
+
+		final var image = new BufferedImage(tileWidth * 8, tileHeight * 4, BufferedImage.TYPE_INT_ARGB);
+		final var subimage = image.getSubimage(tileWidth * 4, tileHeight * 2, tileWidth * 4, tileHeight * 2);
+		panel.renderTo(subimage);
+
+		Assertions.assertEquals(Color.RED.getRGB(), subimage.getRGB(0, 0));
+		Assertions.assertEquals(Color.RED.getRGB(), subimage.getRGB(subimage.getWidth() - 1, subimage.getHeight() - 1));
+		Assertions.assertEquals(0, image.getRGB(0, 0));
+		Assertions.assertEquals(0, image.getRGB(tileWidth * 4 - 1, tileHeight * 2 - 1));
+		Assertions.assertEquals(0, image.getRGB(tileWidth * 4, tileHeight * 2 - 1));
+		Assertions.assertEquals(0, image.getRGB(tileWidth * 4 - 1, tileHeight * 2));
+	}
+
+	@Test
+	public void canRenderToUnsupportedImageType() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var panel = new VPanel(1, 1);
+		panel.setBackgroundAt(0, 0, Color.BLUE);
+
+		final var image = new BufferedImage(laf.getTileWidth(), laf.getTileHeight(), BufferedImage.TYPE_3BYTE_BGR);
+		panel.renderTo(image);
+		Assertions.assertEquals(Color.BLUE.getRGB(), image.getRGB(0, 0));
+	}
+
+	@Test
+	public void cannotRenderToImageWhichIsTooSmall() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var panel = new VPanel(2, 1);
+		final var image = new BufferedImage(laf.getTileWidth(), laf.getTileHeight(), BufferedImage.TYPE_INT_ARGB);
+		Assertions.assertThrows(IllegalArgumentException.class, () -> panel.renderTo(image));
+	}
+
+	@Test
+	public void canRepaintDirtyTilesAsMergedRectangles() throws Exception {
+		// Runs on the EDT, so that the automatically queued repaint can't drain the dirty tiles first.
+		SwingUtilities.invokeAndWait(() -> {
+			final var panel = new RepaintRecordingPanel(10, 10);
+			panel.setCodePointAt(2, 1, '~');
+			panel.setCodePointAt(3, 2, '~');
+			panel.setBackgroundAt(8, 8, Color.MAGENTA);
+			panel.repaintDirtyTiles();
+
+			final var laf = VTerminalLookAndFeel.getInstance();
+			final var tileWidth = laf.getTileWidth();
+			final var tileHeight = laf.getTileHeight();
+			Assertions.assertEquals(2, panel.repaintedRegions.size());
+			Assertions.assertEquals(new Rectangle(2 * tileWidth, tileHeight, 2 * tileWidth, 2 * tileHeight), panel.repaintedRegions.get(0));
+			Assertions.assertEquals(new Rectangle(8 * tileWidth, 8 * tileHeight, tileWidth, tileHeight), panel.repaintedRegions.get(1));
+
+			panel.repaintedRegions.clear();
+			panel.repaintDirtyTiles();
+			Assertions.assertTrue(panel.repaintedRegions.isEmpty());
+		});
+	}
+
+	@Test
+	public void canIgnoreUnchangedTilesWhenRepaintingDirtyTiles() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			final var panel = new RepaintRecordingPanel(2, 2);
+			panel.setCodePointAt(0, 0, ' ');
+			panel.setBackgroundAt(0, 0, panel.getBackgroundAt(0, 0));
+			panel.setForegroundAt(0, 0, panel.getForegroundAt(0, 0));
+			panel.setSequentialImageOpAt(0, 0, null);
+			panel.repaintDirtyTiles();
+
+			Assertions.assertTrue(panel.repaintedRegions.isEmpty());
+		});
+	}
+
+	@Test
+	public void canPaintInMaskMode() {
+		final var font = VTerminalLookAndFeel.getInstance().vFont;
+		font.setMaskModeEnabled(true);
+		try {
+			Assertions.assertTrue(containsColor(paintSingleTile('#', Color.MAGENTA), Color.MAGENTA));
+		} finally {
+			font.setMaskModeEnabled(false);
+		}
+	}
+
+	@Test
+	public void canPaintInAtlasMode() {
+		final var font = VTerminalLookAndFeel.getInstance().vFont;
+		font.setAtlasModeEnabled(true);
+		try {
+			Assertions.assertTrue(containsColor(paintSingleTile('#', Color.MAGENTA), Color.MAGENTA));
+		} finally {
+			font.setAtlasModeEnabled(false);
+		}
+	}
+
+	@Test
+	public void canPaintWithRasterizer() {
+		final var image = paintSingleTile('#', Color.MAGENTA, true);
+		Assertions.assertTrue(containsColor(image, Color.MAGENTA));
+		Assertions.assertTrue(containsColor(image, Color.BLACK));
+	}
+
+	@Test
+	public void canPaintWithRasterizerWhenTheTileHasASequentialOp() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var panel = new VPanel(1, 1);
+		panel.setSize(laf.getTileWidth(), laf.getTileHeight());
+		panel.setRasterizerEnabled(true);
+		panel.setCodePointAt(0, 0, '#');
+		panel.setBackgroundAt(0, 0, Color.BLACK);
+		panel.setForegroundAt(0, 0, Color.MAGENTA);
+		panel.setSequentialImageOpAt(0, 0, new SequentialOp());
+
+		Assertions.assertTrue(containsColor(paint(panel), Color.MAGENTA));
+	}
+
+	@Test
+	public void canPaintGlyphOnceItIsGeneratedAsynchronously() throws Exception {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var tasks = new ArrayList<Runnable>();
+		laf.vFont.setGlyphExecutor(tasks::add);
+
+		try {
+			// The colour is unique to this test, so that the glyph's image isn't already cached.
+			final var color = new Color(0x12, 0x34, 0x57);
+			final var panel = new VPanel(1, 1);
+			panel.setSize(laf.getTileWidth(), laf.getTileHeight());
+			panel.setCodePointAt(0, 0, '#');
+			panel.setBackgroundAt(0, 0, Color.BLACK);
+			panel.setForegroundAt(0, 0, color);
+
+			final var placeholder = paint(panel);
+			Assertions.assertFalse(containsColor(placeholder, color));
+			Assertions.assertTrue(containsColor(placeholder, Color.BLACK));
+			Assertions.assertEquals(1, tasks.size());
+
+			tasks.forEach(Runnable::run);
+			SwingUtilities.invokeAndWait(() -> {});
+
+			Assertions.assertTrue(containsColor(paint(panel), color));
+		} finally {
+			laf.vFont.setGlyphExecutor(null);
+		}
+	}
+
+	@Test
+	public void canRasterizeGlyphOnceItIsGeneratedAsynchronously() throws Exception {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var tasks = new ArrayList<Runnable>();
+		laf.vFont.setGlyphExecutor(tasks::add);
+
+		try {
+			// The code point is unique to this test, so that the glyph's mask isn't already cached.
+			final var panel = new VPanel(2, 1);
+			panel.setSize(laf.getTileWidth() * 2, laf.getTileHeight());
+			panel.setRasterizerEnabled(true);
+			panel.setCodePointAt(0, 0, 0x3A9);
+			panel.setCodePointAt(1, 0, 0x3A9);
+			panel.setBackgroundAt(0, 0, Color.BLACK);
+			panel.setBackgroundAt(1, 0, Color.BLACK);
+			panel.setForegroundAt(0, 0, Color.MAGENTA);
+			panel.setForegroundAt(1, 0, Color.MAGENTA);
+
+			Assertions.assertFalse(containsColor(paint(panel), Color.MAGENTA));
+
+			// Both tiles share a single request for the glyph.
+			Assertions.assertEquals(1, tasks.size());
+
+			tasks.forEach(Runnable::run);
+			SwingUtilities.invokeAndWait(() -> {});
+
+			final var image = paint(panel);
+			Assertions.assertTrue(containsColor(image.getSubimage(0, 0, laf.getTileWidth(), laf.getTileHeight()), Color.MAGENTA));
+			Assertions.assertTrue(containsColor(image.getSubimage(laf.getTileWidth(), 0, laf.getTileWidth(), laf.getTileHeight()), Color.MAGENTA));
+		} finally {
+			laf.vFont.setGlyphExecutor(null);
+		}
+	}
+
+	@Test
+	public void canRepaintFromBackBufferWithoutChanges() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var panel = new VPanel(2, 1);
+		panel.setSize(laf.getTileWidth() * 2, laf.getTileHeight());
+		panel.setCodePointAt(0, 0, '#');
+		panel.setBackgroundAt(0, 0, Color.BLACK);
+		panel.setForegroundAt(0, 0, Color.MAGENTA);
+		panel.setBackgroundAt(1, 0, Color.BLUE);
+
+		final var first = paint(panel);
+		final var second = paint(panel);
+
+		for (int y = 0 ; y < first.getHeight() ; y++) {
+			for (int x = 0 ; x < first.getWidth() ; x++) {
+				Assertions.assertEquals(first.getRGB(x, y), second.getRGB(x, y));
+			}
+		}
+	}
+
+	@Test
+	public void canRepaintChangedTilesFromBackBuffer() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var panel = new VPanel(2, 1);
+		panel.setSize(laf.getTileWidth() * 2, laf.getTileHeight());
+		panel.setBackgroundAt(0, 0, Color.BLACK);
+		panel.setBackgroundAt(1, 0, Color.BLACK);
+		Assertions.assertFalse(containsColor(paint(panel), Color.BLUE));
+
+		panel.setBackgroundAt(1, 0, Color.BLUE);
+		final var image = paint(panel);
+		Assertions.assertEquals(Color.BLACK.getRGB(), image.getRGB(0, 0));
+		Assertions.assertEquals(Color.BLUE.getRGB(), image.getRGB(image.getWidth() - 1, 0));
+	}
+
+	@Test
+	public void canInvalidateBackBufferWhenOpacityChanges() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var panel = new VPanel(1, 1);
+		panel.setSize(laf.getTileWidth(), laf.getTileHeight());
+		panel.setBackgroundAt(0, 0, new Color(0, 0, 255, 0));
+		panel.setOpaque(true);
+		Assertions.assertEquals(Color.BLUE.getRGB(), paint(panel).getRGB(0, 0));
+
+		panel.setOpaque(false);
+		Assertions.assertEquals(0, paint(panel).getRGB(0, 0) >>> 24);
+	}
+
+	/**
+	 * Paints a 1x1 panel, with a black background, onto an image.
+	 *
+	 * @param codePoint Code point of the tile.
+	 * @param foregroundColor Foreground color of the tile.
+	 * @return The image.
+	 */
+	private static BufferedImage paintSingleTile(final int codePoint, final Color foregroundColor) {
+		return paintSingleTile(codePoint, foregroundColor, false);
+	}
+
+	/**
+	 * Paints a 1x1 panel, with a black background, onto an image.
+	 *
+	 * @param codePoint Code point of the tile.
+	 * @param foregroundColor Foreground color of the tile.
+	 * @param isRasterizerEnabled Whether the panel should be painted by its rasterizer.
+	 * @return The image.
+	 */
+	private static BufferedImage paintSingleTile(final int codePoint, final Color foregroundColor, final boolean isRasterizerEnabled) {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var panel = new VPanel(1, 1);
+		panel.setRasterizerEnabled(isRasterizerEnabled);
+		panel.setSize(laf.getTileWidth(), laf.getTileHeight());
+		panel.setCodePointAt(0, 0, codePoint);
+		panel.setBackgroundAt(0, 0, Color.BLACK);
+		panel.setForegroundAt(0, 0, foregroundColor);
+		return paint(panel);
+	}
+
+	/**
+	 * Paints a panel onto a transparent image of the same size.
+	 *
+	 * @param panel A panel.
+	 * @return The image.
+	 */
+	private static BufferedImage paint(final VPanel panel) {
+		final var image = new BufferedImage(panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_ARGB);
+		final var graphics = image.createGraphics();
+		graphics.setClip(0, 0, image.getWidth(), image.getHeight());
+		panel.paintComponent(graphics);
+		graphics.dispose();
+		return image;
+	}
+
+	/**
+	 * Determines whether an image contains at least one pixel of a given color.
+	 *
+	 * @param image An image.
+	 * @param color A color.
+	 * @return Whether the image contains the color.
+	 */
+	private static boolean containsColor(final BufferedImage image, final Color color) {
+		for (int y = 0 ; y < image.getHeight() ; y++) {
+			for (int x = 0 ; x < image.getWidth() ; x++) {
+				if (image.getRGB(x, y) == color.getRGB()) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/** A {@link VPanel} which records the regions passed to {@link #repaint(long, int, int, int, int)}. */
+	private static class RepaintRecordingPanel extends VPanel {
+		private final List<Rectangle> repaintedRegions = new ArrayList<>();
+
+		public RepaintRecordingPanel(final int widthInTiles, final int heightInTiles) {
+			super(widthInTiles, heightInTiles);
+			this.repaintDirtyTiles();
+			repaintedRegions.clear();
+		}
+
+		@Override
+		public void repaint(final long tm, final int x, final int y, final int width, final int height) {
+			if (repaintedRegions != null) {
+				repaintedRegions.add(new Rectangle(x, y, width, height));
+			}
+		}
+	}
 }
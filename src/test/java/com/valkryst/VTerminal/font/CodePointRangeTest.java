@@ -0,0 +1,23 @@
+package com.valkryst.VTerminal.font;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class CodePointRangeTest {
+	@Test
+	public void canStreamCodePoints() {
+		final var range = new CodePointRange('a', 'c');
+		Assertions.assertArrayEquals(new int[] { 'a', 'b', 'c' }, range.stream().toArray());
+	}
+
+	@Test
+	public void cannotCreateRangeWithEndBeforeStart() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new CodePointRange('c', 'a'));
+	}
+
+	@Test
+	public void cannotCreateRangeWithInvalidCodePoint() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new CodePointRange(-1, 'a'));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new CodePointRange('a', Character.MAX_CODE_POINT + 1));
+	}
+}
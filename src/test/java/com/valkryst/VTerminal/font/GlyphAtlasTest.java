@@ -0,0 +1,141 @@
+package com.valkryst.VTerminal.font;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class GlyphAtlasTest {
+	@Test
+	public void canPutAndGetGlyph() {
+		final var atlas = new GlyphAtlas(10, 20, 4, 4, 1);
+		final var image = createImage(10, 20, Color.MAGENTA);
+
+		final var region = atlas.put(1, 0, 0, image);
+		Assertions.assertNotNull(region);
+		Assertions.assertEquals(10, region.getWidth());
+		Assertions.assertEquals(20, region.getHeight());
+		Assertions.assertEquals(Color.MAGENTA.getRGB(), region.getPage().getRGB(region.getX(), region.getY()));
+		Assertions.assertSame(region, atlas.get(1, 0, 0));
+		Assertions.assertSame(region, atlas.put(1, 0, 0, image));
+	}
+
+	@Test
+	public void canPackGlyphsOntoTheSamePage() {
+		final var atlas = new GlyphAtlas(10, 20, 2, 2, 1);
+		final var first = atlas.put(1, 0, 0, createImage(10, 20, Color.MAGENTA));
+		final var second = atlas.put(2, 0, 0, createImage(10, 20, Color.GREEN));
+
+		Assertions.assertSame(first.getPage(), second.getPage());
+		Assertions.assertNotEquals(first.getX(), second.getX());
+		Assertions.assertEquals(Color.MAGENTA.getRGB(), first.getPage().getRGB(first.getX(), first.getY()));
+		Assertions.assertEquals(Color.GREEN.getRGB(), second.getPage().getRGB(second.getX(), second.getY()));
+	}
+
+	@Test
+	public void canAddPagesAsTheAtlasFills() {
+		final var atlas = new GlyphAtlas(10, 20, 2, 1, 3);
+		Assertions.assertEquals(0, atlas.getPageCount());
+
+		atlas.put(1, 0, 0, createImage(10, 20, Color.MAGENTA));
+		atlas.put(2, 0, 0, createImage(10, 20, Color.MAGENTA));
+		Assertions.assertEquals(1, atlas.getPageCount());
+
+		atlas.put(3, 0, 0, createImage(10, 20, Color.MAGENTA));
+		Assertions.assertEquals(2, atlas.getPageCount());
+	}
+
+	@Test
+	public void canEvictGlyphsWhenTheAtlasIsFull() {
+		final var atlas = new GlyphAtlas(10, 20, 1, 1, 1);
+		final var first = atlas.put(1, 0, 0, createImage(10, 20, Color.MAGENTA));
+		final var second = atlas.put(2, 0, 0, createImage(10, 20, Color.GREEN));
+
+		Assertions.assertEquals(1, atlas.getPageCount());
+		Assertions.assertNull(atlas.get(1, 0, 0));
+		Assertions.assertSame(second, atlas.get(2, 0, 0));
+		Assertions.assertEquals(first.getSlot(), second.getSlot());
+		Assertions.assertEquals(Color.GREEN.getRGB(), second.getPage().getRGB(second.getX(), second.getY()));
+	}
+
+	@Test
+	public void canGetGlyphFromRenderer() {
+		final var atlas = new GlyphAtlas(10, 20, 2, 2, 1);
+		final var renders = new AtomicInteger();
+		final Supplier<Image> renderer = () -> {
+			renders.incrementAndGet();
+			return createImage(10, 20, Color.MAGENTA);
+		};
+
+		final var region = atlas.get(1, 0, 0, renderer);
+		Assertions.assertNotNull(region);
+		Assertions.assertEquals(Color.MAGENTA.getRGB(), region.getPage().getRGB(region.getX(), region.getY()));
+		Assertions.assertSame(region, atlas.get(1, 0, 0, renderer));
+		Assertions.assertSame(region, atlas.get(1, 0, 0));
+		Assertions.assertEquals(1, renders.get());
+	}
+
+	@Test
+	public void cannotUseSlotWhenRendererReturnsNull() {
+		final var atlas = new GlyphAtlas(10, 20, 1, 1, 1);
+		Assertions.assertNull(atlas.get(1, 0, 0, () -> null));
+		Assertions.assertNull(atlas.get(1, 0, 0));
+
+		final var region = atlas.get(2, 0, 0, () -> createImage(10, 20, Color.GREEN));
+		Assertions.assertNotNull(region);
+		Assertions.assertEquals(0, region.getSlot());
+		Assertions.assertEquals(1, atlas.getPageCount());
+	}
+
+	@Test
+	public void canEvictGlyphsWhenTheAtlasIsFullAndGlyphsAreRendered() {
+		final var atlas = new GlyphAtlas(10, 20, 1, 1, 1);
+		final var first = atlas.get(1, 0, 0, () -> createImage(10, 20, Color.MAGENTA));
+		final var second = atlas.get(2, 0, 0, () -> createImage(10, 20, Color.GREEN));
+
+		Assertions.assertNull(atlas.get(1, 0, 0));
+		Assertions.assertSame(second, atlas.get(2, 0, 0));
+		Assertions.assertEquals(first.getSlot(), second.getSlot());
+		Assertions.assertEquals(Color.GREEN.getRGB(), second.getPage().getRGB(second.getX(), second.getY()));
+	}
+
+	@Test
+	public void canCropImagesLargerThanASlot() {
+		final var atlas = new GlyphAtlas(10, 20, 2, 2, 1);
+		final var region = atlas.put(1, 0, 0, createImage(15, 25, Color.MAGENTA));
+		Assertions.assertEquals(10, region.getWidth());
+		Assertions.assertEquals(20, region.getHeight());
+	}
+
+	@Test
+	public void canInvalidateAll() {
+		final var atlas = new GlyphAtlas(10, 20, 2, 2, 1);
+		atlas.put(1, 0, 0, createImage(10, 20, Color.MAGENTA));
+		atlas.invalidateAll();
+
+		Assertions.assertNull(atlas.get(1, 0, 0));
+		Assertions.assertEquals(0, atlas.getPageCount());
+		Assertions.assertNotNull(atlas.put(1, 0, 0, createImage(10, 20, Color.MAGENTA)));
+	}
+
+	@Test
+	public void cannotCreateAtlasWithNonPositiveArguments() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new GlyphAtlas(0, 1, 1, 1, 1));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new GlyphAtlas(1, 0, 1, 1, 1));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new GlyphAtlas(1, 1, 0, 1, 1));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new GlyphAtlas(1, 1, 1, 0, 1));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new GlyphAtlas(1, 1, 1, 1, 0));
+	}
+
+	private static BufferedImage createImage(final int width, final int height, final Color color) {
+		final var image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		final var graphics = image.createGraphics();
+		graphics.setColor(color);
+		graphics.fillRect(0, 0, width, height);
+		graphics.dispose();
+		return image;
+	}
+}
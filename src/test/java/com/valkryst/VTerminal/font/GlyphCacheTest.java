@@ -0,0 +1,274 @@
+package com.valkryst.VTerminal.font;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.valkryst.VTerminal.image.CacheConfiguration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class GlyphCacheTest {
+	@Test
+	public void canPutAndGetEntry() {
+		final var cache = new GlyphCache<String>(Caffeine.newBuilder(), null);
+		cache.put('A', 0xFFFF00FF, 0, "A");
+
+		Assertions.assertEquals("A", cache.getIfPresent('A', 0xFFFF00FF, 0));
+		Assertions.assertNull(cache.getIfPresent('A', 0xFFFF00FF, 1));
+		Assertions.assertNull(cache.getIfPresent('A', 0xFF00FF00, 0));
+		Assertions.assertNull(cache.getIfPresent('B', 0xFFFF00FF, 0));
+	}
+
+	@Test
+	public void cannotAliasEntriesWithCollidingHashes() {
+		// These two combinations produce the same value from Objects.hash.
+		final int firstColor = 0xFFFF00FF;
+		final int secondColor = firstColor - 31;
+		Assertions.assertEquals(Objects.hash('A', firstColor, null), Objects.hash('B', secondColor, null));
+
+		final var cache = new GlyphCache<String>(Caffeine.newBuilder(), null);
+		cache.put('A', firstColor, 0, "A");
+		cache.put('B', secondColor, 0, "B");
+
+		Assertions.assertEquals("A", cache.getIfPresent('A', firstColor, 0));
+		Assertions.assertEquals("B", cache.getIfPresent('B', secondColor, 0));
+	}
+
+	@Test
+	public void canGetEntriesWhichWereDisplacedFromTheTable() {
+		final var cache = new GlyphCache<Integer>(Caffeine.newBuilder(), null);
+		for (int codePoint = 0 ; codePoint < 10_000 ; codePoint++) {
+			cache.put(codePoint, 0, 0, codePoint);
+		}
+
+		for (int codePoint = 0 ; codePoint < 10_000 ; codePoint++) {
+			Assertions.assertEquals(codePoint, cache.getIfPresent(codePoint, 0, 0));
+		}
+	}
+
+	@Test
+	public void cannotGetEntryAfterItIsRemoved() {
+		final var cache = new GlyphCache<String>(Caffeine.newBuilder().executor(Runnable::run), null);
+		cache.put('A', 0, 0, "A");
+		Assertions.assertEquals("A", cache.getIfPresent('A', 0, 0));
+
+		cache.asCache().invalidate(new GlyphKey(GlyphKey.pack('A', 0), 0));
+		Assertions.assertNull(cache.getIfPresent('A', 0, 0));
+	}
+
+	@Test
+	public void canGetEntryFromLoader() {
+		final var cache = new GlyphCache<String>(Caffeine.newBuilder(), null);
+		Assertions.assertEquals("A", cache.get('A', 0, 0, () -> "A"));
+		Assertions.assertEquals("A", cache.get('A', 0, 0, () -> "B"));
+		Assertions.assertEquals("A", cache.getIfPresent('A', 0, 0));
+	}
+
+	@Test
+	public void cannotCacheNullFromLoader() {
+		final var cache = new GlyphCache<String>(Caffeine.newBuilder(), null);
+		Assertions.assertNull(cache.get('A', 0, 0, () -> null));
+		Assertions.assertEquals("A", cache.get('A', 0, 0, () -> "A"));
+	}
+
+	@Test
+	public void canCallLoaderOnceWhenThreadsMissConcurrently() throws InterruptedException {
+		final var cache = new GlyphCache<String>(Caffeine.newBuilder(), null);
+		final var loadCount = new AtomicInteger();
+		final var start = new CountDownLatch(1);
+
+		final int threadCount = 8;
+		final var executor = Executors.newFixedThreadPool(threadCount);
+		final var results = new String[threadCount];
+		for (int i = 0 ; i < threadCount ; i++) {
+			final int thread = i;
+			executor.execute(() -> {
+				try {
+					start.await();
+					results[thread] = cache.get('A', 0, 0, () -> {
+						loadCount.incrementAndGet();
+
+						try {
+							Thread.sleep(50);
+						} catch (final InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+
+						return "A";
+					});
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+		}
+
+		start.countDown();
+		executor.shutdown();
+		Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		Assertions.assertEquals(1, loadCount.get());
+		for (final var result : results) {
+			Assertions.assertEquals("A", result);
+		}
+	}
+
+	@Test
+	public void cannotGetEntryAfterItIsInvalidated() {
+		final var cache = new GlyphCache<String>(Caffeine.newBuilder(), null);
+		cache.put('A', 0, 0, "A");
+		cache.invalidate('A', 0, 0);
+
+		Assertions.assertNull(cache.getIfPresent('A', 0, 0));
+	}
+
+	@Test
+	public void cannotGetEntryFromTableAfterItIsRemovedFromCache() {
+		// The removal listener never runs, so the entry is left in the table.
+		final var cache = new GlyphCache<String>(Caffeine.newBuilder().executor(task -> {}), null);
+		cache.put('A', 0, 0, "A");
+		cache.asCache().invalidate(new GlyphKey(GlyphKey.pack('A', 0), 0));
+
+		Assertions.assertNull(cache.getIfPresent('A', 0, 0));
+		Assertions.assertEquals("B", cache.get('A', 0, 0, () -> "B"));
+	}
+
+	@Test
+	public void cannotGetExpiredEntryFromTable() {
+		final var time = new AtomicLong();
+		final var builder = Caffeine.newBuilder().executor(Runnable::run).ticker(time::get).expireAfterAccess(10, TimeUnit.NANOSECONDS);
+		final var cache = new GlyphCache<String>(builder, null);
+		cache.put('A', 0, 0, "A");
+		time.addAndGet(11);
+
+		Assertions.assertNull(cache.getIfPresent('A', 0, 0));
+	}
+
+	@Test
+	public void canRefreshExpiryOnTableHits() {
+		final var time = new AtomicLong();
+		final var builder = Caffeine.newBuilder().executor(Runnable::run).ticker(time::get).expireAfterAccess(10, TimeUnit.NANOSECONDS);
+		final var cache = new GlyphCache<String>(builder, null);
+		cache.put('A', 0, 0, "A");
+
+		for (int i = 0 ; i < 3 ; i++) {
+			time.addAndGet(6);
+			Assertions.assertEquals("A", cache.getIfPresent('A', 0, 0));
+		}
+
+		Assertions.assertEquals("A", cache.asCache().policy().getIfPresentQuietly(new GlyphKey(GlyphKey.pack('A', 0), 0)));
+	}
+
+	@Test
+	public void canInvalidateAll() {
+		final var cache = new GlyphCache<String>(Caffeine.newBuilder(), null);
+		cache.put('A', 0, 0, "A");
+		cache.invalidateAll();
+		Assertions.assertNull(cache.getIfPresent('A', 0, 0));
+	}
+
+	@Test
+	public void canEvictEntriesByWeight() {
+		final var configuration = CacheConfiguration.builder().maximumWeight(10).build();
+		final var cache = new GlyphCache<String>(configuration, (key, value) -> value.length());
+		cache.put('A', 0, 0, "AAAAAAAA");
+		cache.put('B', 0, 0, "BBBBBBBB");
+		cache.asCache().cleanUp();
+
+		Assertions.assertEquals(1, cache.asCache().estimatedSize());
+	}
+
+	@Test
+	public void canGetEvictedEntryFromSoftTier() {
+		final var configuration = CacheConfiguration.builder().maximumWeight(1).softTierEnabled(true).build();
+		final var cache = new GlyphCache<String>(configuration, (key, value) -> 1);
+		cache.put('A', 0, 0, "A");
+		cache.put('B', 0, 0, "B");
+		cache.asCache().cleanUp();
+
+		// The removal listener, which moves the evicted entry to the soft tier, runs on the common pool.
+		ForkJoinPool.commonPool().awaitQuiescence(5, TimeUnit.SECONDS);
+
+		Assertions.assertEquals(1, cache.asCache().estimatedSize());
+		Assertions.assertEquals("A", cache.getIfPresent('A', 0, 0));
+		Assertions.assertEquals("B", cache.getIfPresent('B', 0, 0));
+	}
+
+	@Test
+	public void canScaleMaximumWeight() {
+		final var configuration = CacheConfiguration.builder().maximumWeight(10).softTierEnabled(true).build();
+		final var cache = new GlyphCache<String>(configuration, (key, value) -> 1);
+		for (int i = 0 ; i < 10 ; i++) {
+			cache.put('A' + i, 0, 0, "A");
+		}
+
+		Assertions.assertEquals(5, cache.scaleMaximumWeight(0.5));
+		cache.asCache().cleanUp();
+		ForkJoinPool.commonPool().awaitQuiescence(5, TimeUnit.SECONDS);
+
+		// Entries evicted by shrinking the cache aren't kept in the soft tier.
+		Assertions.assertEquals(5, cache.asCache().estimatedSize());
+		int present = 0;
+		for (int i = 0 ; i < 10 ; i++) {
+			if (cache.getIfPresent('A' + i, 0, 0) != null) {
+				present++;
+			}
+		}
+		Assertions.assertEquals(5, present);
+
+		Assertions.assertEquals(10, cache.scaleMaximumWeight(1));
+		Assertions.assertEquals(10, cache.asCache().policy().eviction().orElseThrow().getMaximum());
+	}
+
+	@Test
+	public void cannotScaleMaximumWeightOfUnboundedCache() {
+		final var cache = new GlyphCache<String>(Caffeine.newBuilder(), null);
+		Assertions.assertEquals(-1, cache.scaleMaximumWeight(0.5));
+	}
+
+	@Test
+	public void cannotScaleMaximumWeightByInvalidFraction() {
+		final var cache = new GlyphCache<String>(CacheConfiguration.builder().build(), (key, value) -> 1);
+		Assertions.assertThrows(IllegalArgumentException.class, () -> cache.scaleMaximumWeight(-0.1));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> cache.scaleMaximumWeight(1.1));
+	}
+
+	@Test
+	public void canCountTableHitsInStats() {
+		final var cache = new GlyphCache<String>(CacheConfiguration.builder().build(), (key, value) -> 1);
+		cache.get('A', 0, 0, () -> "A");
+		cache.get('A', 0, 0, () -> "A");
+		cache.getIfPresent('A', 0, 0);
+		cache.getIfPresent('B', 0, 0);
+
+		final var stats = cache.stats();
+		Assertions.assertEquals(2, stats.hitCount());
+		Assertions.assertEquals(2, stats.missCount());
+		Assertions.assertEquals(1, stats.loadSuccessCount());
+	}
+
+	@Test
+	public void cannotRecordStatsWhenDisabled() {
+		final var cache = new GlyphCache<String>(CacheConfiguration.builder().statsEnabled(false).build(), (key, value) -> 1);
+		cache.get('A', 0, 0, () -> "A");
+		cache.get('A', 0, 0, () -> "A");
+
+		Assertions.assertEquals(0, cache.stats().requestCount());
+	}
+
+	@Test
+	public void canGetWeightedSize() {
+		final var cache = new GlyphCache<String>(CacheConfiguration.builder().build(), (key, value) -> value.length());
+		cache.put('A', 0, 0, "AAA");
+		cache.put('B', 0, 0, "BB");
+		cache.asCache().cleanUp();
+
+		Assertions.assertEquals(5, cache.weightedSize());
+		Assertions.assertEquals(-1, new GlyphCache<String>(Caffeine.newBuilder(), null).weightedSize());
+	}
+}
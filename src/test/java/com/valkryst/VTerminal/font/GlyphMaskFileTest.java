@@ -0,0 +1,62 @@
+package com.valkryst.VTerminal.font;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+public class GlyphMaskFileTest {
+	private static final byte[] KEY = { 1, 2, 3, 4 };
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void canWriteAndReadMasks() throws IOException {
+		final var path = directory.resolve("masks.bin");
+		GlyphMaskFile.write(path, KEY, Map.of(
+			(int) 'A', new GlyphMask(2, 1, new byte[] { 0, (byte) 255 }),
+			(int) 'B', new GlyphMask(1, 2, new byte[] { 127, 64 })
+		));
+
+		final var masks = GlyphMaskFile.read(path, KEY);
+		Assertions.assertEquals(2, masks.size());
+
+		final var mask = masks.get((int) 'A');
+		Assertions.assertEquals(2, mask.getWidth());
+		Assertions.assertEquals(1, mask.getHeight());
+		Assertions.assertEquals(0, mask.getAlpha(0, 0));
+		Assertions.assertEquals(255, mask.getAlpha(1, 0));
+
+		Assertions.assertEquals(64, masks.get((int) 'B').getAlpha(0, 1));
+	}
+
+	@Test
+	public void cannotReadMasksWithDifferentKey() throws IOException {
+		final var path = directory.resolve("masks.bin");
+		GlyphMaskFile.write(path, KEY, Map.of((int) 'A', new GlyphMask(1, 1, new byte[] { 1 })));
+
+		Assertions.assertTrue(GlyphMaskFile.read(path, new byte[] { 1, 2, 3, 5 }).isEmpty());
+	}
+
+	@Test
+	public void cannotReadMasksFromMissingFile() throws IOException {
+		Assertions.assertTrue(GlyphMaskFile.read(directory.resolve("missing.bin"), KEY).isEmpty());
+	}
+
+	@Test
+	public void cannotReadMasksFromTruncatedFile() throws IOException {
+		final var path = directory.resolve("masks.bin");
+		GlyphMaskFile.write(path, KEY, Map.of((int) 'A', new GlyphMask(4, 4, new byte[16])));
+
+		final var bytes = Files.readAllBytes(path);
+		Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+
+		Assertions.assertTrue(GlyphMaskFile.read(path, KEY).isEmpty());
+	}
+}
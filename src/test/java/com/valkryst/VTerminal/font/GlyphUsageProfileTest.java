@@ -0,0 +1,80 @@
+package com.valkryst.VTerminal.font;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class GlyphUsageProfileTest {
+	@TempDir
+	Path directory;
+
+	@Test
+	public void canGetEntriesInDescendingOrderOfFrequency() {
+		final var profile = new GlyphUsageProfile();
+		profile.recordGlyph('A', 0xFFFF0000);
+		profile.recordMask('B');
+		profile.recordMask('B');
+		profile.recordGlyph('C', 0xFF00FF00);
+		profile.recordGlyph('C', 0xFF00FF00);
+		profile.recordGlyph('C', 0xFF00FF00);
+
+		final var entries = profile.getEntries();
+		Assertions.assertEquals(3, entries.size());
+
+		Assertions.assertEquals('C', entries.get(0).getCodePoint());
+		Assertions.assertEquals(0xFF00FF00, entries.get(0).getArgb());
+		Assertions.assertEquals(3, entries.get(0).getCount());
+		Assertions.assertFalse(entries.get(0).isMask());
+
+		Assertions.assertEquals('B', entries.get(1).getCodePoint());
+		Assertions.assertTrue(entries.get(1).isMask());
+
+		Assertions.assertEquals('A', entries.get(2).getCodePoint());
+		Assertions.assertEquals(1, entries.get(2).getCount());
+	}
+
+	@Test
+	public void canGetEntriesWithTheSameFrequencyInTheOrderTheyWereRecorded() {
+		final var profile = new GlyphUsageProfile();
+		profile.recordGlyph('C', 0xFF00FF00);
+		profile.recordMask('A');
+		profile.recordGlyph('B', 0xFFFF0000);
+		profile.recordGlyph('C', 0xFF00FF00);
+
+		final var entries = profile.getEntries();
+		Assertions.assertEquals('C', entries.get(0).getCodePoint());
+		Assertions.assertEquals('A', entries.get(1).getCodePoint());
+		Assertions.assertEquals('B', entries.get(2).getCodePoint());
+	}
+
+	@Test
+	public void canSaveAndLoadProfile() throws IOException {
+		final var path = directory.resolve("profile.txt");
+
+		final var profile = new GlyphUsageProfile();
+		profile.recordGlyph('A', 0x80FF0000);
+		profile.recordGlyph('A', 0x80FF0000);
+		profile.recordMask('B');
+		profile.save(path);
+
+		final var entries = GlyphUsageProfile.load(path).getEntries();
+		Assertions.assertEquals(2, entries.size());
+		Assertions.assertEquals('A', entries.get(0).getCodePoint());
+		Assertions.assertEquals(0x80FF0000, entries.get(0).getArgb());
+		Assertions.assertEquals(2, entries.get(0).getCount());
+		Assertions.assertEquals('B', entries.get(1).getCodePoint());
+		Assertions.assertTrue(entries.get(1).isMask());
+	}
+
+	@Test
+	public void cannotLoadProfileWithInvalidLine() throws IOException {
+		final var path = directory.resolve("profile.txt");
+		Files.writeString(path, "M,65,1\nX,65\n");
+
+		Assertions.assertThrows(IOException.class, () -> GlyphUsageProfile.load(path));
+	}
+}
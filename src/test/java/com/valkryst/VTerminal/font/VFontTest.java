@@ -0,0 +1,130 @@
+package com.valkryst.VTerminal.font;
+
+import com.valkryst.VTerminal.image.CacheConfiguration;
+import com.valkryst.VTerminal.image.MemoryPressureMonitor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+public class VFontTest {
+	@TempDir
+	Path directory;
+
+	@Test
+	public void canSaveAndLoadMasks() throws IOException, FontFormatException {
+		final var path = directory.resolve("masks.bin");
+
+		final var font = createFont(16);
+		final var mask = font.generateMask('A');
+		font.saveMasks(path);
+
+		final var otherFont = createFont(16);
+		Assertions.assertNull(otherFont.getCachedMask('A'));
+		Assertions.assertEquals(1, otherFont.loadMasks(path));
+
+		final var loadedMask = otherFont.getCachedMask('A');
+		Assertions.assertNotNull(loadedMask);
+		Assertions.assertEquals(mask.getWidth(), loadedMask.getWidth());
+		Assertions.assertEquals(mask.getHeight(), loadedMask.getHeight());
+
+		for (int y = 0 ; y < mask.getHeight() ; y++) {
+			for (int x = 0 ; x < mask.getWidth() ; x++) {
+				Assertions.assertEquals(mask.getAlpha(x, y), loadedMask.getAlpha(x, y));
+			}
+		}
+	}
+
+	@Test
+	public void cannotLoadMasksSavedWithDifferentPointSize() throws IOException, FontFormatException {
+		final var path = directory.resolve("masks.bin");
+
+		final var font = createFont(16);
+		font.generateMask('A');
+		font.saveMasks(path);
+
+		final var otherFont = createFont(18);
+		Assertions.assertEquals(0, otherFont.loadMasks(path));
+		Assertions.assertNull(otherFont.getCachedMask('A'));
+	}
+
+	@Test
+	public void canRecordAndPrewarmUsageProfile() throws IOException, FontFormatException {
+		final var font = createFont(16);
+		final var profile = new GlyphUsageProfile();
+		font.setUsageProfile(profile);
+		font.generateImage('A', 0xFFFF0000, null);
+		font.generateImage('A', 0xFFFF0000, null);
+		font.generateMask('B');
+		font.setUsageProfile(null);
+		font.generateMask('C');
+
+		// Glyphs are only recorded when they're generated, so the cache hit isn't counted.
+		final var entries = profile.getEntries();
+		Assertions.assertEquals(2, entries.size());
+		Assertions.assertEquals('A', entries.get(0).getCodePoint());
+		Assertions.assertEquals(1, entries.get(0).getCount());
+		Assertions.assertEquals('B', entries.get(1).getCodePoint());
+
+		final var otherFont = createFont(16);
+		otherFont.prewarm(profile, Runnable::run, null).join();
+		Assertions.assertNotNull(otherFont.getCachedImage('A', 0xFFFF0000, null));
+		Assertions.assertNotNull(otherFont.getCachedMask('B'));
+		Assertions.assertNull(otherFont.getCachedMask('C'));
+	}
+
+	@Test
+	public void cannotRecordCachedGlyphsInUsageProfile() throws IOException, FontFormatException {
+		final var font = createFont(16);
+		font.generateImage('A', 0xFFFF0000, null);
+		font.generateMask('B');
+
+		final var profile = new GlyphUsageProfile();
+		font.setUsageProfile(profile);
+		font.generateImage('A', 0xFFFF0000, null);
+		font.getCachedImage('A', 0xFFFF0000, null);
+		font.generateMask('B');
+		font.getCachedMask('B');
+		font.getCachedMask('C');
+
+		Assertions.assertTrue(profile.getEntries().isEmpty());
+	}
+
+	@Test
+	public void canShrinkAndRestoreCachesUnderMemoryPressure() throws IOException, FontFormatException {
+		final var font = createFont(16);
+		font.setImageCacheConfiguration(CacheConfiguration.builder().maximumWeight(1000).softTierEnabled(true).build());
+		font.setMaskCacheConfiguration(CacheConfiguration.builder().maximumWeight(100).build());
+
+		final var actions = new ArrayList<String>();
+		font.onMemoryPressure(MemoryPressureMonitor.Level.CRITICAL, actions::add);
+		Assertions.assertTrue(actions.stream().anyMatch(action -> action.endsWith("image cache to 100 bytes.")));
+		Assertions.assertTrue(actions.stream().anyMatch(action -> action.endsWith("mask cache to 50 bytes.")));
+		Assertions.assertTrue(actions.stream().anyMatch(action -> action.startsWith("Cleared the secondary tier") && action.endsWith("image cache.")));
+		Assertions.assertTrue(actions.stream().anyMatch(action -> action.endsWith("glyph atlas.")));
+
+		actions.clear();
+		font.onMemoryPressure(MemoryPressureMonitor.Level.NORMAL, actions::add);
+		Assertions.assertTrue(actions.stream().anyMatch(action -> action.endsWith("image cache to 1000 bytes.")));
+		Assertions.assertTrue(actions.stream().anyMatch(action -> action.endsWith("mask cache to 100 bytes.")));
+		Assertions.assertEquals(2, actions.size());
+	}
+
+	@Test
+	public void cannotCacheImageOfAtlasRegion() throws IOException, FontFormatException {
+		final var font = createFont(16);
+		Assertions.assertNotNull(font.generateAtlasRegion('A', Color.MAGENTA, null));
+		Assertions.assertNotNull(font.getCachedAtlasRegion('A', Color.MAGENTA.getRGB(), null));
+		Assertions.assertNull(font.getCachedImage('A', Color.MAGENTA.getRGB(), null));
+	}
+
+	private static VFont createFont(final int pointSize) throws IOException, FontFormatException {
+		try (final var inputStream = VFontTest.class.getResourceAsStream("/Fonts/DejaVuSansMono.ttf")) {
+			return new VFont(inputStream, pointSize);
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.valkryst.VTerminal.image;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class CacheConfigurationTest {
+	private static final String PREFIX = "vterminal.cache.test";
+
+	@Test
+	public void canBuildConfiguration() {
+		final var configuration = CacheConfiguration.builder()
+													.maximumWeight(1024)
+													.expireAfterAccess(null)
+													.softTierEnabled(true)
+													.build();
+
+		Assertions.assertEquals(1024, configuration.getMaximumWeight());
+		Assertions.assertNull(configuration.getExpireAfterAccess());
+		Assertions.assertTrue(configuration.isSoftTierEnabled());
+	}
+
+	@Test
+	public void canBuildDefaultConfiguration() {
+		final var configuration = CacheConfiguration.builder().build();
+		Assertions.assertEquals(16L << 20, configuration.getMaximumWeight());
+		Assertions.assertEquals(Duration.ofMinutes(5), configuration.getExpireAfterAccess());
+		Assertions.assertFalse(configuration.isSoftTierEnabled());
+		Assertions.assertTrue(configuration.isStatsEnabled());
+	}
+
+	@Test
+	public void cannotBuildConfigurationWithNegativeWeight() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> CacheConfiguration.builder().maximumWeight(-1));
+	}
+
+	@Test
+	public void canOverrideConfigurationWithSystemProperties() {
+		System.setProperty(PREFIX + ".maximumWeight", "64m");
+		System.setProperty(PREFIX + ".expireAfterAccess", "PT30S");
+		System.setProperty(PREFIX + ".softTier", "true");
+		System.setProperty(PREFIX + ".recordStats", "false");
+
+		try {
+			final var configuration = CacheConfiguration.builder().build().withSystemProperties(PREFIX);
+			Assertions.assertEquals(64L << 20, configuration.getMaximumWeight());
+			Assertions.assertEquals(Duration.ofSeconds(30), configuration.getExpireAfterAccess());
+			Assertions.assertTrue(configuration.isSoftTierEnabled());
+			Assertions.assertFalse(configuration.isStatsEnabled());
+		} finally {
+			System.clearProperty(PREFIX + ".maximumWeight");
+			System.clearProperty(PREFIX + ".expireAfterAccess");
+			System.clearProperty(PREFIX + ".softTier");
+			System.clearProperty(PREFIX + ".recordStats");
+		}
+	}
+
+	@Test
+	public void canDisableExpiryWithSystemProperty() {
+		System.setProperty(PREFIX + ".expireAfterAccess", "none");
+
+		try {
+			Assertions.assertNull(CacheConfiguration.builder().build().withSystemProperties(PREFIX).getExpireAfterAccess());
+		} finally {
+			System.clearProperty(PREFIX + ".expireAfterAccess");
+		}
+	}
+
+	@Test
+	public void cannotOverrideConfigurationWithInvalidSystemProperty() {
+		System.setProperty(PREFIX + ".maximumWeight", "lots");
+
+		try {
+			Assertions.assertThrows(IllegalArgumentException.class, () -> CacheConfiguration.builder().build().withSystemProperties(PREFIX));
+		} finally {
+			System.clearProperty(PREFIX + ".maximumWeight");
+		}
+	}
+}
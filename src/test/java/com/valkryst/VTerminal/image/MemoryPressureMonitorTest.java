@@ -0,0 +1,88 @@
+package com.valkryst.VTerminal.image;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.Reference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MemoryPressureMonitorTest {
+	private final MemoryPressureMonitor monitor = MemoryPressureMonitor.getInstance();
+
+	@AfterEach
+	public void reset() {
+		monitor.stop();
+		monitor.setLevel(MemoryPressureMonitor.Level.NORMAL);
+		monitor.setListener(null);
+	}
+
+	@Test
+	public void canNotifyTargetsOfPressure() {
+		final var levels = new ArrayList<MemoryPressureMonitor.Level>();
+		final MemoryPressureMonitor.Target target = (level, actions) -> {
+			levels.add(level);
+			actions.accept("Adjusted to " + level + ".");
+		};
+		monitor.register(target);
+
+		final var actions = new ArrayList<String>();
+		monitor.setListener((level, action) -> actions.add(action));
+
+		monitor.setLevel(MemoryPressureMonitor.Level.HIGH);
+		monitor.setLevel(MemoryPressureMonitor.Level.HIGH);
+		monitor.setLevel(MemoryPressureMonitor.Level.CRITICAL);
+		monitor.setLevel(MemoryPressureMonitor.Level.NORMAL);
+
+		Assertions.assertEquals(List.of(MemoryPressureMonitor.Level.HIGH, MemoryPressureMonitor.Level.CRITICAL, MemoryPressureMonitor.Level.NORMAL), levels);
+		Assertions.assertTrue(actions.contains("Adjusted to HIGH."));
+		Assertions.assertTrue(actions.contains("Adjusted to CRITICAL."));
+		Assertions.assertTrue(actions.contains("Adjusted to NORMAL."));
+
+		// Targets are held weakly, so this one must stay reachable until the end of the test.
+		Reference.reachabilityFence(target);
+	}
+
+	@Test
+	public void canShrinkAndRestoreSequentialOpCache() {
+		final var configuration = CacheConfiguration.builder().maximumWeight(1000).softTierEnabled(true).build();
+		final var op = new SequentialOp(configuration);
+		final var name = "SequentialOp #" + op.getId();
+
+		final var actions = new ArrayList<String>();
+		monitor.setListener((level, action) -> actions.add(action));
+
+		monitor.setLevel(MemoryPressureMonitor.Level.HIGH);
+		Assertions.assertTrue(actions.contains("Set the maximum weight of the " + name + " cache to 500 bytes."));
+		Assertions.assertTrue(actions.contains("Cleared the secondary tier of the " + name + " cache."));
+
+		actions.clear();
+		monitor.setLevel(MemoryPressureMonitor.Level.CRITICAL);
+		Assertions.assertTrue(actions.contains("Cleared the " + name + " cache."));
+
+		actions.clear();
+		monitor.setLevel(MemoryPressureMonitor.Level.NORMAL);
+		Assertions.assertTrue(actions.contains("Set the maximum weight of the " + name + " cache to 1000 bytes."));
+
+		Reference.reachabilityFence(op);
+	}
+
+	@Test
+	public void canStartAndStop() {
+		final boolean started = monitor.start(0.75, 0.9, 0.6, Duration.ofMillis(100), null);
+		monitor.stop();
+
+		// Every collector in HotSpot has a heap pool which supports collection usage thresholds.
+		Assertions.assertTrue(started);
+		Assertions.assertEquals(MemoryPressureMonitor.Level.NORMAL, monitor.getLevel());
+	}
+
+	@Test
+	public void cannotStartWithInvalidThresholds() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> monitor.start(0.9, 0.75, 0.6, Duration.ofSeconds(1), null));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> monitor.start(0.75, 0.9, 0.8, Duration.ofSeconds(1), null));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> monitor.start(0.75, 0.9, 0.6, Duration.ZERO, null));
+	}
+}
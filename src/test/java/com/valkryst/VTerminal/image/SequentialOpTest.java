@@ -31,6 +31,48 @@ public class SequentialOpTest {
 		new SequentialOp(new GaussianFilter(), null, new GaussianFilter());
 	}
 
+	@Test
+	public void canAssignUniqueIds() {
+		final var first = new SequentialOp();
+		final var second = new SequentialOp();
+		Assertions.assertNotEquals(0, first.getId());
+		Assertions.assertNotEquals(first.getId(), second.getId());
+	}
+
+	@Test
+	public void canAssignNewIdWhenOperationsAreAdded() {
+		final var op = new SequentialOp();
+		final var id = op.getId();
+		op.addOperations(new GaussianFilter());
+		Assertions.assertNotEquals(id, op.getId());
+	}
+
+	@Test
+	public void canReuseFilteredImageForIdenticalSource() {
+		final var op = new SequentialOp(new GaussianFilter());
+		final var first = op.filter(new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB), null);
+		final var second = op.filter(new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB), null);
+		Assertions.assertSame(first, second);
+
+		final var different = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+		different.setRGB(5, 5, 0xFFFFFFFF);
+		Assertions.assertNotSame(first, op.filter(different, null));
+	}
+
+	@Test
+	public void canWeighSourceImageOfEachCacheKey() throws InterruptedException {
+		final var op = new SequentialOp(CacheConfiguration.builder().maximumWeight(1L << 20).build());
+		op.filter(new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB), null);
+
+		// The cache applies the weight of a new entry asynchronously.
+		final long deadline = System.nanoTime() + 5_000_000_000L;
+		while (op.getCacheWeight() == 0 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+
+		Assertions.assertEquals(10 * 10 * 4 * 2, op.getCacheWeight());
+	}
+
 	@Test
 	public void cannotFilterWithNullSource() {
 		Assertions.assertThrows(NullPointerException.class, () -> {
@@ -0,0 +1,67 @@
+package com.valkryst.VTerminal.metrics;
+
+import com.valkryst.VTerminal.component.VPanel;
+import com.valkryst.VTerminal.image.SequentialOp;
+import com.valkryst.VTerminal.plaf.VTerminalLookAndFeel;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.RescaleOp;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+public class FlightRecorderEventTest {
+	@Test
+	public void canRecordEvents(final @TempDir Path directory) throws IOException {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var path = directory.resolve("recording.jfr");
+
+		try (final var recording = new Recording()) {
+			recording.enable(PaintEvent.class);
+			recording.enable(GlyphRenderEvent.class);
+			recording.enable(SequentialOpFilterEvent.class);
+			recording.start();
+
+			final var panel = new VPanel(2, 1);
+			panel.setCodePointAt(0, 0, 'R');
+			panel.setSize(2 * laf.getTileWidth(), laf.getTileHeight());
+
+			final var image = new BufferedImage(panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_ARGB);
+			final var graphics = image.createGraphics();
+			graphics.setClip(0, 0, image.getWidth(), image.getHeight());
+			panel.paintComponent(graphics);
+			graphics.dispose();
+
+			final var op = new SequentialOp(new RescaleOp(1.0f, 0.0f, null));
+			laf.vFont.generateImage('Q', new Color(0xFF123456), op);
+			op.filter(new BufferedImage(2, 2, BufferedImage.TYPE_INT_ARGB), null);
+			op.filter(new BufferedImage(2, 2, BufferedImage.TYPE_INT_ARGB), null);
+
+			recording.stop();
+			recording.dump(path);
+		}
+
+		final List<RecordedEvent> events = RecordingFile.readAllEvents(path);
+
+		final var paint = events.stream().filter(event -> event.getEventType().getName().equals("com.valkryst.VTerminal.Paint")).findFirst().orElseThrow();
+		Assertions.assertEquals(2, paint.getInt("tileCount"));
+		Assertions.assertEquals(2 * laf.getTileWidth(), paint.getInt("clipWidth"));
+
+		final var render = events.stream().filter(event -> event.getEventType().getName().equals("com.valkryst.VTerminal.GlyphRender") && event.getInt("codePoint") == 'Q').findFirst().orElseThrow();
+		Assertions.assertTrue(render.getBoolean("sequentialOpApplied"));
+		Assertions.assertEquals(0xFF123456, render.getInt("argb"));
+
+		final var filters = events.stream().filter(event -> event.getEventType().getName().equals("com.valkryst.VTerminal.SequentialOpFilter")).toList();
+		Assertions.assertEquals(3, filters.size());
+		Assertions.assertEquals(2, filters.stream().filter(event -> !event.getBoolean("cacheHit")).count());
+		Assertions.assertEquals(1, filters.stream().filter(event -> event.getBoolean("cacheHit")).count());
+		Assertions.assertEquals(1, filters.get(0).getInt("operationCount"));
+	}
+}
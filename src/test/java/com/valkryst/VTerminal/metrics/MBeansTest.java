@@ -0,0 +1,62 @@
+package com.valkryst.VTerminal.metrics;
+
+import com.valkryst.VTerminal.component.VPanel;
+import com.valkryst.VTerminal.plaf.VTerminalLookAndFeel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.openmbean.CompositeData;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+
+public class MBeansTest {
+	@Test
+	public void canReadLookAndFeelMetrics() throws JMException {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		laf.generateImage('M', Color.RED, null);
+		laf.generateImage('M', Color.RED, null);
+
+		final var server = ManagementFactory.getPlatformMBeanServer();
+		final var name = MBeans.createName("type=VTerminalLookAndFeel");
+		Assertions.assertTrue(server.isRegistered(name));
+
+		final var statistics = (CompositeData) server.getAttribute(name, "ImageCacheStatistics");
+		Assertions.assertTrue((Long) statistics.get("hitCount") >= 1);
+		Assertions.assertTrue((Long) server.getAttribute(name, "RenderedGlyphCount") >= 1);
+		Assertions.assertTrue((Long) server.getAttribute(name, "ImageCacheWeight") > 0);
+		Assertions.assertNotNull(server.getAttribute(name, "SequentialOpCacheStatistics"));
+		Assertions.assertEquals("NORMAL", server.getAttribute(name, "MemoryPressureLevel"));
+	}
+
+	@Test
+	public void canReadPanelMetricsWhileDisplayable() throws JMException {
+		final var panel = new VPanel(4, 2);
+		final var server = ManagementFactory.getPlatformMBeanServer();
+		final int registeredBefore = server.queryNames(MBeans.createName("type=VPanel,*"), null).size();
+
+		panel.addNotify();
+		try {
+			final var names = server.queryNames(MBeans.createName("type=VPanel,*"), null);
+			Assertions.assertEquals(registeredBefore + 1, names.size());
+
+			final var laf = VTerminalLookAndFeel.getInstance();
+			panel.setSize(4 * laf.getTileWidth(), 2 * laf.getTileHeight());
+
+			final var image = new BufferedImage(panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_ARGB);
+			final var graphics = image.createGraphics();
+			graphics.setClip(0, 0, image.getWidth(), image.getHeight());
+			panel.paintComponent(graphics);
+			graphics.dispose();
+
+			Assertions.assertEquals(1, panel.getPaintStatistics().getPaintCount());
+			Assertions.assertEquals(8, panel.getPaintStatistics().getLastTilesPainted());
+			Assertions.assertTrue(panel.getPaintStatistics().getDurationPercentile(50) > 0);
+		} finally {
+			panel.removeNotify();
+		}
+
+		Assertions.assertEquals(registeredBefore, server.queryNames(MBeans.createName("type=VPanel,*"), null).size());
+	}
+}
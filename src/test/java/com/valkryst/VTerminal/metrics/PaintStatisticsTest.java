@@ -0,0 +1,56 @@
+package com.valkryst.VTerminal.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PaintStatisticsTest {
+	@Test
+	public void canRecordPaints() {
+		final var statistics = new PaintStatistics(100);
+		for (int i = 1 ; i <= 100 ; i++) {
+			statistics.record(i, i % 2 == 0 ? 10 : 0);
+		}
+
+		Assertions.assertEquals(100, statistics.getPaintCount());
+		Assertions.assertEquals(10, statistics.getLastTilesPainted());
+		Assertions.assertEquals(5, statistics.getAverageTilesPainted());
+		Assertions.assertEquals(50, statistics.getDurationPercentile(50));
+		Assertions.assertEquals(95, statistics.getDurationPercentile(95));
+		Assertions.assertEquals(100, statistics.getDurationPercentile(100));
+		Assertions.assertEquals(1, statistics.getDurationPercentile(0));
+	}
+
+	@Test
+	public void canCalculatePercentilesFromMostRecentPaints() {
+		final var statistics = new PaintStatistics(4);
+		for (int i = 1 ; i <= 8 ; i++) {
+			statistics.record(i * 100, 1);
+		}
+
+		Assertions.assertEquals(500, statistics.getDurationPercentile(0));
+		Assertions.assertEquals(800, statistics.getDurationPercentile(100));
+	}
+
+	@Test
+	public void canResetStatistics() {
+		final var statistics = new PaintStatistics(4);
+		statistics.record(100, 1);
+		statistics.reset();
+
+		Assertions.assertEquals(0, statistics.getPaintCount());
+		Assertions.assertEquals(0, statistics.getAverageTilesPainted());
+		Assertions.assertEquals(0, statistics.getDurationPercentile(50));
+	}
+
+	@Test
+	public void cannotCreateStatisticsWithZeroCapacity() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new PaintStatistics(0));
+	}
+
+	@Test
+	public void cannotCalculateInvalidPercentile() {
+		final var statistics = new PaintStatistics(4);
+		Assertions.assertThrows(IllegalArgumentException.class, () -> statistics.getDurationPercentile(-1));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> statistics.getDurationPercentile(101));
+	}
+}
@@ -1,6 +1,7 @@
 package com.valkryst.VTerminal.plaf;
 
 import com.jhlabs.image.GaussianFilter;
+import com.valkryst.VTerminal.font.CodePointRange;
 import com.valkryst.VTerminal.image.SequentialOp;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
@@ -9,8 +10,11 @@ import org.mockito.Mockito;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class VTerminalLookAndFeelTest {
 	private final int tileWidth;
@@ -195,6 +199,45 @@ public class VTerminalLookAndFeelTest {
 		Assertions.assertTrue(image.getHeight(null) >= 1);
 	}
 
+	@Test
+	public void canGenerateAtlasRegion() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var region = laf.generateAtlasRegion('A', Color.MAGENTA, null);
+		Assertions.assertNotNull(region);
+		Assertions.assertEquals(laf.getTileWidth(), region.getWidth());
+		Assertions.assertEquals(laf.getTileHeight(), region.getHeight());
+		Assertions.assertSame(region, laf.generateAtlasRegion('A', Color.MAGENTA, null));
+		Assertions.assertSame(region.getPage(), laf.generateAtlasRegion('B', Color.MAGENTA, null).getPage());
+	}
+
+	@Test
+	public void canGenerateMask() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var mask = laf.generateMask('A');
+		Assertions.assertNotNull(mask);
+		Assertions.assertEquals(laf.getTileWidth(), mask.getWidth());
+		Assertions.assertEquals(laf.getTileHeight(), mask.getHeight());
+		Assertions.assertSame(mask, laf.generateMask('A'));
+	}
+
+	@Test
+	public void canGenerateMaskWithTheSameCoverageAsAnImage() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var mask = laf.generateMask('A');
+		final var image = (BufferedImage) laf.generateImage('A', Color.WHITE, null);
+
+		for (int y = 0 ; y < mask.getHeight() ; y++) {
+			for (int x = 0 ; x < mask.getWidth() ; x++) {
+				Assertions.assertEquals(image.getRGB(x, y) >>> 24, mask.getAlpha(x, y));
+			}
+		}
+	}
+
+	@Test
+	public void cannotGenerateMaskForWhitespace() {
+		Assertions.assertNull(VTerminalLookAndFeel.getInstance().generateMask(' '));
+	}
+
 	@Test
 	public void canRetrieveDescription() {
 		final var laf = VTerminalLookAndFeel.getInstance();
@@ -299,4 +342,35 @@ public class VTerminalLookAndFeelTest {
 		final var laf = VTerminalLookAndFeel.getInstance();
 		Assertions.assertTrue(laf.isSupportedLookAndFeel());
 	}
+
+	@Test
+	public void canPrewarmGlyphs() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var color = new Color(0x65, 0x43, 0x21);
+		final var generatedCodePoints = new AtomicInteger(0);
+		final var totalCodePoints = new AtomicInteger(0);
+
+		laf.prewarm(List.of(new CodePointRange(' ', 'Z')), List.of(color), (generated, total) -> {
+			generatedCodePoints.accumulateAndGet(generated, Math::max);
+			totalCodePoints.set(total);
+		}).join();
+
+		// The space is skipped, as it has no rendering.
+		Assertions.assertEquals('Z' - ' ', totalCodePoints.get());
+		Assertions.assertEquals(totalCodePoints.get(), generatedCodePoints.get());
+
+		for (int codePoint = '!' ; codePoint <= 'Z' ; codePoint++) {
+			Assertions.assertNotNull(laf.vFont.getCachedMask(codePoint));
+			Assertions.assertNotNull(laf.vFont.getCachedImage(codePoint, color.getRGB(), null));
+		}
+	}
+
+	@Test
+	public void canPrewarmGlyphsInPaletteColors() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		laf.prewarm(List.of(CodePointRange.BOX_DRAWING)).join();
+
+		final var foreground = UIManager.getColor("Panel.foreground");
+		Assertions.assertNotNull(laf.vFont.getCachedImage(0x2500, foreground.getRGB(), null));
+	}
 }